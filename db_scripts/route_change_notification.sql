@@ -0,0 +1,33 @@
+-- Run as the owner of the sapphire_gateway schema.
+-- Adds the change time used by the gateway to detect route changes and publishes a
+-- notification on the sapphire_route_changes channel whenever a route changes.
+
+ALTER TABLE sapphire_gateway.routes ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE DEFAULT now();
+
+UPDATE sapphire_gateway.routes SET updated_at = now() WHERE updated_at IS NULL;
+
+-- Keep updated_at current for changes made directly in the database
+CREATE OR REPLACE FUNCTION sapphire_gateway.routes_touch_updated_at() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS routes_touch_updated_at ON sapphire_gateway.routes;
+CREATE TRIGGER routes_touch_updated_at
+    BEFORE INSERT OR UPDATE ON sapphire_gateway.routes
+    FOR EACH ROW EXECUTE FUNCTION sapphire_gateway.routes_touch_updated_at();
+
+-- Notify the gateways listening on the channel, the payload is the id of the changed route
+CREATE OR REPLACE FUNCTION sapphire_gateway.routes_notify_change() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('sapphire_route_changes', COALESCE(NEW.route_id, OLD.route_id));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS routes_notify_change ON sapphire_gateway.routes;
+CREATE TRIGGER routes_notify_change
+    AFTER INSERT OR UPDATE OR DELETE ON sapphire_gateway.routes
+    FOR EACH ROW EXECUTE FUNCTION sapphire_gateway.routes_notify_change();
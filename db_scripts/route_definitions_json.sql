@@ -0,0 +1,18 @@
+-- Run as the owner of the sapphire_gateway schema.
+-- Converts the predicates and filters of the seeded routes to the JSON array format,
+-- which allows any number of predicates and filters, with arguments, per route.
+-- Rows still holding a comma separated list of paths keep working until they are converted.
+
+UPDATE sapphire_gateway.routes
+SET predicates = json_build_array('Path=' || predicates)::text
+WHERE predicates NOT LIKE '[%';
+
+UPDATE sapphire_gateway.routes
+SET filters = json_build_array(filters)::text
+WHERE filters IS NOT NULL AND filters NOT LIKE '[%';
+
+-- for e.g. a route with two paths whose resources are authorized individually
+-- UPDATE sapphire_gateway.routes
+-- SET predicates = '["Path=/api/v1/sapphire/mms/secured/member/**,/api/v1/sapphire/mms/secured/account/**"]',
+--     filters = '[{"name": "AuthenticationFilter", "args": {"resourceAuthorization": "true"}}]'
+-- WHERE route_id = 'member-management';
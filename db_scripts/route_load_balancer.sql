@@ -0,0 +1,12 @@
+-- Run as the owner of the sapphire_gateway schema.
+-- Adds the load balancing strategy of a route: ROUND_ROBIN, LEAST_LATENCY or WEIGHTED.
+-- Routes without one use application.load-balancer.default-strategy of the gateway.
+
+ALTER TABLE sapphire_gateway.routes ADD COLUMN IF NOT EXISTS load_balancer VARCHAR(32);
+
+-- for e.g. send the member management traffic to the instance answering fastest
+-- UPDATE sapphire_gateway.routes SET load_balancer = 'LEAST_LATENCY' WHERE route_id = 'member-management';
+
+-- or send a share of it to a canary registered in eureka with eureka.instance.metadata-map.weight=5,
+-- the other instances have the default weight of 100
+-- UPDATE sapphire_gateway.routes SET load_balancer = 'WEIGHTED' WHERE route_id = 'member-management';
@@ -0,0 +1,8 @@
+-- Run as the owner of the sapphire_gateway schema.
+-- Flags the routes whose bodies are streamed through the gateway without being aggregated,
+-- limited to application.streaming.max-request-size and max-response-size of the gateway.
+
+ALTER TABLE sapphire_gateway.routes ADD COLUMN IF NOT EXISTS streaming BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- for e.g. stream the member exports
+-- UPDATE sapphire_gateway.routes SET streaming = TRUE WHERE route_id = 'member-export';
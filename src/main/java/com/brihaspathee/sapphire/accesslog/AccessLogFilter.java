@@ -0,0 +1,107 @@
+package com.brihaspathee.sapphire.accesslog;
+
+import com.brihaspathee.sapphire.config.AccessLogConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 6:20 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.accesslog
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Writes one record per sampled request to the `sapphire.access` logger with the route,
+ * the status and where the time went. Only the method and the path are logged, never the
+ * query string or the headers, so tokens cannot end up in the log. The logger is backed
+ * by an asynchronous appender (see logback-spring.xml) so the event loop never waits on
+ * the disk, and requests that are not sampled do no logging work at all.
+ */
+@Component
+public class AccessLogFilter implements GlobalFilter, Ordered {
+
+    /**
+     * The logger the access log records are written to.
+     */
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("sapphire.access");
+
+    /**
+     * The access log configuration.
+     */
+    private final AccessLogConfig accessLogConfig;
+
+    /**
+     * Constructs an instance of the AccessLogFilter.
+     */
+    public AccessLogFilter(AccessLogConfig accessLogConfig) {
+        this.accessLogConfig = accessLogConfig;
+    }
+
+    /**
+     * Starts timing the request and writes its record once the response completes.
+     *
+     * @param exchange the current server web exchange
+     * @param chain the gateway filter chain
+     * @return a {@code Mono<Void>} that completes when the request is processed
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!accessLogConfig.isEnabled() || !ACCESS_LOG.isInfoEnabled()) {
+            return chain.filter(exchange);
+        }
+        GatewayTimings timings = GatewayTimings.start(exchange);
+        return chain.filter(exchange)
+                .doFinally(signal -> record(exchange, timings));
+    }
+
+    /**
+     * Writes the record of the request if it is sampled.
+     */
+    private void record(ServerWebExchange exchange, GatewayTimings timings) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        boolean serverError = status != null && status.is5xxServerError();
+        if (!sampled() && !(serverError && accessLogConfig.isAlwaysLogErrors())) {
+            return;
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ACCESS_LOG.info("method={} path={} status={} route={} total_us={} auth_us={} upstream_us={}",
+                exchange.getRequest().getMethod(),
+                exchange.getRequest().getPath().value(),
+                status != null ? status.value() : "-",
+                route != null ? route.getId() : "-",
+                timings.totalMicros(System.nanoTime()),
+                timings.authMicros(),
+                timings.upstreamMicros());
+    }
+
+    /**
+     * Decides whether the request is written to the access log.
+     */
+    private boolean sampled() {
+        double sampleRate = accessLogConfig.getSampleRate();
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Runs before every other filter so the total time covers the whole filter chain.
+     *
+     * @return the order of the filter
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
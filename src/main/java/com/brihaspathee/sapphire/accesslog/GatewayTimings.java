@@ -0,0 +1,200 @@
+package com.brihaspathee.sapphire.accesslog;
+
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 6:10 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.accesslog
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The timings of a single request, kept as an exchange attribute by the AccessLogFilter
+ * and the RouteMetricsFilter and filled in by the filters that wait on other services.
+ * The phases are recorded as nanosecond timestamps so recording them allocates nothing.
+ * They are written on the event loop or client thread the phase ends on and read on the
+ * thread that completes the response, so the timestamps are volatile. When both the
+ * access log and the route metrics are disabled the attribute is not set and the static
+ * helpers do nothing.
+ */
+public final class GatewayTimings {
+
+    /**
+     * The name of the exchange attribute holding the timings.
+     */
+    public static final String ATTRIBUTE = GatewayTimings.class.getName();
+
+    /**
+     * The time the gateway started handling the request.
+     */
+    private final long startedAt;
+
+    /**
+     * The time the authentication service call started, zero if it was not called.
+     */
+    private volatile long authStartedAt;
+
+    /**
+     * The time the authentication service call finished.
+     */
+    private volatile long authFinishedAt;
+
+    /**
+     * The time the request was sent to the downstream service, zero if it was not sent.
+     */
+    private volatile long upstreamStartedAt;
+
+    /**
+     * The time the downstream service responded.
+     */
+    private volatile long upstreamFinishedAt;
+
+    /**
+     * Creates the timings of a request the gateway started handling at the given time.
+     *
+     * @param startedAt the time the gateway started handling the request, in nanoseconds
+     */
+    public GatewayTimings(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Returns the timings of the request, starting them if no filter has done so yet.
+     *
+     * @param exchange the current server web exchange
+     * @return the timings of the request
+     */
+    public static GatewayTimings start(ServerWebExchange exchange) {
+        GatewayTimings timings = exchange.getAttribute(ATTRIBUTE);
+        if (timings == null) {
+            timings = new GatewayTimings(System.nanoTime());
+            exchange.getAttributes().put(ATTRIBUTE, timings);
+        }
+        return timings;
+    }
+
+    /**
+     * Records the start of the authentication service call of the request.
+     *
+     * @param exchange the current server web exchange
+     */
+    public static void authStarted(ServerWebExchange exchange) {
+        GatewayTimings timings = exchange.getAttribute(ATTRIBUTE);
+        if (timings != null) {
+            timings.authStartedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Records the end of the authentication service call of the request.
+     *
+     * @param exchange the current server web exchange
+     */
+    public static void authFinished(ServerWebExchange exchange) {
+        GatewayTimings timings = exchange.getAttribute(ATTRIBUTE);
+        if (timings != null) {
+            timings.authFinishedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Records that the request was sent to the downstream service.
+     *
+     * @param exchange the current server web exchange
+     */
+    public static void upstreamStarted(ServerWebExchange exchange) {
+        GatewayTimings timings = exchange.getAttribute(ATTRIBUTE);
+        if (timings != null) {
+            timings.upstreamStartedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Records that the downstream service responded.
+     *
+     * @param exchange the current server web exchange
+     */
+    public static void upstreamFinished(ServerWebExchange exchange) {
+        GatewayTimings timings = exchange.getAttribute(ATTRIBUTE);
+        if (timings != null) {
+            timings.upstreamFinishedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Returns the time spent handling the request so far.
+     *
+     * @param now the current time in nanoseconds
+     * @return the elapsed time in microseconds
+     */
+    public long totalMicros(long now) {
+        return TimeUnit.NANOSECONDS.toMicros(totalNanos(now));
+    }
+
+    /**
+     * Returns the time spent handling the request so far.
+     *
+     * @param now the current time in nanoseconds
+     * @return the elapsed time in nanoseconds
+     */
+    public long totalNanos(long now) {
+        return now - startedAt;
+    }
+
+    /**
+     * Returns the time spent waiting for the authentication service.
+     *
+     * @return the time in microseconds, -1 if the service was not called
+     */
+    public long authMicros() {
+        return toMicros(authNanos());
+    }
+
+    /**
+     * Returns the time spent waiting for the authentication service.
+     *
+     * @return the time in nanoseconds, -1 if the service was not called
+     */
+    public long authNanos() {
+        return elapsedNanos(authStartedAt, authFinishedAt);
+    }
+
+    /**
+     * Returns the time the downstream service took to respond.
+     *
+     * @return the time in microseconds, -1 if the request was not sent downstream
+     */
+    public long upstreamMicros() {
+        return toMicros(upstreamNanos());
+    }
+
+    /**
+     * Returns the time the downstream service took to respond.
+     *
+     * @return the time in nanoseconds, -1 if the request was not sent downstream
+     */
+    public long upstreamNanos() {
+        return elapsedNanos(upstreamStartedAt, upstreamFinishedAt);
+    }
+
+    /**
+     * Returns the time between the two timestamps, -1 if the phase did not complete.
+     */
+    private static long elapsedNanos(long startedAt, long finishedAt) {
+        if (startedAt == 0 || finishedAt == 0) {
+            return -1;
+        }
+        return finishedAt - startedAt;
+    }
+
+    /**
+     * Converts an elapsed time to microseconds, keeping -1 for a phase that did not complete.
+     */
+    private static long toMicros(long nanos) {
+        return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
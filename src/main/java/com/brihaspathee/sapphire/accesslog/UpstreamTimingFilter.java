@@ -0,0 +1,53 @@
+package com.brihaspathee.sapphire.accesslog;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 6:30 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.accesslog
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Times the call to the downstream service. It runs right before the routing filter,
+ * which completes once the downstream response headers have been received, so the
+ * upstream time is the time to the first byte of the response.
+ */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Records the start and the end of the downstream call.
+     *
+     * @param exchange the current server web exchange
+     * @param chain the gateway filter chain
+     * @return a {@code Mono<Void>} that completes when the downstream call completes
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (exchange.getAttribute(GatewayTimings.ATTRIBUTE) == null) {
+            return chain.filter(exchange);
+        }
+        GatewayTimings.upstreamStarted(exchange);
+        return chain.filter(exchange)
+                .doFinally(signal -> GatewayTimings.upstreamFinished(exchange));
+    }
+
+    /**
+     * Runs right before the routing filter.
+     *
+     * @return the order of the filter
+     */
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
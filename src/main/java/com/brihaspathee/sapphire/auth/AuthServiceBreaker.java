@@ -0,0 +1,134 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.brihaspathee.sapphire.config.AuthServiceConfig;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 7:30 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The circuit breaker and the bulkhead around the calls to the authentication service.
+ * Only the calls that fail to produce a decision count as failures; a token rejected by
+ * the service is a successful call. Calls rejected because the breaker is open or the
+ * bulkhead is full fail with {@link AuthServiceUnavailableException} without touching
+ * the service.
+ */
+@Slf4j
+@Component
+public class AuthServiceBreaker {
+
+    /**
+     * The name of the breaker and the bulkhead, used to tag their metrics.
+     */
+    private static final String NAME = "auth-service";
+
+    /**
+     * Indicates whether the calls are protected.
+     */
+    private final boolean enabled;
+
+    /**
+     * The circuit breaker around the calls.
+     */
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * The bulkhead limiting the number of concurrent calls.
+     */
+    private final Bulkhead bulkhead;
+
+    /**
+     * Creates the breaker and the bulkhead using the settings under
+     * `application.auth-service.breaker` and registers their metrics.
+     *
+     * @param authServiceConfig the authentication service configuration
+     * @param meterRegistry the registry the metrics are published to
+     */
+    public AuthServiceBreaker(AuthServiceConfig authServiceConfig, MeterRegistry meterRegistry) {
+        AuthServiceConfig.Breaker breakerConfig = authServiceConfig.getBreaker();
+        this.enabled = breakerConfig.isEnabled();
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(breakerConfig.getFailureRateThreshold())
+                .slowCallRateThreshold(breakerConfig.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(breakerConfig.getSlowCallDurationThreshold())
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(breakerConfig.getSlidingWindowSize())
+                .minimumNumberOfCalls(breakerConfig.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(breakerConfig.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(breakerConfig.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordExceptions(AuthServiceUnavailableException.class, TimeoutException.class)
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(breakerConfig.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(NAME);
+        this.bulkhead = bulkheadRegistry.bulkhead(NAME);
+        this.circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Authentication service circuit breaker {}", event.getStateTransition()));
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    /**
+     * Runs the call through the bulkhead and the circuit breaker.
+     *
+     * @param call the call to the authentication service
+     * @return the protected call
+     */
+    public <T> Mono<T> protect(Mono<T> call) {
+        if (!enabled) {
+            return call;
+        }
+        return call
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorMap(CallNotPermittedException.class, e ->
+                        new AuthServiceUnavailableException("Authentication service circuit breaker is open", e))
+                .onErrorMap(BulkheadFullException.class, e ->
+                        new AuthServiceUnavailableException("Too many concurrent calls to the authentication service", e));
+    }
+
+    /**
+     * Returns the circuit breaker.
+     *
+     * @return the circuit breaker
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Returns the bulkhead.
+     *
+     * @return the bulkhead
+     */
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+}
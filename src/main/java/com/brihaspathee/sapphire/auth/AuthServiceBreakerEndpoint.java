@@ -0,0 +1,65 @@
+package com.brihaspathee.sapphire.auth;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 7:45 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "authbreaker")
+public class AuthServiceBreakerEndpoint {
+
+    /**
+     * The breaker around the calls to the authentication service.
+     */
+    private final AuthServiceBreaker authServiceBreaker;
+
+    /**
+     * Returns the state of the circuit breaker and the bulkhead.
+     * For e.g. GET /actuator/authbreaker
+     *
+     * @return the state, the failure and slow call rates and the available concurrent calls
+     */
+    @ReadOperation
+    public Map<String, Object> state() {
+        CircuitBreaker circuitBreaker = authServiceBreaker.getCircuitBreaker();
+        CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+        Bulkhead bulkhead = authServiceBreaker.getBulkhead();
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("state", circuitBreaker.getState().name());
+        state.put("failureRate", metrics.getFailureRate());
+        state.put("slowCallRate", metrics.getSlowCallRate());
+        state.put("bufferedCalls", metrics.getNumberOfBufferedCalls());
+        state.put("notPermittedCalls", metrics.getNumberOfNotPermittedCalls());
+        state.put("availableConcurrentCalls", bulkhead.getMetrics().getAvailableConcurrentCalls());
+        state.put("maxConcurrentCalls", bulkhead.getMetrics().getMaxAllowedConcurrentCalls());
+        return state;
+    }
+
+    /**
+     * Closes the circuit breaker and clears its statistics.
+     */
+    @DeleteOperation
+    public void reset() {
+        authServiceBreaker.getCircuitBreaker().reset();
+        log.info("Authentication service circuit breaker reset");
+    }
+}
@@ -0,0 +1,177 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.brihaspathee.sapphire.config.AuthServiceConfig;
+import com.brihaspathee.sapphire.dto.auth.AuthorizationRequest;
+import com.brihaspathee.sapphire.dto.auth.UserDto;
+import com.brihaspathee.sapphire.web.response.SapphireAPIResponse;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/17/26
+ * Time: 9:48 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+@Slf4j
+@Component
+public class AuthServiceClient {
+
+    /**
+     * The type of the response returned by the validate endpoint of the authentication service.
+     */
+    private static final ParameterizedTypeReference<SapphireAPIResponse<UserDto>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    /**
+     * The web client used to call the authentication service.
+     */
+    private final WebClient webClient;
+
+    /**
+     * Constructs an instance of the AuthServiceClient and configures the WebClient.
+     */
+    public AuthServiceClient(WebClient.Builder webClientBuilder,
+                             AuthServiceConfig authServiceConfig,
+                             ConnectionProvider authServiceConnectionProvider) {
+        log.info("Auth Service Host: {}", authServiceConfig.getHost());
+        log.info("Auth Service Port: {}", authServiceConfig.getPort());
+        String authServiceUrl = "http://" + authServiceConfig.getHost() + ":" + authServiceConfig.getPort();
+        log.info("Auth Service URL: {}", authServiceUrl);
+        AuthServiceConfig.Pool pool = authServiceConfig.getPool();
+        HttpClient httpClient = HttpClient.create(authServiceConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.getConnectTimeout().toMillis())
+                .responseTimeout(pool.getResponseTimeout())
+                .keepAlive(true);
+        if (pool.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        this.webClient = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .baseUrl(authServiceUrl + "/api/v1/sapphire/auth")
+                .build();
+    }
+
+    /**
+     * Validates the token against the resource uri with the authentication service.
+     * A 401 or 403 from the authentication service is a decision about the token
+     * and is returned as an unauthorized decision. When no decision could be obtained,
+     * because no pooled connection was available in time, the call timed out or the
+     * service failed, an {@link AuthServiceUnavailableException} is signalled.
+     *
+     * @param token the bearer token presented by the client
+     * @param resourceUri the resource uri the token is validated against
+     * @return a Mono emitting the decision of the authentication service
+     */
+    public Mono<AuthorizationDecision> validate(String token, String resourceUri) {
+        AuthorizationRequest authorizationRequest = AuthorizationRequest.builder()
+                .resourceUri(resourceUri)
+                .build();
+        return webClient.post()
+                .uri("/resource/validate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Authorization", "Bearer " + token)
+                .body(BodyInserters.fromValue(authorizationRequest))
+                .retrieve()
+                .bodyToMono(RESPONSE_TYPE)
+                .map(AuthorizationDecision::from)
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    if (e.getStatusCode().isSameCodeAs(HttpStatus.UNAUTHORIZED) ||
+                            e.getStatusCode().isSameCodeAs(HttpStatus.FORBIDDEN)) {
+                        return Mono.just(AuthorizationDecision.unauthorized());
+                    }
+                    if (e.getStatusCode().is5xxServerError()) {
+                        return Mono.error(new AuthServiceUnavailableException(
+                                "Authentication service responded with " + e.getStatusCode().value(), e));
+                    }
+                    return Mono.error(e);
+                })
+                .onErrorMap(WebClientRequestException.class, e -> new AuthServiceUnavailableException(
+                        "Authentication service call failed: " + e.getMostSpecificCause().getMessage(), e));
+    }
+
+    /**
+     * Validates a batch of tokens against their resource uris with a single call to the
+     * batch validate endpoint of the authentication service. The decisions are returned
+     * in the order of the validations; a validation the service could not decide on gets
+     * the unavailable decision. When the service does not provide the batch endpoint a
+     * {@link BatchValidationUnsupportedException} is signalled, and when the call itself
+     * failed an {@link AuthServiceUnavailableException}.
+     *
+     * @param validations the validations of the batch
+     * @return a Mono emitting the decisions, one per validation
+     */
+    public Mono<List<AuthorizationDecision>> validateBatch(List<AuthorizationBatchRequest.Validation> validations) {
+        return webClient.post()
+                .uri("/resource/validate/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(new AuthorizationBatchRequest(validations)))
+                .retrieve()
+                .bodyToMono(AuthorizationBatchResponse.class)
+                .map(response -> decisions(response, validations.size()))
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    if (e.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND) ||
+                            e.getStatusCode().isSameCodeAs(HttpStatus.METHOD_NOT_ALLOWED) ||
+                            e.getStatusCode().isSameCodeAs(HttpStatus.NOT_IMPLEMENTED)) {
+                        return Mono.error(new BatchValidationUnsupportedException(
+                                "Authentication service responded to the batch validation with "
+                                        + e.getStatusCode().value(), e));
+                    }
+                    if (e.getStatusCode().is5xxServerError()) {
+                        return Mono.error(new AuthServiceUnavailableException(
+                                "Authentication service responded with " + e.getStatusCode().value(), e));
+                    }
+                    return Mono.error(e);
+                })
+                .onErrorMap(WebClientRequestException.class, e -> new AuthServiceUnavailableException(
+                        "Authentication service call failed: " + e.getMostSpecificCause().getMessage(), e));
+    }
+
+    /**
+     * Converts the results of a batch validation into decisions, mapping the status of
+     * every result the way a single validation maps the status of its response.
+     *
+     * @param response the response of the batch validate endpoint
+     * @param size the number of validations in the batch
+     * @return the decisions, one per validation
+     * @throws AuthServiceUnavailableException if the response does not hold one result per validation
+     */
+    private static List<AuthorizationDecision> decisions(AuthorizationBatchResponse response, int size) {
+        List<AuthorizationBatchResponse.Result> results = response.getResults();
+        if (results == null || results.size() != size) {
+            throw new AuthServiceUnavailableException("Authentication service returned "
+                    + (results == null ? 0 : results.size()) + " results for " + size + " validations", null);
+        }
+        List<AuthorizationDecision> decisions = new ArrayList<>(size);
+        for (AuthorizationBatchResponse.Result result : results) {
+            HttpStatus status = HttpStatus.resolve(result.getStatus());
+            if (status == HttpStatus.OK) {
+                decisions.add(AuthorizationDecision.from(result.getUser()));
+            } else if (status == HttpStatus.UNAUTHORIZED || status == HttpStatus.FORBIDDEN) {
+                decisions.add(AuthorizationDecision.unauthorized());
+            } else {
+                decisions.add(AuthorizationDecision.unavailable());
+            }
+        }
+        return decisions;
+    }
+}
@@ -0,0 +1,27 @@
+package com.brihaspathee.sapphire.auth;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 7:00 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Thrown when the authentication service could not decide on a token, for e.g. because
+ * no connection was available, the call timed out or the service failed. The request is
+ * rejected with 503 Service Unavailable rather than 401, since the token itself may be valid.
+ */
+public class AuthServiceUnavailableException extends RuntimeException {
+
+    /**
+     * Constructs an instance of the AuthServiceUnavailableException.
+     *
+     * @param message the reason the authentication service is unavailable
+     * @param cause the error raised by the call
+     */
+    public AuthServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
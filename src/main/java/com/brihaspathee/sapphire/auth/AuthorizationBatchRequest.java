@@ -0,0 +1,54 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.brihaspathee.sapphire.dto.auth.AuthorizationRequest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/21/26
+ * Time: 9:00 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The body of a call to the batch validate endpoint of the authentication service,
+ * POST /api/v1/sapphire/auth/resource/validate/batch. Every validation carries the
+ * bearer token it is made for, since the validations of a batch come from different clients.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorizationBatchRequest {
+
+    /**
+     * The validations, the results are returned in the same order.
+     */
+    private List<Validation> validations;
+
+    /**
+     * A single validation of the batch.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Validation {
+
+        /**
+         * The bearer token presented by the client.
+         */
+        private String token;
+
+        /**
+         * The request the token is validated against.
+         */
+        private AuthorizationRequest request;
+    }
+}
@@ -0,0 +1,54 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.brihaspathee.sapphire.dto.auth.UserDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/21/26
+ * Time: 9:05 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The response of the batch validate endpoint of the authentication service.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorizationBatchResponse {
+
+    /**
+     * The results, in the order of the validations of the request.
+     */
+    private List<Result> results;
+
+    /**
+     * The result of a single validation of the batch.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+
+        /**
+         * The status the validate endpoint would have responded with for this validation
+         * alone, for e.g. 200, 401 or 403.
+         */
+        private int status;
+
+        /**
+         * The authenticated user when the status is 200 and the user is allowed to
+         * access the resource, null otherwise.
+         */
+        private UserDto user;
+    }
+}
@@ -0,0 +1,271 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.brihaspathee.sapphire.config.AuthServiceConfig;
+import com.brihaspathee.sapphire.dto.auth.AuthorizationRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/21/26
+ * Time: 9:30 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Gathers the validations issued within a short window into a single call to the batch
+ * validate endpoint of the authentication service and hands each waiting request its own
+ * decision. A batch is sent once no validation joined it for the linger time, once its
+ * oldest validation waited for the maximum delay, or as soon as it holds the maximum
+ * number of validations. A batch of a single validation is sent to the single validate
+ * endpoint. When the authentication service does not provide the batch endpoint, the
+ * validations are sent one by one for the configured retry interval. A validation whose
+ * request is cancelled while it waits is left out of its batch, and a batch nobody waits
+ * for any more is not sent.
+ */
+@Slf4j
+@Component
+public class AuthorizationBatcher {
+
+    /**
+     * The client used to validate tokens with the authentication service.
+     */
+    private final AuthServiceClient authServiceClient;
+
+    /**
+     * The authentication service configuration.
+     */
+    private final AuthServiceConfig authServiceConfig;
+
+    /**
+     * The scheduler running the timers that send the batches.
+     */
+    private final Scheduler scheduler = Schedulers.parallel();
+
+    /**
+     * The validations of the batch being gathered, guarded by this.
+     */
+    private List<PendingValidation> pending = new ArrayList<>();
+
+    /**
+     * The time, in nanos, at which the first validation joined the batch being gathered.
+     */
+    private long firstAt;
+
+    /**
+     * The time, in nanos, at which the last validation joined the batch being gathered.
+     */
+    private long lastAt;
+
+    /**
+     * The number of the batch being gathered, so a timer set for a batch that was
+     * already sent does not send the next one early.
+     */
+    private long batchNumber;
+
+    /**
+     * The time, in nanos, until which the validations are sent one by one because the
+     * authentication service does not support the batch endpoint.
+     */
+    private volatile long unsupportedUntil = System.nanoTime();
+
+    /**
+     * Constructs an instance of the AuthorizationBatcher.
+     */
+    public AuthorizationBatcher(AuthServiceClient authServiceClient, AuthServiceConfig authServiceConfig) {
+        this.authServiceClient = authServiceClient;
+        this.authServiceConfig = authServiceConfig;
+    }
+
+    /**
+     * Validates the token against the resource uri as part of the next batch. A validation
+     * the authentication service could not decide on is signalled as an
+     * {@link AuthServiceUnavailableException}, the same as a failed single validation.
+     *
+     * @param token the bearer token presented by the client
+     * @param resourceUri the resource uri the token is validated against
+     * @return a Mono emitting the decision of the authentication service
+     */
+    public Mono<AuthorizationDecision> validate(String token, String resourceUri) {
+        return Mono.defer(() -> {
+            if (System.nanoTime() - unsupportedUntil < 0) {
+                return authServiceClient.validate(token, resourceUri);
+            }
+            PendingValidation validation = new PendingValidation(token, resourceUri);
+            add(validation);
+            return validation.decision.asMono().doOnCancel(() -> cancel(validation));
+        });
+    }
+
+    /**
+     * Adds the validation to the batch being gathered, sending the batch if it is full and
+     * setting the timer that sends it if it is the first validation of the batch.
+     */
+    private void add(PendingValidation validation) {
+        AuthServiceConfig.Batch config = authServiceConfig.getBatch();
+        long now = System.nanoTime();
+        List<PendingValidation> full = null;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                firstAt = now;
+                long number = batchNumber;
+                scheduler.schedule(() -> expire(number), config.getLinger().toNanos(), TimeUnit.NANOSECONDS);
+            }
+            lastAt = now;
+            pending.add(validation);
+            if (pending.size() >= config.getMaxSize()) {
+                full = drain();
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+    }
+
+    /**
+     * Takes the validation of a cancelled request out of the batch being gathered. A
+     * validation already taken out for sending is only marked, and skipped by the send.
+     */
+    private void cancel(PendingValidation validation) {
+        validation.cancelled = true;
+        synchronized (this) {
+            if (pending.remove(validation) && pending.isEmpty()) {
+                // the timer of the emptied batch must not send the next one early
+                batchNumber++;
+            }
+        }
+    }
+
+    /**
+     * Runs when the timer of the given batch fires. The batch is sent if it lingered
+     * without a new validation or reached the maximum delay, otherwise the timer is set
+     * again for whichever of the two comes first.
+     */
+    private void expire(long number) {
+        AuthServiceConfig.Batch config = authServiceConfig.getBatch();
+        List<PendingValidation> expired;
+        synchronized (this) {
+            if (number != batchNumber || pending.isEmpty()) {
+                return;
+            }
+            long sendAt = Math.min(lastAt + config.getLinger().toNanos(), firstAt + config.getMaxDelay().toNanos());
+            long remaining = sendAt - System.nanoTime();
+            if (remaining > 0) {
+                scheduler.schedule(() -> expire(number), remaining, TimeUnit.NANOSECONDS);
+                return;
+            }
+            expired = drain();
+        }
+        send(expired);
+    }
+
+    /**
+     * Takes the validations of the batch being gathered and starts a new batch.
+     * Must be called while holding the lock.
+     */
+    private List<PendingValidation> drain() {
+        List<PendingValidation> batch = pending;
+        pending = new ArrayList<>();
+        batchNumber++;
+        return batch;
+    }
+
+    /**
+     * Sends the batch to the authentication service and hands each validation its decision.
+     */
+    private void send(List<PendingValidation> batch) {
+        batch.removeIf(validation -> validation.cancelled);
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (batch.size() == 1) {
+            sendSingle(batch.get(0));
+            return;
+        }
+        List<AuthorizationBatchRequest.Validation> validations = new ArrayList<>(batch.size());
+        batch.forEach(validation -> validations.add(AuthorizationBatchRequest.Validation.builder()
+                .token(validation.token)
+                .request(AuthorizationRequest.builder().resourceUri(validation.resourceUri).build())
+                .build()));
+        authServiceClient.validateBatch(validations).subscribe(decisions -> {
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).complete(decisions.get(i));
+            }
+        }, e -> {
+            if (e instanceof BatchValidationUnsupportedException) {
+                log.warn("The authentication service does not support batch validation, " +
+                        "sending the validations one by one for {}", authServiceConfig.getBatch().getUnsupportedRetryInterval());
+                unsupportedUntil = System.nanoTime() + authServiceConfig.getBatch().getUnsupportedRetryInterval().toNanos();
+                batch.forEach(this::sendSingle);
+                return;
+            }
+            batch.forEach(validation -> validation.decision.tryEmitError(e));
+        });
+    }
+
+    /**
+     * Sends the validation to the single validate endpoint of the authentication service.
+     */
+    private void sendSingle(PendingValidation validation) {
+        if (validation.cancelled) {
+            return;
+        }
+        authServiceClient.validate(validation.token, validation.resourceUri)
+                .subscribe(validation::complete, validation.decision::tryEmitError);
+    }
+
+    /**
+     * A validation waiting in a batch.
+     */
+    private static final class PendingValidation {
+
+        /**
+         * The bearer token presented by the client.
+         */
+        private final String token;
+
+        /**
+         * The resource uri the token is validated against.
+         */
+        private final String resourceUri;
+
+        /**
+         * Receives the decision of the authentication service.
+         */
+        private final Sinks.One<AuthorizationDecision> decision = Sinks.one();
+
+        /**
+         * Whether the request waiting for the decision was cancelled.
+         */
+        private volatile boolean cancelled;
+
+        /**
+         * Constructs an instance of the PendingValidation.
+         */
+        private PendingValidation(String token, String resourceUri) {
+            this.token = token;
+            this.resourceUri = resourceUri;
+        }
+
+        /**
+         * Hands the decision to the waiting request, signalling the unavailable decision as an error.
+         */
+        private void complete(AuthorizationDecision authorizationDecision) {
+            if (authorizationDecision.getOutcome() == AuthorizationDecision.Outcome.UNAVAILABLE) {
+                decision.tryEmitError(new AuthServiceUnavailableException(
+                        "Authentication service could not decide on the validation", null));
+                return;
+            }
+            decision.tryEmitValue(authorizationDecision);
+        }
+    }
+}
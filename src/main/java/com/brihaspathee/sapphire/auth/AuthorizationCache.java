@@ -0,0 +1,214 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.brihaspathee.sapphire.config.AuthServiceConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Predicate;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/17/26
+ * Time: 9:20 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+@Slf4j
+@Component
+public class AuthorizationCache {
+
+    /**
+     * The name under which the cache metrics are published.
+     */
+    private static final String CACHE_NAME = "auth.decision";
+
+    /**
+     * Indicates whether caching of decisions is enabled.
+     */
+    private final boolean enabled;
+
+    /**
+     * The underlying bounded cache of decisions keyed by token hash and resource uri.
+     */
+    private final Cache<AuthorizationKey, AuthorizationDecision> cache;
+
+    /**
+     * The allowed decisions kept for degraded mode, served only while the authentication
+     * service is unavailable. Null when degraded mode is disabled.
+     */
+    private final Cache<AuthorizationKey, AuthorizationDecision> degradedCache;
+
+    /**
+     * Creates the cache using the settings under `application.auth-service.cache`
+     * and registers its hit, miss, eviction and size metrics with the meter registry.
+     *
+     * @param authServiceConfig the authentication service configuration
+     * @param meterRegistry the registry the cache metrics are published to
+     */
+    public AuthorizationCache(AuthServiceConfig authServiceConfig,
+                              MeterRegistry meterRegistry) {
+        AuthServiceConfig.Cache cacheConfig = authServiceConfig.getCache();
+        this.enabled = cacheConfig.isEnabled();
+        long positiveTtlNanos = cacheConfig.getPositiveTtl().toNanos();
+        long negativeTtlNanos = cacheConfig.getNegativeTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.getMaximumSize())
+                .expireAfter(new Expiry<AuthorizationKey, AuthorizationDecision>() {
+                    @Override
+                    public long expireAfterCreate(AuthorizationKey key,
+                                                  AuthorizationDecision decision,
+                                                  long currentTime) {
+                        return decision.isAllowed() ? positiveTtlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(AuthorizationKey key,
+                                                  AuthorizationDecision decision,
+                                                  long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, decision, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(AuthorizationKey key,
+                                                AuthorizationDecision decision,
+                                                long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+        AuthServiceConfig.Breaker breakerConfig = authServiceConfig.getBreaker();
+        this.degradedCache = breakerConfig.isDegradedMode()
+                ? Caffeine.newBuilder()
+                        .maximumSize(cacheConfig.getMaximumSize())
+                        .expireAfterWrite(breakerConfig.getDegradedTtl())
+                        .build()
+                : null;
+        log.info("Authorization decision cache enabled: {}", enabled);
+    }
+
+    /**
+     * Indicates whether caching of decisions is enabled.
+     *
+     * @return true if decisions are cached
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached decision for the given key.
+     *
+     * @param key the key identifying the validation
+     * @return the cached decision or null if there is none
+     */
+    public AuthorizationDecision get(AuthorizationKey key) {
+        return enabled ? cache.getIfPresent(key) : null;
+    }
+
+    /**
+     * Stores the decision for the given key. Unavailable decisions are not stored, so
+     * the next request asks the authentication service again.
+     *
+     * @param key the key identifying the validation
+     * @param decision the decision returned by the authentication service
+     */
+    public void put(AuthorizationKey key, AuthorizationDecision decision) {
+        if (decision.getOutcome() == AuthorizationDecision.Outcome.UNAVAILABLE) {
+            return;
+        }
+        if (enabled) {
+            cache.put(key, decision);
+        }
+        if (degradedCache != null && decision.isAllowed()) {
+            degradedCache.put(key, decision);
+        }
+    }
+
+    /**
+     * Returns the last allowed decision for the given key, even if it expired from the
+     * cache, as long as it is within the degraded TTL. Only to be used while the
+     * authentication service is unavailable.
+     *
+     * @param key the key identifying the validation
+     * @return the last allowed decision or null if there is none or degraded mode is disabled
+     */
+    public AuthorizationDecision getDegraded(AuthorizationKey key) {
+        return degradedCache != null ? degradedCache.getIfPresent(key) : null;
+    }
+
+    /**
+     * Returns the number of decisions held, once the pending evictions are applied.
+     *
+     * @return the number of decisions in the cache
+     */
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Evicts every decision made for the given token.
+     *
+     * @param token the bearer token whose decisions are evicted
+     * @return the number of decisions evicted
+     */
+    public int evictByToken(String token) {
+        String tokenHash = AuthorizationKey.hash(token);
+        return evict(key -> key.getTokenHash().equals(tokenHash), decision -> false);
+    }
+
+    /**
+     * Evicts every decision made for the given user.
+     *
+     * @param userId the id of the user whose decisions are evicted
+     * @return the number of decisions evicted
+     */
+    public int evictByUser(String userId) {
+        return evict(key -> false, decision -> userId.equals(decision.getUserId()));
+    }
+
+    /**
+     * Evicts all the decisions held in the cache.
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+        if (degradedCache != null) {
+            degradedCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Removes the entries that match either the key or the decision predicate.
+     *
+     * @param keyMatcher the predicate applied to the keys
+     * @param decisionMatcher the predicate applied to the decisions
+     * @return the number of entries removed
+     */
+    private int evict(Predicate<AuthorizationKey> keyMatcher,
+                      Predicate<AuthorizationDecision> decisionMatcher) {
+        if (degradedCache != null) {
+            degradedCache.asMap().entrySet().removeIf(entry ->
+                    keyMatcher.test(entry.getKey()) || decisionMatcher.test(entry.getValue()));
+        }
+        int[] evicted = {0};
+        cache.asMap().entrySet().removeIf(entry -> {
+            boolean matches = keyMatcher.test(entry.getKey()) || decisionMatcher.test(entry.getValue());
+            if (matches) {
+                evicted[0]++;
+            }
+            return matches;
+        });
+        return evicted[0];
+    }
+}
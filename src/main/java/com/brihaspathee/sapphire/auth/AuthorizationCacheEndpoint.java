@@ -0,0 +1,63 @@
+package com.brihaspathee.sapphire.auth;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/17/26
+ * Time: 9:41 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "authcache")
+public class AuthorizationCacheEndpoint {
+
+    /**
+     * The cache holding the authorization decisions.
+     */
+    private final AuthorizationCache authorizationCache;
+
+    /**
+     * Evicts the decisions made for a token and/or a user. The values are read
+     * from the request body so that tokens do not end up in access logs.
+     * For e.g. POST /actuator/authcache with {"userId": "123"}
+     *
+     * @param token the bearer token whose decisions are evicted
+     * @param userId the id of the user whose decisions are evicted
+     * @return the number of decisions that were evicted
+     */
+    @WriteOperation
+    public Map<String, Integer> evict(@Nullable String token, @Nullable String userId) {
+        int evicted = 0;
+        if (token != null && !token.isBlank()) {
+            evicted += authorizationCache.evictByToken(token);
+        }
+        if (userId != null && !userId.isBlank()) {
+            evicted += authorizationCache.evictByUser(userId);
+        }
+        log.info("Evicted {} authorization decisions", evicted);
+        return Map.of("evicted", evicted);
+    }
+
+    /**
+     * Evicts all the decisions held in the cache.
+     */
+    @DeleteOperation
+    public void evictAll() {
+        authorizationCache.evictAll();
+        log.info("Evicted all authorization decisions");
+    }
+}
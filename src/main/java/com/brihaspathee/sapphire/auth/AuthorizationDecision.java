@@ -0,0 +1,170 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.brihaspathee.sapphire.dto.auth.UserDto;
+import com.brihaspathee.sapphire.web.response.SapphireAPIResponse;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/17/26
+ * Time: 9:05 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class AuthorizationDecision {
+
+    /**
+     * The possible outcomes of validating a token against a resource.
+     */
+    public enum Outcome {
+        /**
+         * The token is valid and the user is allowed to access the resource.
+         */
+        ALLOWED,
+        /**
+         * The token is valid but the user is not allowed to access the resource.
+         */
+        FORBIDDEN,
+        /**
+         * The token was rejected by the authentication service.
+         */
+        UNAUTHORIZED,
+        /**
+         * No decision could be made because the authentication service is unavailable.
+         */
+        UNAVAILABLE
+    }
+
+    /**
+     * Shared instance for requests that are not allowed to access the resource.
+     */
+    private static final AuthorizationDecision FORBIDDEN =
+            new AuthorizationDecision(Outcome.FORBIDDEN, null, null, null, null);
+
+    /**
+     * Shared instance for requests whose token was rejected.
+     */
+    private static final AuthorizationDecision UNAUTHORIZED =
+            new AuthorizationDecision(Outcome.UNAUTHORIZED, null, null, null, null);
+
+    /**
+     * Shared instance for requests that could not be decided on.
+     */
+    private static final AuthorizationDecision UNAVAILABLE =
+            new AuthorizationDecision(Outcome.UNAVAILABLE, null, null, null, null);
+
+    /**
+     * The outcome of the validation.
+     */
+    private final Outcome outcome;
+
+    /**
+     * The id of the authenticated user, populated only when the request is allowed.
+     */
+    private final String userId;
+
+    /**
+     * The username of the authenticated user, populated only when the request is allowed.
+     */
+    private final String username;
+
+    /**
+     * The service id of the authenticated user, populated only when the request is allowed.
+     */
+    private final String serviceId;
+
+    /**
+     * The account type of the authenticated user, populated only when the request is allowed.
+     */
+    private final String accountType;
+
+    /**
+     * Creates an allowed decision for the given user details.
+     *
+     * @param userId the id of the user
+     * @param username the username of the user
+     * @param serviceId the service id of the user
+     * @param accountType the account type of the user
+     * @return an allowed decision carrying the user details
+     */
+    public static AuthorizationDecision allowed(String userId,
+                                                String username,
+                                                String serviceId,
+                                                String accountType) {
+        return new AuthorizationDecision(Outcome.ALLOWED, userId, username, serviceId, accountType);
+    }
+
+    /**
+     * Returns the decision for a request that is not allowed to access the resource.
+     *
+     * @return the forbidden decision
+     */
+    public static AuthorizationDecision forbidden() {
+        return FORBIDDEN;
+    }
+
+    /**
+     * Returns the decision for a request whose token was rejected.
+     *
+     * @return the unauthorized decision
+     */
+    public static AuthorizationDecision unauthorized() {
+        return UNAUTHORIZED;
+    }
+
+    /**
+     * Returns the decision for requests that could not be decided on because the
+     * authentication service is unavailable. It is never cached.
+     *
+     * @return the unavailable decision
+     */
+    public static AuthorizationDecision unavailable() {
+        return UNAVAILABLE;
+    }
+
+    /**
+     * Converts the response of the authentication service into a decision.
+     * A response that does not carry a user means the user is not allowed
+     * to access the resource.
+     *
+     * @param response the response received from the authentication service
+     * @return the decision represented by the response
+     */
+    public static AuthorizationDecision from(SapphireAPIResponse<UserDto> response) {
+        return from(response == null ? null : response.getResponse());
+    }
+
+    /**
+     * Converts the user returned by the authentication service into a decision.
+     * No user means the user is not allowed to access the resource.
+     *
+     * @param userDto the user returned by the authentication service, may be null
+     * @return the decision represented by the user
+     */
+    public static AuthorizationDecision from(UserDto userDto) {
+        if (userDto == null) {
+            return FORBIDDEN;
+        }
+        return allowed(String.valueOf(userDto.getUserId()),
+                userDto.getUsername(),
+                userDto.getServiceId(),
+                userDto.getAccountType());
+    }
+
+    /**
+     * Indicates whether the request is allowed to access the resource.
+     *
+     * @return true if the outcome is {@link Outcome#ALLOWED}
+     */
+    public boolean isAllowed() {
+        return outcome == Outcome.ALLOWED;
+    }
+}
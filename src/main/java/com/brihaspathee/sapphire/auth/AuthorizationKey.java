@@ -0,0 +1,74 @@
+package com.brihaspathee.sapphire.auth;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/17/26
+ * Time: 9:12 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+@Value
+public class AuthorizationKey {
+
+    /**
+     * The SHA-256 hash of the bearer token. The raw token is never held as part of the key.
+     */
+    String tokenHash;
+
+    /**
+     * The normalized resource uri that the token is validated against.
+     */
+    String resourceUri;
+
+    /**
+     * Creates the key for the given token and resource uri.
+     *
+     * @param token the bearer token presented by the client
+     * @param resourceUri the resource uri the token is validated against
+     * @return the key identifying the validation
+     */
+    public static AuthorizationKey of(String token, String resourceUri) {
+        return new AuthorizationKey(hash(token), normalize(resourceUri));
+    }
+
+    /**
+     * Computes the SHA-256 hash of the token as a hex string.
+     *
+     * @param token the bearer token
+     * @return the hex encoded hash of the token
+     */
+    public static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Normalizes the resource uri so that "/a/b" and "/a/b/" resolve to the same key.
+     *
+     * @param resourceUri the resource uri
+     * @return the normalized resource uri
+     */
+    private static String normalize(String resourceUri) {
+        if (resourceUri == null) {
+            return "";
+        }
+        int end = resourceUri.length();
+        while (end > 1 && resourceUri.charAt(end - 1) == '/') {
+            end--;
+        }
+        return end == resourceUri.length() ? resourceUri : resourceUri.substring(0, end);
+    }
+}
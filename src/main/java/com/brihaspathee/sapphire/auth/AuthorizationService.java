@@ -0,0 +1,118 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.brihaspathee.sapphire.config.AuthServiceConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/17/26
+ * Time: 10:02 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthorizationService {
+
+    /**
+     * The client used to validate tokens with the authentication service.
+     */
+    private final AuthServiceClient authServiceClient;
+
+    /**
+     * The cache of decisions previously returned by the authentication service.
+     */
+    private final AuthorizationCache authorizationCache;
+
+    /**
+     * The validations currently waiting on the authentication service.
+     */
+    private final InFlightValidations inFlightValidations;
+
+    /**
+     * The authentication service configuration.
+     */
+    private final AuthServiceConfig authServiceConfig;
+
+    /**
+     * The circuit breaker and bulkhead around the calls to the authentication service.
+     */
+    private final AuthServiceBreaker authServiceBreaker;
+
+    /**
+     * Gathers the validations into batches when batching is enabled.
+     */
+    private final AuthorizationBatcher authorizationBatcher;
+
+    /**
+     * Decides whether the token is allowed to access the resource uri. The decision
+     * is served from the cache when present, otherwise the authentication service is
+     * called and its decision is cached. Concurrent requests for the same token and
+     * resource share a single call to the authentication service. When the service is
+     * unavailable and degraded mode is enabled, the last allowed decision for the token
+     * and resource is served if it is recent enough.
+     *
+     * @param token the bearer token presented by the client
+     * @param resourceUri the resource uri the token is validated against
+     * @return a Mono emitting the authorization decision
+     */
+    public Mono<AuthorizationDecision> authorize(String token, String resourceUri) {
+        boolean coalesce = authServiceConfig.isCoalesceRequests();
+        boolean degradedMode = authServiceConfig.getBreaker().isDegradedMode();
+        if (!authorizationCache.isEnabled() && !coalesce && !degradedMode) {
+            return authServiceBreaker.protect(call(token, resourceUri));
+        }
+        AuthorizationKey key = AuthorizationKey.of(token, resourceUri);
+        AuthorizationDecision cached = authorizationCache.get(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        Mono<AuthorizationDecision> decision = coalesce
+                ? inFlightValidations.join(key, () -> validate(key, token, resourceUri))
+                : validate(key, token, resourceUri);
+        if (!degradedMode) {
+            return decision;
+        }
+        return decision.onErrorResume(AuthServiceUnavailableException.class, e -> {
+            AuthorizationDecision degraded = authorizationCache.getDegraded(key);
+            if (degraded == null) {
+                return Mono.error(e);
+            }
+            log.debug("Serving the last allowed decision while the authentication service is unavailable");
+            return Mono.just(degraded);
+        });
+    }
+
+    /**
+     * Calls the authentication service through the circuit breaker and caches the decision it returns.
+     *
+     * @param key the key identifying the validation
+     * @param token the bearer token presented by the client
+     * @param resourceUri the resource uri the token is validated against
+     * @return a Mono emitting the decision of the authentication service
+     */
+    private Mono<AuthorizationDecision> validate(AuthorizationKey key, String token, String resourceUri) {
+        return authServiceBreaker.protect(call(token, resourceUri))
+                .doOnNext(decision -> authorizationCache.put(key, decision));
+    }
+
+    /**
+     * Returns the call validating the token with the authentication service, as part of
+     * a batch when batching is enabled.
+     *
+     * @param token the bearer token presented by the client
+     * @param resourceUri the resource uri the token is validated against
+     * @return a Mono emitting the decision of the authentication service
+     */
+    private Mono<AuthorizationDecision> call(String token, String resourceUri) {
+        return authServiceConfig.getBatch().isEnabled()
+                ? authorizationBatcher.validate(token, resourceUri)
+                : authServiceClient.validate(token, resourceUri);
+    }
+}
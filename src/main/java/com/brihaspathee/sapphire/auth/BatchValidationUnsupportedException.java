@@ -0,0 +1,27 @@
+package com.brihaspathee.sapphire.auth;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/21/26
+ * Time: 9:10 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Thrown when the authentication service does not provide the batch validate endpoint,
+ * for e.g. because it runs a version that predates it. The validations are then sent
+ * one by one.
+ */
+public class BatchValidationUnsupportedException extends RuntimeException {
+
+    /**
+     * Constructs an instance of the BatchValidationUnsupportedException.
+     *
+     * @param message the reason batching is not supported
+     * @param cause the error raised by the call
+     */
+    public BatchValidationUnsupportedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
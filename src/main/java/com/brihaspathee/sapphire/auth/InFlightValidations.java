@@ -0,0 +1,59 @@
+package com.brihaspathee.sapphire.auth;
+
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/17/26
+ * Time: 11:15 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+@Component
+public class InFlightValidations {
+
+    /**
+     * The validations that are currently waiting on the authentication service,
+     * keyed by token hash and resource uri.
+     */
+    private final ConcurrentHashMap<AuthorizationKey, Mono<AuthorizationDecision>> inFlight =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Joins the validation already in flight for the key or starts a new one.
+     * Every subscriber that joins receives the same decision or the same error.
+     * When every subscriber has cancelled, the call is cancelled as well. The entry is
+     * removed as soon as the validation terminates or is cancelled, so nothing is
+     * retained once the call is over and the next request calls the service again.
+     *
+     * @param key the key identifying the validation
+     * @param validation supplies the call to the authentication service
+     * @return a Mono emitting the shared decision
+     */
+    public Mono<AuthorizationDecision> join(AuthorizationKey key,
+                                            Supplier<Mono<AuthorizationDecision>> validation) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> validation.get()
+                .doFinally(signal -> inFlight.remove(k))
+                .flux()
+                // replays the decision to a subscriber joining between the end of the
+                // call and the removal of the entry
+                .replay(1)
+                .refCount(1)
+                .singleOrEmpty()));
+    }
+
+    /**
+     * Returns the number of validations currently in flight.
+     *
+     * @return the number of distinct validations waiting on the authentication service
+     */
+    public int size() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,184 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/17/26
+ * Time: 1:10 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+@Slf4j
+@Getter
+public class JsonWebKeySet {
+
+    /**
+     * An empty key set, used until the key set is loaded for the first time.
+     */
+    public static final JsonWebKeySet EMPTY = new JsonWebKeySet(List.of());
+
+    /**
+     * The keys in the set.
+     */
+    private final List<JsonWebKey> keys;
+
+    /**
+     * Creates a key set holding the given keys.
+     *
+     * @param keys the keys in the set
+     */
+    private JsonWebKeySet(List<JsonWebKey> keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Parses the JSON representation of a key set (RFC 7517). RSA, EC and symmetric
+     * (oct) keys are supported; keys of any other type, or keys that cannot be parsed,
+     * are skipped with a warning so one bad key does not invalidate the whole set.
+     *
+     * @param json the JSON document
+     * @param objectMapper the object mapper used to read the document
+     * @return the parsed key set
+     * @throws IllegalArgumentException if the document is not a key set
+     */
+    public static JsonWebKeySet parse(String json, ObjectMapper objectMapper) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid JSON web key set", e);
+        }
+        JsonNode keyNodes = root.path("keys");
+        if (!keyNodes.isArray()) {
+            throw new IllegalArgumentException("JSON web key set does not contain a keys array");
+        }
+        List<JsonWebKey> keys = new ArrayList<>();
+        for (JsonNode keyNode : keyNodes) {
+            String kid = keyNode.path("kid").asText(null);
+            String kty = keyNode.path("kty").asText("");
+            try {
+                Key key = switch (kty) {
+                    case "RSA" -> rsaKey(keyNode);
+                    case "EC" -> ecKey(keyNode);
+                    case "oct" -> new SecretKeySpec(decode(keyNode, "k"), "HMAC");
+                    default -> null;
+                };
+                if (key == null) {
+                    log.warn("Skipping key {} of unsupported type {}", kid, kty);
+                } else {
+                    keys.add(new JsonWebKey(kid, kty, key));
+                }
+            } catch (Exception e) {
+                log.warn("Skipping key {} that could not be parsed: {}", kid, e.getMessage());
+            }
+        }
+        return new JsonWebKeySet(List.copyOf(keys));
+    }
+
+    /**
+     * Returns the keys that can verify a token signed with the given key type and key id.
+     * If the token does not carry a key id every key of the matching type is returned.
+     *
+     * @param kty the key type required by the signing algorithm
+     * @param kid the key id from the token header, may be null
+     * @return the candidate keys
+     */
+    public List<JsonWebKey> candidates(String kty, String kid) {
+        List<JsonWebKey> candidates = new ArrayList<>(1);
+        for (JsonWebKey key : keys) {
+            if (key.getKty().equals(kty) && (kid == null || kid.equals(key.getKid()))) {
+                candidates.add(key);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Builds an RSA public key from its modulus and exponent.
+     */
+    private static Key rsaKey(JsonNode keyNode) throws Exception {
+        BigInteger modulus = new BigInteger(1, decode(keyNode, "n"));
+        BigInteger exponent = new BigInteger(1, decode(keyNode, "e"));
+        return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, exponent));
+    }
+
+    /**
+     * Builds an EC public key from its curve and coordinates.
+     */
+    private static Key ecKey(JsonNode keyNode) throws Exception {
+        String curve = switch (keyNode.path("crv").asText("")) {
+            case "P-256" -> "secp256r1";
+            case "P-384" -> "secp384r1";
+            case "P-521" -> "secp521r1";
+            default -> throw new IllegalArgumentException("Unsupported curve " + keyNode.path("crv").asText());
+        };
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec(curve));
+        ECParameterSpec parameterSpec = parameters.getParameterSpec(ECParameterSpec.class);
+        ECPoint point = new ECPoint(new BigInteger(1, decode(keyNode, "x")),
+                new BigInteger(1, decode(keyNode, "y")));
+        return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, parameterSpec));
+    }
+
+    /**
+     * Decodes a base64url encoded member of the key.
+     */
+    private static byte[] decode(JsonNode keyNode, String member) {
+        String value = keyNode.path(member).asText(null);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing key member " + member);
+        }
+        return Base64.getUrlDecoder().decode(value);
+    }
+
+    /**
+     * A single key of the key set.
+     */
+    @Getter
+    public static class JsonWebKey {
+
+        /**
+         * The id of the key, may be null.
+         */
+        private final String kid;
+
+        /**
+         * The type of the key (RSA, EC or oct).
+         */
+        private final String kty;
+
+        /**
+         * The key used to verify signatures.
+         */
+        private final Key key;
+
+        /**
+         * Creates a key of the key set.
+         */
+        JsonWebKey(String kid, String kty, Key key) {
+            this.kid = kid;
+            this.kty = kty;
+            this.key = key;
+        }
+    }
+}
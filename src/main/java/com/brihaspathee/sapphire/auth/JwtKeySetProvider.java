@@ -0,0 +1,155 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.brihaspathee.sapphire.config.AuthServiceConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/17/26
+ * Time: 1:40 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+@Slf4j
+@Component
+public class JwtKeySetProvider {
+
+    /**
+     * The maximum time allowed to load the key set at startup.
+     */
+    private static final Duration INITIAL_LOAD_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * The local JWT verification configuration.
+     */
+    private final AuthServiceConfig.Jwt jwtConfig;
+
+    /**
+     * The web client used to fetch key sets served over http(s).
+     */
+    private final WebClient webClient;
+
+    /**
+     * The object mapper used to parse the key set.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The key set currently used to verify tokens. It is swapped atomically on every refresh.
+     */
+    private final AtomicReference<JsonWebKeySet> keySet = new AtomicReference<>(JsonWebKeySet.EMPTY);
+
+    /**
+     * The subscription of the background refresh.
+     */
+    private Disposable refreshSubscription;
+
+    /**
+     * Constructs an instance of the JwtKeySetProvider.
+     */
+    public JwtKeySetProvider(AuthServiceConfig authServiceConfig,
+                             WebClient.Builder webClientBuilder,
+                             ObjectMapper objectMapper) {
+        this.jwtConfig = authServiceConfig.getJwt();
+        this.webClient = webClientBuilder.build();
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Loads the key set once at startup and schedules the background refresh.
+     * Nothing is loaded when local verification is disabled.
+     */
+    @PostConstruct
+    public void init() {
+        if (!jwtConfig.isEnabled()) {
+            return;
+        }
+        if (jwtConfig.getKeySetUri() == null) {
+            throw new IllegalStateException("application.auth-service.jwt.key-set-uri must be set when local JWT verification is enabled");
+        }
+        try {
+            load().timeout(INITIAL_LOAD_TIMEOUT).block();
+        } catch (Exception e) {
+            log.error("Unable to load the JWT key set from {}, tokens will be rejected until the next refresh",
+                    jwtConfig.getKeySetUri(), e);
+        }
+        Duration refreshInterval = jwtConfig.getRefreshInterval();
+        refreshSubscription = Flux.interval(refreshInterval, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> load().onErrorResume(e -> {
+                    log.warn("Unable to refresh the JWT key set, keeping the current keys: {}", e.getMessage());
+                    return Mono.empty();
+                }))
+                .subscribe();
+    }
+
+    /**
+     * Stops the background refresh.
+     */
+    @PreDestroy
+    public void destroy() {
+        if (refreshSubscription != null) {
+            refreshSubscription.dispose();
+        }
+    }
+
+    /**
+     * Returns the key set currently used to verify tokens.
+     *
+     * @return the current key set
+     */
+    public JsonWebKeySet getKeySet() {
+        return keySet.get();
+    }
+
+    /**
+     * Fetches and parses the key set and swaps it in.
+     *
+     * @return a Mono emitting the key set that was loaded
+     */
+    private Mono<JsonWebKeySet> load() {
+        return fetch()
+                .map(json -> JsonWebKeySet.parse(json, objectMapper))
+                .doOnNext(loaded -> {
+                    keySet.set(loaded);
+                    log.info("Loaded {} JWT verification keys from {}", loaded.getKeys().size(), jwtConfig.getKeySetUri());
+                });
+    }
+
+    /**
+     * Reads the key set document from an http(s) endpoint or from a local resource.
+     *
+     * @return a Mono emitting the key set document
+     */
+    private Mono<String> fetch() {
+        String keySetUri = jwtConfig.getKeySetUri();
+        if (keySetUri.startsWith("http://") || keySetUri.startsWith("https://")) {
+            return webClient.get()
+                    .uri(keySetUri)
+                    .retrieve()
+                    .bodyToMono(String.class);
+        }
+        return Mono.fromCallable(() -> {
+                    Resource resource = new DefaultResourceLoader().getResource(keySetUri);
+                    return resource.getContentAsString(StandardCharsets.UTF_8);
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
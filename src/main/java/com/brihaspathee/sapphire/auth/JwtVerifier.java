@@ -0,0 +1,189 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.brihaspathee.sapphire.config.AuthServiceConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.Clock;
+import java.util.Base64;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/17/26
+ * Time: 2:05 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+@Slf4j
+@Component
+public class JwtVerifier {
+
+    /**
+     * The local JWT verification configuration.
+     */
+    private final AuthServiceConfig.Jwt jwtConfig;
+
+    /**
+     * Provides the keys used to verify the token signatures.
+     */
+    private final JwtKeySetProvider keySetProvider;
+
+    /**
+     * The object mapper used to read the token header and claims.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The clock used to check the expiry of the tokens.
+     */
+    private final Clock clock;
+
+    /**
+     * Constructs an instance of the JwtVerifier.
+     */
+    @Autowired
+    public JwtVerifier(AuthServiceConfig authServiceConfig,
+                       JwtKeySetProvider keySetProvider,
+                       ObjectMapper objectMapper) {
+        this(authServiceConfig, keySetProvider, objectMapper, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs an instance of the JwtVerifier that checks expiry against the given clock.
+     */
+    JwtVerifier(AuthServiceConfig authServiceConfig,
+                JwtKeySetProvider keySetProvider,
+                ObjectMapper objectMapper,
+                Clock clock) {
+        this.jwtConfig = authServiceConfig.getJwt();
+        this.keySetProvider = keySetProvider;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    /**
+     * Indicates whether tokens are verified locally.
+     *
+     * @return true if local verification is enabled
+     */
+    public boolean isEnabled() {
+        return jwtConfig.isEnabled();
+    }
+
+    /**
+     * Verifies the signature and the expiry of the token and maps its claims to a decision.
+     * Any token that is malformed, signed with an unknown key or algorithm, expired or not
+     * yet valid results in an unauthorized decision.
+     *
+     * @param token the bearer token presented by the client
+     * @return an allowed decision carrying the user claims, or the unauthorized decision
+     */
+    public AuthorizationDecision verify(String token) {
+        try {
+            int firstDot = token.indexOf('.');
+            int secondDot = token.indexOf('.', firstDot + 1);
+            if (firstDot < 0 || secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+                return AuthorizationDecision.unauthorized();
+            }
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            JsonNode header = objectMapper.readTree(decoder.decode(token.substring(0, firstDot)));
+            byte[] signingInput = token.substring(0, secondDot).getBytes(StandardCharsets.US_ASCII);
+            byte[] signature = decoder.decode(token.substring(secondDot + 1));
+            if (!verifySignature(header.path("alg").asText(""), header.path("kid").asText(null),
+                    signingInput, signature)) {
+                return AuthorizationDecision.unauthorized();
+            }
+            JsonNode claims = objectMapper.readTree(decoder.decode(token.substring(firstDot + 1, secondDot)));
+            if (!isCurrent(claims)) {
+                return AuthorizationDecision.unauthorized();
+            }
+            return AuthorizationDecision.allowed(
+                    claim(claims, jwtConfig.getUserIdClaim()),
+                    claim(claims, jwtConfig.getUsernameClaim()),
+                    claim(claims, jwtConfig.getServiceIdClaim()),
+                    claim(claims, jwtConfig.getAccountTypeClaim()));
+        } catch (Exception e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Token could not be verified: {}", e.getMessage());
+            }
+            return AuthorizationDecision.unauthorized();
+        }
+    }
+
+    /**
+     * Verifies the signature with each key of the key set that matches the algorithm
+     * and key id of the token. The key type is derived from the algorithm so that a
+     * token cannot pick an algorithm that does not belong to the key.
+     */
+    private boolean verifySignature(String alg, String kid, byte[] signingInput, byte[] signature) throws Exception {
+        String kty;
+        String jcaAlgorithm;
+        switch (alg) {
+            case "RS256" -> { kty = "RSA"; jcaAlgorithm = "SHA256withRSA"; }
+            case "RS384" -> { kty = "RSA"; jcaAlgorithm = "SHA384withRSA"; }
+            case "RS512" -> { kty = "RSA"; jcaAlgorithm = "SHA512withRSA"; }
+            case "ES256" -> { kty = "EC"; jcaAlgorithm = "SHA256withECDSAinP1363Format"; }
+            case "ES384" -> { kty = "EC"; jcaAlgorithm = "SHA384withECDSAinP1363Format"; }
+            case "ES512" -> { kty = "EC"; jcaAlgorithm = "SHA512withECDSAinP1363Format"; }
+            case "HS256" -> { kty = "oct"; jcaAlgorithm = "HmacSHA256"; }
+            case "HS384" -> { kty = "oct"; jcaAlgorithm = "HmacSHA384"; }
+            case "HS512" -> { kty = "oct"; jcaAlgorithm = "HmacSHA512"; }
+            default -> {
+                return false;
+            }
+        }
+        for (JsonWebKeySet.JsonWebKey key : keySetProvider.getKeySet().candidates(kty, kid)) {
+            if (kty.equals("oct")) {
+                Mac mac = Mac.getInstance(jcaAlgorithm);
+                mac.init(key.getKey());
+                if (MessageDigest.isEqual(mac.doFinal(signingInput), signature)) {
+                    return true;
+                }
+            } else {
+                Signature verifier = Signature.getInstance(jcaAlgorithm);
+                verifier.initVerify((PublicKey) key.getKey());
+                verifier.update(signingInput);
+                if (verifier.verify(signature)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks the expiry and not-before claims allowing for the configured clock skew.
+     * Tokens without an expiry are not accepted.
+     */
+    private boolean isCurrent(JsonNode claims) {
+        JsonNode exp = claims.get("exp");
+        if (exp == null || !exp.canConvertToLong()) {
+            return false;
+        }
+        long now = clock.millis() / 1000;
+        long skew = jwtConfig.getClockSkew().toSeconds();
+        if (exp.asLong() + skew < now) {
+            return false;
+        }
+        JsonNode nbf = claims.get("nbf");
+        return nbf == null || nbf.asLong() - skew <= now;
+    }
+
+    /**
+     * Returns the claim as text, or null if the token does not carry it.
+     */
+    private static String claim(JsonNode claims, String name) {
+        JsonNode value = claims.get(name);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
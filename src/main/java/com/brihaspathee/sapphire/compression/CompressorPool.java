@@ -0,0 +1,193 @@
+package com.brihaspathee.sapphire.compression;
+
+import com.brihaspathee.sapphire.config.CompressionConfig;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/22/26
+ * Time: 9:10 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.compression
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Keeps the compressors of the gzip responses for reuse. Creating a Deflater allocates
+ * its native zlib state and a compressed response would otherwise pay for it on the
+ * event loop; a pooled compressor is only reset. Taking and returning a compressor does
+ * not block.
+ */
+@Component
+public class CompressorPool {
+
+    /**
+     * The idle compressors.
+     */
+    private final BlockingQueue<Compressor> idle;
+
+    /**
+     * The compression configuration.
+     */
+    private final CompressionConfig compressionConfig;
+
+    /**
+     * Constructs an instance of the CompressorPool.
+     */
+    public CompressorPool(CompressionConfig compressionConfig) {
+        this.compressionConfig = compressionConfig;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, compressionConfig.getPoolSize()));
+    }
+
+    /**
+     * Takes an idle compressor, or creates one if none is idle.
+     *
+     * @return a compressor ready for a new response
+     */
+    public Compressor take() {
+        Compressor compressor = idle.poll();
+        return compressor != null ? compressor : new Compressor(compressionConfig.getLevel());
+    }
+
+    /**
+     * Resets the compressor and keeps it for reuse, or frees its native memory if the pool is full.
+     *
+     * @param compressor the compressor of a completed response
+     */
+    public void release(Compressor compressor) {
+        compressor.reset();
+        if (!idle.offer(compressor)) {
+            compressor.end();
+        }
+    }
+
+    /**
+     * Returns the number of idle compressors.
+     *
+     * @return the number of compressors kept for reuse
+     */
+    public int idle() {
+        return idle.size();
+    }
+
+    /**
+     * A gzip compressor: a raw deflater with the gzip header and trailer around its
+     * output, and the scratch array its output is deflated into.
+     */
+    public static final class Compressor {
+
+        /**
+         * The header of a gzip stream without a file name or modification time.
+         */
+        private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+        /**
+         * The raw deflater.
+         */
+        private final Deflater deflater;
+
+        /**
+         * The checksum of the uncompressed bytes, written in the trailer.
+         */
+        private final CRC32 crc = new CRC32();
+
+        /**
+         * The array the output of the deflater is written to.
+         */
+        private final byte[] scratch = new byte[8192];
+
+        /**
+         * Indicates whether the header was written for the current response.
+         */
+        private boolean headerWritten;
+
+        /**
+         * Constructs an instance of the Compressor.
+         */
+        private Compressor(int level) {
+            this.deflater = new Deflater(level, true);
+        }
+
+        /**
+         * Compresses the given bytes and writes whatever output the deflater has ready.
+         *
+         * @param input the uncompressed bytes, consumed by the call
+         * @param output receives the compressed bytes
+         */
+        public void compress(ByteBuffer input, Sink output) {
+            writeHeader(output);
+            crc.update(input.duplicate());
+            deflater.setInput(input);
+            while (!deflater.needsInput()) {
+                int length = deflater.deflate(scratch);
+                output.write(scratch, length);
+            }
+        }
+
+        /**
+         * Finishes the stream, writing the remaining output of the deflater and the trailer.
+         *
+         * @param output receives the compressed bytes
+         */
+        public void finish(Sink output) {
+            writeHeader(output);
+            deflater.finish();
+            while (!deflater.finished()) {
+                int length = deflater.deflate(scratch);
+                output.write(scratch, length);
+            }
+            int size = (int) deflater.getBytesRead();
+            long checksum = crc.getValue();
+            byte[] trailer = {
+                    (byte) checksum, (byte) (checksum >> 8), (byte) (checksum >> 16), (byte) (checksum >> 24),
+                    (byte) size, (byte) (size >> 8), (byte) (size >> 16), (byte) (size >> 24)};
+            output.write(trailer, trailer.length);
+        }
+
+        /**
+         * Writes the gzip header before the first output of a response.
+         */
+        private void writeHeader(Sink output) {
+            if (!headerWritten) {
+                output.write(HEADER, HEADER.length);
+                headerWritten = true;
+            }
+        }
+
+        /**
+         * Prepares the compressor for a new response.
+         */
+        private void reset() {
+            deflater.reset();
+            crc.reset();
+            headerWritten = false;
+        }
+
+        /**
+         * Frees the native memory of the deflater.
+         */
+        private void end() {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Receives the compressed bytes.
+     */
+    @FunctionalInterface
+    public interface Sink {
+
+        /**
+         * Writes the first length bytes of the array.
+         *
+         * @param bytes the compressed bytes
+         * @param length the number of bytes to write
+         */
+        void write(byte[] bytes, int length);
+    }
+}
@@ -0,0 +1,182 @@
+package com.brihaspathee.sapphire.concurrency;
+
+import com.brihaspathee.sapphire.config.ConcurrencyLimitConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/21/26
+ * Time: 5:20 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.concurrency
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The adaptive concurrency limit of a route. Requests are admitted without locking while
+ * fewer than the limit are in flight; every completed request is a sample of the round
+ * trip time and the concurrency it ran at, from which the limit is adjusted with the
+ * configured algorithm. The limit, the requests in flight and the rejected requests are
+ * published as meters tagged with the route id.
+ */
+public class AdaptiveLimit {
+
+    /**
+     * The configuration of the limit.
+     */
+    private final ConcurrencyLimitConfig config;
+
+    /**
+     * The number of requests in flight.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * The current limit, as used to admit the requests.
+     */
+    private volatile int limit;
+
+    /**
+     * The estimated limit before rounding, guarded by this.
+     */
+    private double estimatedLimit;
+
+    /**
+     * The long term average round trip time of the gradient algorithm in nanoseconds, guarded by this.
+     */
+    private double longRtt;
+
+    /**
+     * Counts the requests rejected per priority, indexed by the ordinal of the priority.
+     */
+    private final Counter[] rejected;
+
+    /**
+     * Creates the limit of a route and registers its meters.
+     *
+     * @param routeId the id of the route
+     * @param config the concurrency limit configuration
+     * @param meterRegistry the registry the meters are registered with
+     */
+    public AdaptiveLimit(String routeId, ConcurrencyLimitConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.estimatedLimit = Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), config.getInitialLimit()));
+        this.limit = (int) estimatedLimit;
+        Gauge.builder("gateway.concurrency.limit", this, AdaptiveLimit::getLimit)
+                .description("The number of requests the route may have in flight")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in.flight", this, AdaptiveLimit::getInFlight)
+                .description("The number of requests the route has in flight")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        RequestPriority[] priorities = RequestPriority.values();
+        this.rejected = new Counter[priorities.length];
+        for (RequestPriority priority : priorities) {
+            rejected[priority.ordinal()] = Counter.builder("gateway.concurrency.rejected")
+                    .description("Requests shed because the route reached its concurrency limit")
+                    .tag("route", routeId)
+                    .tag("priority", priority.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Admits the request if the requests in flight are below the part of the limit its
+     * priority may use, otherwise counts it as rejected.
+     *
+     * @param priority the priority of the request
+     * @return the number of requests in flight including this one, or 0 if it was rejected
+     */
+    public int tryAcquire(RequestPriority priority) {
+        int current = limit;
+        int allowed = priority == RequestPriority.HIGH ? current
+                : Math.max(1, (int) (current * config.getLowPriorityShare()));
+        while (true) {
+            int running = inFlight.get();
+            if (running >= allowed) {
+                rejected[priority.ordinal()].increment();
+                return 0;
+            }
+            if (inFlight.compareAndSet(running, running + 1)) {
+                return running + 1;
+            }
+        }
+    }
+
+    /**
+     * Releases a request that was cancelled, without taking it as a sample.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Releases a completed request and adjusts the limit with it.
+     *
+     * @param rttNanos the round trip time of the request
+     * @param inFlightAtStart the number of requests in flight when it was admitted
+     * @param dropped whether the request failed in a way that signals overload
+     */
+    public void complete(long rttNanos, int inFlightAtStart, boolean dropped) {
+        inFlight.decrementAndGet();
+        if (rttNanos > config.getTimeout().toNanos()) {
+            dropped = true;
+        }
+        synchronized (this) {
+            double estimate = estimatedLimit;
+            if (dropped) {
+                estimate = estimate * config.getBackoffRatio();
+            } else if (config.getAlgorithm() == LimitAlgorithm.AIMD) {
+                // the limit only grows while it is actually used
+                if (inFlightAtStart * 2 >= estimate) {
+                    estimate = estimate + 1;
+                }
+            } else {
+                estimate = gradient(estimate, rttNanos, inFlightAtStart);
+            }
+            estimatedLimit = Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), estimate));
+            limit = (int) estimatedLimit;
+        }
+    }
+
+    /**
+     * Returns the new estimate of the gradient algorithm. Must be called while holding the lock.
+     */
+    private double gradient(double estimate, long rttNanos, int inFlightAtStart) {
+        double shortRtt = Math.max(1, rttNanos);
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) / config.getLongWindow();
+        // after a slow period the average drifts back down so the limit can recover
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        // a route using less than half its limit says nothing about the capacity downstream
+        if (inFlightAtStart < estimate / 2) {
+            return estimate;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, config.getRttTolerance() * longRtt / shortRtt));
+        double newEstimate = estimate * gradient + Math.sqrt(estimate);
+        return estimate * (1 - config.getSmoothing()) + newEstimate * config.getSmoothing();
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the number of requests the route may have in flight
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of requests in flight.
+     *
+     * @return the number of requests admitted and not yet completed
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
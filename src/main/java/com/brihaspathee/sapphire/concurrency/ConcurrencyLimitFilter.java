@@ -0,0 +1,116 @@
+package com.brihaspathee.sapphire.concurrency;
+
+import com.brihaspathee.sapphire.config.ConcurrencyLimitConfig;
+import com.brihaspathee.sapphire.filter.AuthenticationFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/21/26
+ * Time: 5:50 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.concurrency
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Sheds the load of a route whose downstream service cannot keep up. Each route has an
+ * adaptive limit on the requests it has waiting on its downstream service; a request
+ * beyond the limit is answered with 503 straight away instead of queueing behind the
+ * others until everything times out. Requests authenticated by the AuthenticationFilter
+ * may use the whole limit, public requests only the low priority share of it, so they
+ * are shed first. The filter runs after the route filters and before the load balancer,
+ * and a request counts as in flight until the response headers of the downstream
+ * service arrive, which is the round trip time the limit is adjusted with.
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+
+    /**
+     * The limits of the routes.
+     */
+    private final ConcurrencyLimits concurrencyLimits;
+
+    /**
+     * The concurrency limit configuration.
+     */
+    private final ConcurrencyLimitConfig concurrencyLimitConfig;
+
+    /**
+     * Constructs an instance of the ConcurrencyLimitFilter.
+     */
+    public ConcurrencyLimitFilter(ConcurrencyLimits concurrencyLimits, ConcurrencyLimitConfig concurrencyLimitConfig) {
+        this.concurrencyLimits = concurrencyLimits;
+        this.concurrencyLimitConfig = concurrencyLimitConfig;
+    }
+
+    /**
+     * Admits the request within the limit of its route or sheds it with 503.
+     *
+     * @param exchange the current server web exchange
+     * @param chain the gateway filter chain
+     * @return a {@code Mono<Void>} that completes when the downstream call completes
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!concurrencyLimitConfig.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+        AdaptiveLimit limit = concurrencyLimits.limit(route.getId());
+        RequestPriority priority = Boolean.TRUE.equals(exchange.getAttribute(AuthenticationFilter.AUTHENTICATED_ATTR))
+                ? RequestPriority.HIGH : RequestPriority.LOW;
+        int inFlight = limit.tryAcquire(priority);
+        if (inFlight == 0) {
+            if (log.isDebugEnabled()) {
+                log.debug("Shedding a {} priority request to route {}, the limit is {}",
+                        priority, route.getId(), limit.getLimit());
+            }
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return exchange.getResponse().setComplete();
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        limit.release();
+                        return;
+                    }
+                    limit.complete(System.nanoTime() - start, inFlight,
+                            signal == SignalType.ON_ERROR || isOverloaded(exchange.getResponse().getStatusCode()));
+                });
+    }
+
+    /**
+     * Indicates whether the status tells the downstream service is overloaded.
+     */
+    private static boolean isOverloaded(HttpStatusCode status) {
+        return status != null && (status.value() == 429 || status.value() == 502 ||
+                status.value() == 503 || status.value() == 504);
+    }
+
+    /**
+     * Runs after the route filters, so the AuthenticationFilter has run, and right before
+     * the load balancer picks the instance.
+     *
+     * @return the order of the filter
+     */
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+}
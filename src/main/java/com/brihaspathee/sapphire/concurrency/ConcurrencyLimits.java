@@ -0,0 +1,59 @@
+package com.brihaspathee.sapphire.concurrency;
+
+import com.brihaspathee.sapphire.config.ConcurrencyLimitConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/21/26
+ * Time: 5:40 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.concurrency
+ * To change this template use File | Settings | File and Code Template
+ */
+@Component
+public class ConcurrencyLimits {
+
+    /**
+     * The registry the meters of the limits are registered with.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The concurrency limit configuration.
+     */
+    private final ConcurrencyLimitConfig concurrencyLimitConfig;
+
+    /**
+     * The limits of the routes keyed by the route id.
+     */
+    private final Map<String, AdaptiveLimit> limitsByRoute = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an instance of the ConcurrencyLimits.
+     */
+    public ConcurrencyLimits(MeterRegistry meterRegistry, ConcurrencyLimitConfig concurrencyLimitConfig) {
+        this.meterRegistry = meterRegistry;
+        this.concurrencyLimitConfig = concurrencyLimitConfig;
+    }
+
+    /**
+     * Returns the limit of a route, creating it with the initial limit on the first request.
+     *
+     * @param routeId the id of the route
+     * @return the limit of the route
+     */
+    public AdaptiveLimit limit(String routeId) {
+        AdaptiveLimit limit = limitsByRoute.get(routeId);
+        if (limit != null) {
+            return limit;
+        }
+        return limitsByRoute.computeIfAbsent(routeId,
+                id -> new AdaptiveLimit(id, concurrencyLimitConfig, meterRegistry));
+    }
+}
@@ -0,0 +1,30 @@
+package com.brihaspathee.sapphire.concurrency;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/21/26
+ * Time: 5:00 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.concurrency
+ * To change this template use File | Settings | File and Code Template
+ *
+ * How the concurrency limit of a route follows the capacity of its downstream service.
+ * With either algorithm the limit is cut back by the backoff ratio when a request is
+ * dropped, that is when it fails, times out or is answered with 429, 502, 503 or 504.
+ */
+public enum LimitAlgorithm {
+
+    /**
+     * Additive increase, multiplicative decrease: the limit grows by one for every
+     * successful request made while at least half of the limit was in use.
+     */
+    AIMD,
+
+    /**
+     * The limit follows the gradient between the long term average round trip time and
+     * the latest one, shrinking as soon as the downstream service slows down and growing
+     * back, by about the square root of the limit, while it keeps up.
+     */
+    GRADIENT
+}
@@ -0,0 +1,26 @@
+package com.brihaspathee.sapphire.concurrency;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/21/26
+ * Time: 5:05 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.concurrency
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The priority of a request when the concurrency limit of its route is reached.
+ */
+public enum RequestPriority {
+
+    /**
+     * Requests authenticated by the AuthenticationFilter, which may use the whole limit.
+     */
+    HIGH,
+
+    /**
+     * Requests to public routes, which may only use the low priority share of the limit
+     * and are shed first.
+     */
+    LOW
+}
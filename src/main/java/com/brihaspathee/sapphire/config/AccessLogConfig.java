@@ -0,0 +1,38 @@
+package com.brihaspathee.sapphire.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 6:00 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.config
+ * To change this template use File | Settings | File and Code Template
+ */
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "application.access-log")
+public class AccessLogConfig {
+
+    /**
+     * Indicates whether a record is written to the access log for the requests.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The fraction of the requests, between 0 and 1, that are written to the access log.
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Indicates whether requests that fail with a server error are always written to
+     * the access log, whether or not they are sampled.
+     */
+    private boolean alwaysLogErrors = true;
+}
@@ -5,6 +5,8 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 /**
  * Created in Intellij IDEA
  * User: Balaji Varadharajan
@@ -33,4 +35,292 @@ public class AuthServiceConfig {
      * with the prefix `application.auth-service`.
      */
     private String port;
+
+    /**
+     * Indicates whether concurrent validations of the same token against the same
+     * resource share a single call to the authentication service.
+     */
+    private boolean coalesceRequests = true;
+
+    /**
+     * Settings for the in-memory cache of authorization decisions returned
+     * by the authentication service.
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * Settings for verifying JWT access tokens locally instead of calling the
+     * authentication service for every request.
+     */
+    private Jwt jwt = new Jwt();
+
+    /**
+     * Settings for the connection pool and timeouts used to call the authentication service.
+     */
+    private Pool pool = new Pool();
+
+    /**
+     * Settings for the circuit breaker and bulkhead around the calls to the authentication service.
+     */
+    private Breaker breaker = new Breaker();
+
+    /**
+     * Settings for sending the validations to the authentication service in batches.
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * Configuration for the authorization decision cache. Allowed and denied
+     * decisions are held for different lengths of time so that a revoked or
+     * newly granted permission is picked up quickly while the common case
+     * (an allowed request) avoids the round trip to the authentication service.
+     */
+    @Setter
+    @Getter
+    public static class Cache {
+
+        /**
+         * Indicates whether authorization decisions are cached.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The maximum number of decisions held in the cache. Once the limit is
+         * reached the least valuable entries are evicted.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * How long an allowed decision is served from the cache.
+         */
+        private Duration positiveTtl = Duration.ofSeconds(60);
+
+        /**
+         * How long a denied (unauthorized or forbidden) decision is served from the cache.
+         */
+        private Duration negativeTtl = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Configuration for local JWT verification. When enabled the signature and expiry
+     * of the token are verified against the configured key set and the user headers
+     * are populated from the claims. Routes that need resource level authorization
+     * still call the authentication service.
+     */
+    @Setter
+    @Getter
+    public static class Jwt {
+
+        /**
+         * Indicates whether tokens are verified locally.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The location of the JSON Web Key Set used to verify the tokens. Supports
+         * http(s) urls as well as `file:` and `classpath:` resources.
+         */
+        private String keySetUri;
+
+        /**
+         * How often the key set is reloaded in the background.
+         */
+        private Duration refreshInterval = Duration.ofMinutes(5);
+
+        /**
+         * The clock skew tolerated when checking the expiry and not-before claims.
+         */
+        private Duration clockSkew = Duration.ofSeconds(30);
+
+        /**
+         * The name of the claim that holds the id of the user.
+         */
+        private String userIdClaim = "userId";
+
+        /**
+         * The name of the claim that holds the username.
+         */
+        private String usernameClaim = "sub";
+
+        /**
+         * The name of the claim that holds the service id.
+         */
+        private String serviceIdClaim = "serviceId";
+
+        /**
+         * The name of the claim that holds the account type.
+         */
+        private String accountTypeClaim = "accountType";
+    }
+
+    /**
+     * Configuration for the connections to the authentication service. The pool is
+     * dedicated to the auth traffic so a slow downstream route cannot starve it, and the
+     * limits make the gateway fail fast instead of queueing requests without bound.
+     */
+    @Setter
+    @Getter
+    public static class Pool {
+
+        /**
+         * The maximum number of connections open to the authentication service.
+         */
+        private int maxConnections = 200;
+
+        /**
+         * The maximum number of requests waiting for a connection. Requests beyond this
+         * fail immediately.
+         */
+        private int pendingAcquireMaxCount = 1000;
+
+        /**
+         * How long a request waits for a connection before it fails.
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+        /**
+         * How long a connection may stay idle in the pool before it is closed. Keep this
+         * below the keep-alive timeout of the authentication service.
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /**
+         * How long a connection is used before it is closed, so connections get
+         * rebalanced across the instances of the authentication service.
+         */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /**
+         * How often idle and expired connections are evicted in the background.
+         */
+        private Duration evictionInterval = Duration.ofSeconds(30);
+
+        /**
+         * How long establishing a connection may take.
+         */
+        private Duration connectTimeout = Duration.ofSeconds(1);
+
+        /**
+         * How long the authentication service may take to respond once the request is sent.
+         */
+        private Duration responseTimeout = Duration.ofSeconds(3);
+
+        /**
+         * Indicates whether the authentication service is called over HTTP/2 (h2c),
+         * falling back to HTTP/1.1 if the service does not support it.
+         */
+        private boolean http2 = false;
+
+        /**
+         * Indicates whether the pool utilization metrics are published.
+         */
+        private boolean metrics = true;
+    }
+
+    /**
+     * Configuration for the circuit breaker and the bulkhead that protect the gateway from
+     * a slow or failing authentication service. Once the failure rate or the slow call rate
+     * crosses its threshold the breaker opens and requests that need the service are
+     * rejected with 503 straight away instead of queueing up behind it.
+     */
+    @Setter
+    @Getter
+    public static class Breaker {
+
+        /**
+         * Indicates whether the calls go through the circuit breaker and the bulkhead.
+         */
+        private boolean enabled = true;
+
+        /**
+         * The percentage of failed calls at which the breaker opens.
+         */
+        private float failureRateThreshold = 50;
+
+        /**
+         * The percentage of slow calls at which the breaker opens.
+         */
+        private float slowCallRateThreshold = 80;
+
+        /**
+         * How long a call may take before it counts as slow.
+         */
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(1);
+
+        /**
+         * The number of most recent calls the rates are computed over.
+         */
+        private int slidingWindowSize = 100;
+
+        /**
+         * The number of calls needed before the rates are computed.
+         */
+        private int minimumNumberOfCalls = 20;
+
+        /**
+         * How long the breaker stays open before letting trial calls through.
+         */
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+
+        /**
+         * The number of trial calls let through while the breaker is half open.
+         */
+        private int permittedCallsInHalfOpenState = 10;
+
+        /**
+         * The maximum number of calls to the authentication service in flight at once.
+         * Calls beyond this are rejected immediately.
+         */
+        private int maxConcurrentCalls = 100;
+
+        /**
+         * Indicates whether allowed decisions are still served from the cache for a
+         * while after they expire when the authentication service is unavailable.
+         */
+        private boolean degradedMode = false;
+
+        /**
+         * How long after it was made an allowed decision may be served in degraded mode.
+         */
+        private Duration degradedTtl = Duration.ofMinutes(5);
+    }
+
+    /**
+     * Configuration for micro-batching the validations. The validations issued within a
+     * short window are sent to the batch endpoint of the authentication service in one
+     * call and its results are handed back to each waiting request. A batch is sent once
+     * no validation joined it for the linger time, once its oldest validation waited for
+     * the maximum delay, or as soon as it is full, whichever comes first, so batching never
+     * adds more than the maximum delay to a request.
+     */
+    @Setter
+    @Getter
+    public static class Batch {
+
+        /**
+         * Indicates whether the validations are batched.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How long a batch waits for another validation to join it before it is sent.
+         */
+        private Duration linger = Duration.ofMillis(1);
+
+        /**
+         * The longest a validation waits in a batch before the batch is sent, the latency cap.
+         */
+        private Duration maxDelay = Duration.ofMillis(2);
+
+        /**
+         * The number of validations at which a batch is sent straight away.
+         */
+        private int maxSize = 64;
+
+        /**
+         * How long the validations are sent one by one after the authentication service
+         * answered that it does not support the batch endpoint, before batching is tried again.
+         */
+        private Duration unsupportedRetryInterval = Duration.ofMinutes(5);
+    }
 }
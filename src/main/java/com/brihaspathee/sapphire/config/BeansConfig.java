@@ -1,32 +1,67 @@
 package com.brihaspathee.sapphire.config;
 
-import com.brihaspathee.sapphire.filter.AuthenticationFilter;
+import com.brihaspathee.sapphire.loadbalancer.SapphireLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.Executors;
 
 /**
  * Created in Intellij IDEA
  * User: Balaji Varadharajan
  * Date: 21, February 2025
- * Time: 1:34 PM
+ * Time: 1:34 PM
  * Project: sapphire
  * Package Name: com.brihaspathee.sapphire.config
  * To change this template use File | Settings | File and Code Template
  */
 @Configuration
+@LoadBalancerClients(defaultConfiguration = SapphireLoadBalancerConfiguration.class)
 public class BeansConfig {
 
     /**
-     * Provides a configured WebClient bean for making HTTP requests.
+     * Provides the connection pool dedicated to the calls to the authentication service,
+     * configured with the settings under `application.auth-service.pool`. When metrics are
+     * enabled the pool publishes its active, idle and pending connection gauges under
+     * `reactor.netty.connection.provider` with the name `auth-service`.
      *
-     * @return a new WebClient instance built using the WebClient builder.
+     * @param authServiceConfig the authentication service configuration
+     * @return the connection provider, disposed when the application shuts down
      */
-    @Bean
-    public WebClient getWebClient(){
-        return WebClient.builder()
-                .baseUrl("http://localhost:7095/api/v1/auth")
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider authServiceConnectionProvider(AuthServiceConfig authServiceConfig) {
+        AuthServiceConfig.Pool pool = authServiceConfig.getPool();
+        return ConnectionProvider.builder("auth-service")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(pool.isMetrics())
                 .build();
     }
-    
+
+    /**
+     * Provides the scheduler every blocking JPA call is run on, so a slow database never
+     * holds up an event loop thread. By default each call gets its own virtual thread,
+     * which parks instead of pinning a platform thread while it waits on PostgreSQL;
+     * the number of concurrent queries is still bounded by the JDBC connection pool.
+     *
+     * @param routeConfig the routes configuration
+     * @return the scheduler, disposed when the application shuts down
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(RouteConfig routeConfig) {
+        if (!routeConfig.isVirtualThreads()) {
+            return Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                    Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "jdbc");
+        }
+        return Schedulers.fromExecutorService(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("jdbc-", 0).factory()), "jdbc");
+    }
 }
@@ -0,0 +1,62 @@
+package com.brihaspathee.sapphire.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/22/26
+ * Time: 9:00 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.config
+ * To change this template use File | Settings | File and Code Template
+ */
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "application.compression")
+public class CompressionConfig {
+
+    /**
+     * Indicates whether the routes with the CompressionFilter compress their responses.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The smallest response compressed when the route does not set one. Smaller responses
+     * gain less than the cost of compressing them.
+     */
+    private DataSize defaultMinSize = DataSize.ofKilobytes(1);
+
+    /**
+     * The content types compressed when the route does not set any.
+     */
+    private List<String> defaultContentTypes = new ArrayList<>(List.of(
+            "application/json",
+            "application/xml",
+            "application/javascript",
+            "text/html",
+            "text/plain",
+            "text/css",
+            "text/csv"));
+
+    /**
+     * The gzip compression level, from 1 (fastest) to 9 (smallest).
+     */
+    private int level = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * The number of idle compressors kept for reuse. A compressor holds a few hundred
+     * kilobytes of native memory; more are created when all the pooled ones are in use
+     * and the extra ones are dropped when returned to a full pool.
+     */
+    private int poolSize = 64;
+}
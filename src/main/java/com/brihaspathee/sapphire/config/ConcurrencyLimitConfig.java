@@ -0,0 +1,84 @@
+package com.brihaspathee.sapphire.config;
+
+import com.brihaspathee.sapphire.concurrency.LimitAlgorithm;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/21/26
+ * Time: 5:10 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.config
+ * To change this template use File | Settings | File and Code Template
+ */
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "application.concurrency-limit")
+public class ConcurrencyLimitConfig {
+
+    /**
+     * Indicates whether the requests in flight to each route are limited.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The algorithm adjusting the limit of each route.
+     */
+    private LimitAlgorithm algorithm = LimitAlgorithm.GRADIENT;
+
+    /**
+     * The limit a route starts with.
+     */
+    private int initialLimit = 20;
+
+    /**
+     * The lowest the limit of a route goes, however slow its downstream service gets.
+     */
+    private int minLimit = 4;
+
+    /**
+     * The highest the limit of a route goes.
+     */
+    private int maxLimit = 1000;
+
+    /**
+     * The share of the limit the low priority requests may use, the rest is kept for the
+     * authenticated requests.
+     */
+    private double lowPriorityShare = 0.8;
+
+    /**
+     * The factor the limit is multiplied by when a request is dropped.
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * The round trip time above which a request counts as dropped.
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /**
+     * How much slower than the long term average the downstream service may get before
+     * the gradient algorithm shrinks the limit, for e.g. 1.5 tolerates 50% slower.
+     */
+    private double rttTolerance = 1.5;
+
+    /**
+     * The number of requests the long term average round trip time of the gradient
+     * algorithm is taken over.
+     */
+    private int longWindow = 600;
+
+    /**
+     * How fast the gradient algorithm moves the limit towards its new estimate, between
+     * 0 (never) and 1 (straight away).
+     */
+    private double smoothing = 0.2;
+}
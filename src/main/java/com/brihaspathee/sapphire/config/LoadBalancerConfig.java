@@ -0,0 +1,50 @@
+package com.brihaspathee.sapphire.config;
+
+import com.brihaspathee.sapphire.loadbalancer.LoadBalancingStrategy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/20/26
+ * Time: 2:00 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.config
+ * To change this template use File | Settings | File and Code Template
+ */
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "application.load-balancer")
+public class LoadBalancerConfig {
+
+    /**
+     * The strategy used for the lb:// routes that do not name one in their load_balancer column.
+     */
+    private LoadBalancingStrategy defaultStrategy = LoadBalancingStrategy.ROUND_ROBIN;
+
+    /**
+     * How quickly the observed latency of an instance fades. An observation made this long
+     * ago weighs about a third of one made now, and an instance that was not called for a
+     * few times this long is tried again even if it was slow.
+     */
+    private Duration decayTime = Duration.ofSeconds(10);
+
+    /**
+     * The latency recorded for a call that failed or returned a 5xx status, when the
+     * call itself was faster, so failing instances are avoided like slow ones.
+     */
+    private Duration failurePenalty = Duration.ofSeconds(1);
+
+    /**
+     * The weight of an instance that does not carry a weight in its metadata. A canary
+     * registered with a weight of 5 next to instances without one gets about 5% of the
+     * traffic of a route using the WEIGHTED strategy.
+     */
+    private int defaultWeight = 100;
+}
@@ -0,0 +1,45 @@
+package com.brihaspathee.sapphire.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 5:00 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.config
+ * To change this template use File | Settings | File and Code Template
+ */
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "application.rate-limit")
+public class RateLimitConfig {
+
+    /**
+     * The engine that keeps the token buckets. `local` keeps them in the memory of
+     * each gateway instance; other engines can be plugged in by providing a
+     * RateLimitEngine bean and setting this to any other value.
+     */
+    private String engine = "local";
+
+    /**
+     * The maximum number of buckets the local engine keeps. The least recently used
+     * buckets are dropped beyond this, so the memory used stays bounded however many
+     * users hit the gateway.
+     */
+    private long maximumKeys = 100_000;
+
+    /**
+     * How long a bucket of the local engine is kept without being used. A bucket that has
+     * been idle for longer than it takes to refill is the same as a new one, so this only
+     * needs to be longer than burst capacity divided by replenish rate of the slowest route.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+}
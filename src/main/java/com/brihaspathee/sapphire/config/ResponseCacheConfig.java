@@ -0,0 +1,49 @@
+package com.brihaspathee.sapphire.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 8:30 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.config
+ * To change this template use File | Settings | File and Code Template
+ */
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "application.response-cache")
+public class ResponseCacheConfig {
+
+    /**
+     * Indicates whether the ResponseCacheFilter caches responses. When disabled the
+     * filter passes every request through, whatever the routes are configured with.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The maximum number of bytes held by the cache across all routes. The bodies are
+     * held in pooled direct buffers, so this bounds the off-heap memory used.
+     */
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+
+    /**
+     * The largest response body that is cached. Larger responses are streamed through
+     * without being cached.
+     */
+    private DataSize maximumEntrySize = DataSize.ofMegabytes(1);
+
+    /**
+     * How long a response is cached when the route does not set a ttl and the upstream
+     * service does not send a max-age.
+     */
+    private Duration defaultTtl = Duration.ofSeconds(60);
+}
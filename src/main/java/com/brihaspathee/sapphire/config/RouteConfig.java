@@ -0,0 +1,131 @@
+package com.brihaspathee.sapphire.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 10:50 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.config
+ * To change this template use File | Settings | File and Code Template
+ */
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "application.routes")
+public class RouteConfig {
+
+    /**
+     * Indicates whether the periodic refresh first checks the routes table for changes
+     * and only rebuilds the routes that changed. When disabled every refresh reloads all
+     * the routes and rebuilds the whole route table of the gateway.
+     */
+    private boolean changeDetection = true;
+
+    /**
+     * Indicates whether requests are matched to routes through a segment trie over the
+     * path patterns instead of evaluating the predicates of every route in order. Only the
+     * routes whose path patterns can match the request path have their predicates applied.
+     */
+    private boolean indexedLookup = false;
+
+    /**
+     * Indicates whether the blocking JPA calls that load the routes run on virtual threads,
+     * one per call. When disabled they run on a dedicated bounded elastic scheduler.
+     */
+    private boolean virtualThreads = true;
+
+    /**
+     * How the routes are loaded when the gateway starts. BLOCKING holds the startup until
+     * the routes are loaded; BACKGROUND lets the gateway start while the database is still
+     * warming up and adds the routes as soon as they are loaded.
+     */
+    private StartupLoad startupLoad = StartupLoad.BLOCKING;
+
+    /**
+     * Settings for propagating route changes through PostgreSQL LISTEN/NOTIFY.
+     */
+    private Notify notify = new Notify();
+
+    /**
+     * Settings for the local snapshot file of the routes.
+     */
+    private SnapshotFile snapshotFile = new SnapshotFile();
+
+    /**
+     * How the routes are loaded when the gateway starts.
+     */
+    public enum StartupLoad {
+
+        /**
+         * The startup waits for the routes to be loaded.
+         */
+        BLOCKING,
+
+        /**
+         * The routes are loaded once the gateway started.
+         */
+        BACKGROUND
+    }
+
+    /**
+     * Configuration for listening to route change notifications published by the
+     * `routes_notify_change` trigger of the routes table.
+     */
+    @Setter
+    @Getter
+    public static class Notify {
+
+        /**
+         * Indicates whether the gateway listens for route change notifications.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The channel the notifications are published on.
+         */
+        private String channel = "sapphire_route_changes";
+
+        /**
+         * How long a single poll for notifications waits before checking the connection again.
+         */
+        private Duration pollTimeout = Duration.ofSeconds(5);
+
+        /**
+         * How long to wait before reconnecting after the listening connection fails.
+         */
+        private Duration reconnectDelay = Duration.ofSeconds(10);
+    }
+
+    /**
+     * Configuration for the local file the last loaded routes are written to, so the
+     * gateway can serve them when it starts, or has to start, without the database.
+     */
+    @Setter
+    @Getter
+    public static class SnapshotFile {
+
+        /**
+         * Indicates whether the loaded routes are written to and restored from the file.
+         */
+        private boolean enabled = true;
+
+        /**
+         * The path of the file.
+         */
+        private String path = "route-snapshot.json";
+
+        /**
+         * How long after the routes were last confirmed against the database the file
+         * may still be served. Older files are ignored.
+         */
+        private Duration maxAge = Duration.ofHours(24);
+    }
+}
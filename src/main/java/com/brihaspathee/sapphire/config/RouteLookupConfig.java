@@ -0,0 +1,42 @@
+package com.brihaspathee.sapphire.config;
+
+import com.brihaspathee.sapphire.route.IndexedRoutePredicateHandlerMapping;
+import com.brihaspathee.sapphire.route.SapphireRouteDefinitionRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 2:55 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.config
+ * To change this template use File | Settings | File and Code Template
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.routes", name = "indexed-lookup", havingValue = "true")
+public class RouteLookupConfig {
+
+    /**
+     * Replaces the handler mapping of the gateway with one that looks up the routes through
+     * a segment trie over their path patterns.
+     *
+     * @return the indexed handler mapping
+     */
+    @Bean
+    public RoutePredicateHandlerMapping routePredicateHandlerMapping(FilteringWebHandler webHandler,
+                                                                     RouteLocator routeLocator,
+                                                                     GlobalCorsProperties globalCorsProperties,
+                                                                     Environment environment,
+                                                                     SapphireRouteDefinitionRepository routeDefinitionRepository) {
+        return new IndexedRoutePredicateHandlerMapping(webHandler, routeLocator, globalCorsProperties,
+                environment, routeDefinitionRepository);
+    }
+}
@@ -0,0 +1,54 @@
+package com.brihaspathee.sapphire.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/19/26
+ * Time: 9:00 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.config
+ * To change this template use File | Settings | File and Code Template
+ */
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "application.route-metrics")
+public class RouteMetricsConfig {
+
+    /**
+     * Indicates whether the latency and the throughput of the routes are recorded.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Indicates whether the latency timers publish histogram buckets, from which
+     * Prometheus computes percentiles that can be aggregated across the gateway nodes.
+     */
+    private boolean percentileHistogram = true;
+
+    /**
+     * The percentiles computed in the gateway for every timer, for e.g. 0.5, 0.99.
+     * They cannot be aggregated across nodes and cost memory per route, so none are
+     * computed by default.
+     */
+    private List<Double> percentiles = new ArrayList<>();
+
+    /**
+     * The lowest latency the histogram buckets cover.
+     */
+    private Duration minimumExpectedLatency = Duration.ofMillis(1);
+
+    /**
+     * The highest latency the histogram buckets cover.
+     */
+    private Duration maximumExpectedLatency = Duration.ofSeconds(30);
+}
@@ -0,0 +1,45 @@
+package com.brihaspathee.sapphire.config;
+
+import io.netty.util.ResourceLeakDetector;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/21/26
+ * Time: 2:00 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.config
+ * To change this template use File | Settings | File and Code Template
+ */
+@Setter
+@Getter
+@Component
+@ConfigurationProperties(prefix = "application.streaming")
+public class StreamingConfig {
+
+    /**
+     * The largest request body a streaming route accepts. A request announcing a larger
+     * Content-Length is rejected with 413 before it reaches the downstream service, and a
+     * chunked request is cut off once it goes past the limit.
+     */
+    private DataSize maxRequestSize = DataSize.ofGigabytes(10);
+
+    /**
+     * The largest response body a streaming route returns. A response announcing a larger
+     * Content-Length is replaced by a 502, and a chunked response is cut off once it goes
+     * past the limit.
+     */
+    private DataSize maxResponseSize = DataSize.ofGigabytes(10);
+
+    /**
+     * The level at which Netty checks for pooled buffers that are garbage collected without
+     * being released. SIMPLE samples about 1% of the buffers at little cost; PARANOID checks
+     * every buffer and is meant for tests.
+     */
+    private ResourceLeakDetector.Level leakDetection = ResourceLeakDetector.Level.SIMPLE;
+}
@@ -2,6 +2,9 @@ package com.brihaspathee.sapphire.domain.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 /**
  * Created in Intellij IDEA
@@ -48,7 +51,9 @@ public class Route {
     /**
      * Represents the conditions or criteria that must be met for a specific route.
      * This field is stored as a text value in the database and is required
-     * for determining the valid predicates for routing.
+     * for determining the valid predicates for routing. It holds a JSON array of
+     * predicates, each either a shortcut such as "Path=/a/**,/b/**" or an object with
+     * a name and args; a plain comma separated list of paths is still accepted.
      */
     @Column(name = "predicates", nullable = false, columnDefinition = "TEXT")
     private String predicates;
@@ -56,7 +61,9 @@ public class Route {
     /**
      * Represents the filters applied to a specific route.
      * Stored as a text field in the database, this attribute contains
-     * the filtering criteria or transformations associated with the route.
+     * the filtering criteria or transformations associated with the route
+     * as a JSON array in the same format as the predicates; a single filter
+     * shortcut is still accepted.
      */
     @Column(name = "filters", nullable = false, columnDefinition = "TEXT")
     private String filters;
@@ -71,6 +78,31 @@ public class Route {
     @Column(name = "route_order", nullable = false)
     private int routeOrder;
 
+    /**
+     * The name of the strategy used to pick the instance of the downstream service for
+     * an lb:// route, one of ROUND_ROBIN, LEAST_LATENCY or WEIGHTED. When empty the
+     * default strategy of the gateway is used.
+     */
+    @Column(name = "load_balancer", length = 32)
+    private String loadBalancer;
+
+    /**
+     * Indicates whether the route streams its bodies, for e.g. the member and provider
+     * exports. The bodies of a streaming route are passed through without being
+     * aggregated and are limited to the maximum sizes of application.streaming.
+     */
+    @Column(name = "streaming", nullable = false, columnDefinition = "boolean not null default false")
+    private boolean streaming;
+
+    /**
+     * The time at which the route was last changed. It is set by Hibernate when the
+     * route is saved through JPA and by the `routes_touch_updated_at` trigger when the
+     * table is edited directly, and lets the gateway detect changes with a cheap query.
+     */
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
 //    @Column(name = "is_secured")
 //    private Boolean isSecured;
 }
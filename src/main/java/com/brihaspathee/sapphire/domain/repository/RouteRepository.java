@@ -2,8 +2,10 @@ package com.brihaspathee.sapphire.domain.repository;
 
 import com.brihaspathee.sapphire.domain.entity.Route;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -24,4 +26,23 @@ public interface RouteRepository extends JpaRepository<Route, Integer> {
      * @return a list of enabled Route entities
      */
     List<Route> findByEnabledTrue();
+
+    /**
+     * Retrieves the routes with the given route ids, enabled or not.
+     *
+     * @param routeIds the route ids
+     * @return the routes that exist
+     */
+    List<Route> findByRouteIdIn(Collection<String> routeIds);
+
+    /**
+     * Retrieves the number of routes and the time of the most recent change to any route.
+     * The result changes whenever a route is added, updated or removed, so it is used to
+     * check for changes without loading the routes.
+     *
+     * @return the fingerprint of the routes table
+     */
+    @Query("select new com.brihaspathee.sapphire.domain.repository.RouteTableFingerprint(count(r), max(r.updatedAt)) " +
+            "from Route r")
+    RouteTableFingerprint findFingerprint();
 }
@@ -0,0 +1,28 @@
+package com.brihaspathee.sapphire.domain.repository;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 10:40 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.domain.repository
+ * To change this template use File | Settings | File and Code Template
+ */
+@Value
+public class RouteTableFingerprint {
+
+    /**
+     * The number of routes in the table, enabled or not.
+     */
+    Long routeCount;
+
+    /**
+     * The time of the most recent change to any route, null if no route carries a change time.
+     */
+    Instant lastUpdatedAt;
+}
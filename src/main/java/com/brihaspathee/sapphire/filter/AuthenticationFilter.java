@@ -1,29 +1,28 @@
 package com.brihaspathee.sapphire.filter;
 
-import com.brihaspathee.sapphire.config.AuthServiceConfig;
-import com.brihaspathee.sapphire.dto.auth.AuthorizationRequest;
-import com.brihaspathee.sapphire.dto.auth.UserDto;
-import com.brihaspathee.sapphire.web.response.SapphireAPIResponse;
+import com.brihaspathee.sapphire.accesslog.GatewayTimings;
+import com.brihaspathee.sapphire.auth.AuthServiceUnavailableException;
+import com.brihaspathee.sapphire.auth.AuthorizationDecision;
+import com.brihaspathee.sapphire.auth.AuthorizationService;
+import com.brihaspathee.sapphire.auth.JwtVerifier;
+import com.brihaspathee.sapphire.route.RouteTemplateRegistry;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.List;
 
 /**
  * Created in Intellij IDEA
@@ -40,12 +39,27 @@ import java.util.concurrent.atomic.AtomicReference;
 public class AuthenticationFilter extends AbstractGatewayFilterFactory<AuthenticationFilter.Config> {
 
     /**
-     * An instance of {@code WebClient} used for making HTTP requests.
-     * This field is immutable and is initialized through dependency injection.
-     * It is utilized within the {@code AuthenticationFilter} class for processing
-     * and handling web requests or responses in the global filter pipeline.
+     * The exchange attribute set to true once the request is authenticated and allowed,
+     * so the filters further down the chain can tell authenticated traffic apart.
      */
-    private final WebClient webClient;
+    public static final String AUTHENTICATED_ATTR = AuthenticationFilter.class.getName() + ".authenticated";
+
+    /**
+     * The service that decides whether a token is allowed to access a resource.
+     * It serves cached decisions and otherwise calls the authentication service.
+     */
+    private final AuthorizationService authorizationService;
+
+    /**
+     * Verifies tokens locally when local JWT verification is enabled.
+     */
+    private final JwtVerifier jwtVerifier;
+
+    /**
+     * The compiled path templates of the routes, used to map the request path
+     * back to the template of the route that matched it.
+     */
+    private final RouteTemplateRegistry routeTemplateRegistry;
 
     /**
      * Represents the name of the HTTP header used to identify the user ID
@@ -87,16 +101,26 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
     private String accountTypeHeader;
 
     /**
-     * Constructs an instance of the AuthenticationFilter and configures the WebClient.
+     * Constructs an instance of the AuthenticationFilter.
      */
-    public AuthenticationFilter(WebClient.Builder webClientBuilder,
-                                AuthServiceConfig authServiceConfig) {
+    public AuthenticationFilter(AuthorizationService authorizationService,
+                                JwtVerifier jwtVerifier,
+                                RouteTemplateRegistry routeTemplateRegistry) {
         super(Config.class);
-        log.info("Auth Service Host: {}", authServiceConfig.getHost());
-        log.info("Auth Service Port: {}", authServiceConfig.getPort());
-        String authServiceUrl = "http://" + authServiceConfig.getHost() + ":" + authServiceConfig.getPort();
-        log.info("Auth Service URL: {}", authServiceUrl);
-        this.webClient = webClientBuilder.baseUrl(authServiceUrl + "/api/v1/sapphire/auth").build();
+        this.authorizationService = authorizationService;
+        this.jwtVerifier = jwtVerifier;
+        this.routeTemplateRegistry = routeTemplateRegistry;
+    }
+
+    /**
+     * Allows the filter to be configured in the shortcut form,
+     * for e.g. `AuthenticationFilter=true` to require resource level authorization.
+     *
+     * @return the order of the configuration fields in the shortcut form
+     */
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("resourceAuthorization");
     }
 
     /**
@@ -110,8 +134,7 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
      */
     @Override
     public GatewayFilter apply(Config config) {
-        log.info("AuthenticationFilter Configured");
-        return (this::authenticate);
+        return (exchange, chain) -> authenticate(exchange, chain, config);
     }
 
     /**
@@ -124,91 +147,117 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
      *                 and response. It provides access to the HTTP request details.
      * @param chain    the gateway filter chain, which is used to continue processing
      *                 the request if authentication is successful.
+     * @param config   the configuration of the filter for the route
      * @return a {@code Mono<Void>} that completes when the authentication process is finalized.
      *         If authentication fails, it sends an appropriate error response to the client.
      */
-    private Mono<Void> authenticate(ServerWebExchange exchange, GatewayFilterChain chain) {
-        log.info("Authenticating request...");
-        Map<String, String> pathVariables = exchange.getAttribute(
-                ServerWebExchangeUtils.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
-
+    private Mono<Void> authenticate(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
         ServerHttpRequest request = exchange.getRequest();
-        /*
-            This will give the full url that the user tried to access
-            i.e. http://localhost:7092/api/v1/sapphire/member
-         */
-        String fullURL = request.getURI().toString();
         /*
             if the user accessed the URL - http://localhost:7092/api/v1/sapphire/member
             path will be - /api/v1/sapphire/member
          */
         String path = request.getURI().getPath();
-        /*
-            This gives any query parameters
-            if the user accessed the URL - http://localhost:7092/api/v1/sapphire/member?id=123&type=premium&status=active
-            query will be - id=123&type=premium&status=active
-         */
-        String query = request.getURI().getQuery();
-        log.info("Path Variables: {}", pathVariables);
-        AtomicReference<String> reconstructedPath = new AtomicReference<>();
-        assert pathVariables != null;
-        pathVariables.forEach((key, value) -> {
-            log.info("Path Variable: {} -> {}", key, value);
-            reconstructedPath.set(path.replace(value, "{" + key + "}"));
-        });
-        String validationPath = reconstructedPath.get();
-        log.info("Validation Path: {}", validationPath);
         String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            log.info("No Authorization header found");
+            if (log.isDebugEnabled()) {
+                log.debug("No bearer token found for {}", path);
+            }
             return unauthorizedResponse(exchange);
         }
         String token = authHeader.substring(7);
-        log.info("Token: {}", token);
-        log.info("Full URL: {}", fullURL);
-        log.info("Path: {}", path);
-        log.info("About to send to auth service...");
-        AuthorizationRequest authorizationRequest = AuthorizationRequest.builder()
-                .resourceUri(validationPath)
-                .build();
-        if(validationPath != null){
-            authorizationRequest.setResourceUri(validationPath);
-        }else{
-            authorizationRequest.setResourceUri(path);
+        if (jwtVerifier.isEnabled()) {
+            /*
+                The token is verified locally, the auth service is only called when the
+                route requires the user to be authorized for the specific resource
+             */
+            AuthorizationDecision localDecision = jwtVerifier.verify(token);
+            if (!localDecision.isAllowed() || !config.isResourceAuthorization()) {
+                return applyDecision(exchange, chain, localDecision);
+            }
+        }
+        String resourceUri = validationPath(exchange, path);
+        if (log.isDebugEnabled()) {
+            log.debug("Validating {} against resource {}", path, resourceUri);
         }
-        return webClient.post()
-                .uri("/resource/validate")
-                .contentType(MediaType.APPLICATION_JSON)
-                .header("Authorization", "Bearer " + token)
-                .body(BodyInserters.fromValue(authorizationRequest))
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<SapphireAPIResponse<UserDto>>() {
+        GatewayTimings.authStarted(exchange);
+        /*
+            Only failures of the authorization are mapped to a response here, errors raised
+            further down the chain are not mistaken for an invalid token
+         */
+        return authorizationService.authorize(token, resourceUri)
+                .doOnTerminate(() -> GatewayTimings.authFinished(exchange))
+                .onErrorResume(AuthServiceUnavailableException.class, e -> {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Service unavailable response for {}: {}", path, e.getMessage());
+                    }
+                    return Mono.just(AuthorizationDecision.unavailable());
                 })
-                .flatMap(response -> {
-                    UserDto userDto = response.getResponse();
-                    if (userDto != null) {
-                        /*
-                            - **Enrichment**: Injects additional information (e.g., `userId`, `username`, etc.) into
-                            the request headers based on some external data source (e.g., `userDto` object).
-                            - **Immutability Handling**: Both `ServerHttpRequest` and `ServerWebExchange` are
-                            immutable, so the `mutate()` methods are used to create modified versions.
-                            - **Reactive Processing**: Ensures the modifications stay compatible with the non-blocking,
-                            reactive nature of the web framework.
-                         */
-                        ServerHttpRequest updatedRequest = exchange.getRequest().mutate()
-                                .header(userIdHeader, String.valueOf(userDto.getUserId()))
-                                .header(usernameHeader, userDto.getUsername())
-                                .header(serviceIdHeader, userDto.getServiceId())
-                                .header(accountTypeHeader, userDto.getAccountType())
-                                .build();
-                        return chain.filter(exchange.mutate().request(updatedRequest).build());
-                    } else {
-                        return forbiddenResponse(exchange);
+                .onErrorResume(e -> {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Unauthorized response for {}: {}", path, e.getMessage());
                     }
-                }).onErrorResume(e -> {
-                    log.info("Unauthorized response: {}", e.getMessage());
-                    return unauthorizedResponse(exchange);
-                });
+                    return Mono.just(AuthorizationDecision.unauthorized());
+                })
+                .flatMap(decision -> applyDecision(exchange, chain, decision));
+    }
+
+    /**
+     * Maps the request path back to the path template of the route predicate that
+     * matched the request, for e.g. `/organization/123/locations` becomes
+     * `/organization/{organizationId}/locations`. The template is taken from the
+     * {@link ServerWebExchangeUtils#GATEWAY_PREDICATE_MATCHED_PATH_ATTR} attribute set
+     * by the Path predicate; requests matched without a Path predicate are validated
+     * against the request path.
+     *
+     * @param exchange the current server web exchange
+     * @param path     the request path
+     * @return the path the request is validated against
+     */
+    private String validationPath(ServerWebExchange exchange, String path) {
+        String template = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_PREDICATE_MATCHED_PATH_ATTR);
+        if (template == null) {
+            return path;
+        }
+        return routeTemplateRegistry.matcherFor(template).toTemplatePath(path);
+    }
+
+    /**
+     * Continues the filter chain with the user headers populated when the decision allows
+     * the request, otherwise completes the response with the status of the decision.
+     *
+     * @param exchange the current server web exchange
+     * @param chain    the gateway filter chain
+     * @param decision the authorization decision for the request
+     * @return a {@code Mono<Void>} that completes when the request is processed
+     */
+    private Mono<Void> applyDecision(ServerWebExchange exchange,
+                                     GatewayFilterChain chain,
+                                     AuthorizationDecision decision) {
+        if (decision.isAllowed()) {
+            /*
+                - **Enrichment**: Injects additional information (e.g., `userId`, `username`, etc.) into
+                the request headers based on some external data source (e.g., `userDto` object).
+                - **Immutability Handling**: Both `ServerHttpRequest` and `ServerWebExchange` are
+                immutable, so the `mutate()` methods are used to create modified versions.
+                - **Reactive Processing**: Ensures the modifications stay compatible with the non-blocking,
+                reactive nature of the web framework.
+             */
+            ServerHttpRequest updatedRequest = exchange.getRequest().mutate()
+                    .header(userIdHeader, decision.getUserId())
+                    .header(usernameHeader, decision.getUsername())
+                    .header(serviceIdHeader, decision.getServiceId())
+                    .header(accountTypeHeader, decision.getAccountType())
+                    .build();
+            exchange.getAttributes().put(AUTHENTICATED_ATTR, Boolean.TRUE);
+            return chain.filter(exchange.mutate().request(updatedRequest).build());
+        } else if (decision.getOutcome() == AuthorizationDecision.Outcome.FORBIDDEN) {
+            return forbiddenResponse(exchange);
+        } else if (decision.getOutcome() == AuthorizationDecision.Outcome.UNAVAILABLE) {
+            return serviceUnavailableResponse(exchange);
+        } else {
+            return unauthorizedResponse(exchange);
+        }
     }
 
     /**
@@ -225,6 +274,20 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
         return exchange.getResponse().setComplete();
     }
 
+    /**
+     * Sends a response with the HTTP status code 503 Service Unavailable to the client.
+     * This method is used when the authentication service could not decide on the token,
+     * so the client can retry instead of treating the token as invalid.
+     *
+     * @param exchange the current server web exchange, which represents the web request
+     *                 and response. It is used to set the response status and complete the response.
+     * @return a {@code Mono<Void>} that completes when the response is finalized.
+     */
+    private Mono<Void> serviceUnavailableResponse(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        return exchange.getResponse().setComplete();
+    }
+
     /**
      * Sends a response with the HTTP status code 403 Forbidden to the client.
      * This method is used to indicate that the client does not have permission
@@ -241,9 +304,18 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
 
 
 
+    @Getter
+    @Setter
     public static class Config {
+
+        /**
+         * Indicates whether the route requires the user to be authorized for the
+         * requested resource by the authentication service. This only matters when
+         * tokens are verified locally; otherwise every request is validated remotely.
+         */
+        private boolean resourceAuthorization = false;
+
         public Config() {}
-        // You can add custom config fields here if needed
     }
 
 
@@ -0,0 +1,362 @@
+package com.brihaspathee.sapphire.filter;
+
+import com.brihaspathee.sapphire.compression.CompressorPool;
+import com.brihaspathee.sapphire.config.CompressionConfig;
+import com.brihaspathee.sapphire.streaming.StreamingBodyFilter;
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/22/26
+ * Time: 9:30 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.filter
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Compresses the responses of a route with gzip for the clients that accept it. The
+ * filter is set per route in the filters column of the routes table, for e.g.
+ * `["AuthenticationFilter", "CompressionFilter=2KB"]` with the smallest response that is
+ * compressed, or in the object form with the content types as well, for e.g.
+ * `{"name": "CompressionFilter", "args": {"minSize": "2KB", "contentTypes": ["application/json", "text/*"]}}`.
+ * The route falls back to the defaults of application.compression for what it leaves out.
+ * Responses that are already encoded, partial, marked no-transform or of a streaming
+ * route are passed through. The body is compressed buffer by buffer as it is written,
+ * with a compressor taken from the CompressorPool, so it is never held whole. The
+ * compressor goes back to the pool however the body ends, cancelled by the client included.
+ */
+@Component
+public class CompressionFilter extends AbstractGatewayFilterFactory<CompressionFilter.Config> {
+
+    /**
+     * The name of the gzip content coding.
+     */
+    private static final String GZIP = "gzip";
+
+    /**
+     * The compressors of the responses.
+     */
+    private final CompressorPool compressorPool;
+
+    /**
+     * The compression configuration.
+     */
+    private final CompressionConfig compressionConfig;
+
+    /**
+     * Constructs an instance of the CompressionFilter.
+     */
+    public CompressionFilter(CompressorPool compressorPool, CompressionConfig compressionConfig) {
+        super(Config.class);
+        this.compressorPool = compressorPool;
+        this.compressionConfig = compressionConfig;
+    }
+
+    /**
+     * Allows the filter to be configured in the shortcut form, for e.g. `CompressionFilter=2KB`.
+     *
+     * @return the order of the configuration fields in the shortcut form
+     */
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("minSize", "contentTypes");
+    }
+
+    /**
+     * Creates the filter for a route. The filter has to decorate the response before the
+     * NettyWriteResponseFilter writes it, so it runs right before it whatever its position
+     * in the filters column. It also runs before the ResponseCaptureFilter, so that the
+     * response cache captures and replays the uncompressed body, which the compression of
+     * a cache hit then applies to as to any other response.
+     *
+     * @param config the compression configuration of the route
+     * @return the filter
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        long minSize = (config.getMinSize() != null ? config.getMinSize() : compressionConfig.getDefaultMinSize()).toBytes();
+        List<MediaType> contentTypes = MediaType.parseMediaTypes(
+                config.getContentTypes() != null && !config.getContentTypes().isEmpty()
+                        ? config.getContentTypes() : compressionConfig.getDefaultContentTypes());
+        return new OrderedGatewayFilter((exchange, chain) -> compress(exchange, chain, minSize, contentTypes),
+                NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2);
+    }
+
+    /**
+     * Decorates the response with the compression when the client accepts gzip.
+     */
+    private Mono<Void> compress(ServerWebExchange exchange,
+                                GatewayFilterChain chain,
+                                long minSize,
+                                List<MediaType> contentTypes) {
+        if (!compressionConfig.isEnabled() ||
+                exchange.getRequest().getMethod() == HttpMethod.HEAD ||
+                !acceptsGzip(exchange.getRequest().getHeaders().getValuesAsList(HttpHeaders.ACCEPT_ENCODING)) ||
+                StreamingBodyFilter.isStreaming(exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR))) {
+            return chain.filter(exchange);
+        }
+        ServerHttpResponse decorated = new CompressingResponse(exchange.getResponse(), minSize, contentTypes);
+        return chain.filter(exchange.mutate().response(decorated).build());
+    }
+
+    /**
+     * Checks whether the Accept-Encoding header values accept gzip, by name or by a
+     * wildcard, with a quality above zero.
+     */
+    private static boolean acceptsGzip(List<String> acceptEncoding) {
+        for (String coding : acceptEncoding) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase(GZIP) && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(parameter.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decorates the response of a request accepting gzip, compressing the body as it is
+     * written when the response qualifies.
+     */
+    private final class CompressingResponse extends ServerHttpResponseDecorator {
+
+        /**
+         * The smallest response compressed.
+         */
+        private final long minSize;
+
+        /**
+         * The content types compressed.
+         */
+        private final List<MediaType> contentTypes;
+
+        CompressingResponse(ServerHttpResponse delegate, long minSize, List<MediaType> contentTypes) {
+            super(delegate);
+            this.minSize = minSize;
+            this.contentTypes = contentTypes;
+        }
+
+        /**
+         * Writes the body, compressed when the response qualifies. The compressor goes back
+         * to the pool once the body is written, failed or cancelled; the buffers arriving
+         * after a cancel are released without being compressed.
+         */
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!qualifies()) {
+                return super.writeWith(body);
+            }
+            HttpHeaders headers = getHeaders();
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+            if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+                headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith("W/")) {
+                // the compressed body is not byte for byte the entity the tag was made for
+                headers.setETag("W/" + etag);
+            }
+            CompressorLease lease = new CompressorLease(compressorPool.take());
+            CompressorPool.Compressor compressor = lease.compressor;
+            DataBufferFactory bufferFactory = bufferFactory();
+            Flux<DataBuffer> compressed = Flux.<DataBuffer>from(body)
+                    .<DataBuffer>handle((buffer, sink) -> {
+                        if (!lease.acquire()) {
+                            DataBufferUtils.release(buffer);
+                            return;
+                        }
+                        DataBuffer output = bufferFactory.allocateBuffer(Math.max(64, buffer.readableByteCount() / 2));
+                        try (DataBuffer.ByteBufferIterator input = buffer.readableByteBuffers()) {
+                            while (input.hasNext()) {
+                                ByteBuffer byteBuffer = input.next();
+                                compressor.compress(byteBuffer, (bytes, length) -> output.write(bytes, 0, length));
+                            }
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                            lease.unlock();
+                        }
+                        if (output.readableByteCount() == 0) {
+                            DataBufferUtils.release(output);
+                            return;
+                        }
+                        sink.next(output);
+                    })
+                    .concatWith(Mono.fromSupplier(() -> {
+                        if (!lease.acquire()) {
+                            return null;
+                        }
+                        DataBuffer output = bufferFactory.allocateBuffer(64);
+                        try {
+                            compressor.finish((bytes, length) -> output.write(bytes, 0, length));
+                        } finally {
+                            lease.unlock();
+                        }
+                        return output;
+                    }))
+                    .doFinally(signal -> lease.close())
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+            return super.writeWith(compressed);
+        }
+
+        /**
+         * Checks whether the response is to be compressed, going by its status and headers.
+         */
+        private boolean qualifies() {
+            HttpStatusCode status = getStatusCode();
+            if (status != null && (!status.is2xxSuccessful() || status.value() == 204 || status.value() == 206)) {
+                return false;
+            }
+            HttpHeaders headers = getHeaders();
+            String contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+            if (contentEncoding != null && !contentEncoding.equalsIgnoreCase("identity")) {
+                return false;
+            }
+            for (String cacheControl : headers.getValuesAsList(HttpHeaders.CACHE_CONTROL)) {
+                if (cacheControl.trim().equalsIgnoreCase("no-transform")) {
+                    return false;
+                }
+            }
+            long contentLength = headers.getContentLength();
+            if (contentLength >= 0 && contentLength < minSize) {
+                return false;
+            }
+            MediaType contentType = headers.getContentType();
+            if (contentType == null) {
+                return false;
+            }
+            for (MediaType compressed : contentTypes) {
+                if (compressed.includes(contentType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The compressor of one response, returned to the pool once the body is done. The body
+     * may be cancelled from another thread while a buffer is being compressed; the
+     * compressor then goes back when that buffer is done with it, never while it is in use.
+     */
+    private final class CompressorLease {
+
+        /**
+         * The compressor is not in use and the body is not done.
+         */
+        private static final int IDLE = 0;
+
+        /**
+         * A buffer is being compressed.
+         */
+        private static final int IN_USE = 1;
+
+        /**
+         * The body is done, the compressor is back in the pool or about to be.
+         */
+        private static final int CLOSED = 2;
+
+        /**
+         * The compressor of the response.
+         */
+        private final CompressorPool.Compressor compressor;
+
+        /**
+         * One of IDLE, IN_USE or CLOSED.
+         */
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+
+        CompressorLease(CompressorPool.Compressor compressor) {
+            this.compressor = compressor;
+        }
+
+        /**
+         * Takes the compressor to compress a buffer.
+         *
+         * @return false if the body is done and the buffer must not be compressed
+         */
+        boolean acquire() {
+            return state.compareAndSet(IDLE, IN_USE);
+        }
+
+        /**
+         * Hands the compressor back after a buffer, returning it to the pool if the body
+         * was done in the meantime.
+         */
+        void unlock() {
+            if (!state.compareAndSet(IN_USE, IDLE)) {
+                compressorPool.release(compressor);
+            }
+        }
+
+        /**
+         * Marks the body done, returning the compressor to the pool unless a buffer is
+         * being compressed, in which case unlock returns it.
+         */
+        void close() {
+            if (state.getAndSet(CLOSED) == IDLE) {
+                compressorPool.release(compressor);
+            }
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+
+        /**
+         * The smallest response compressed. Responses of unknown length are compressed.
+         * Defaults to the default min size of application.compression.
+         */
+        private DataSize minSize;
+
+        /**
+         * The content types compressed, for e.g. application/json or text/*. Defaults to
+         * the default content types of application.compression.
+         */
+        private List<String> contentTypes = new ArrayList<>();
+
+        public Config() {}
+    }
+}
@@ -0,0 +1,217 @@
+package com.brihaspathee.sapphire.filter;
+
+import com.brihaspathee.sapphire.ratelimit.RateLimit;
+import com.brihaspathee.sapphire.ratelimit.RateLimitEngine;
+import com.brihaspathee.sapphire.ratelimit.RateLimitResult;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 5:30 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.filter
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Limits the rate of requests to a route with token buckets keyed by the route and,
+ * optionally, the user or service the AuthenticationFilter identified. The limits are
+ * set per route in the filters column of the routes table, for e.g.
+ * `["AuthenticationFilter", "RateLimitFilter=50,100,USER"]`. To key by user the filter
+ * has to come after the AuthenticationFilter, which adds the user headers; on routes
+ * without it the requests are keyed by their remote address.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    /**
+     * The engine that keeps the token buckets.
+     */
+    private final RateLimitEngine rateLimitEngine;
+
+    /**
+     * The name of the header holding the id of the user, added by the AuthenticationFilter.
+     */
+    @Value("${application.user-info.user-id}")
+    private String userIdHeader;
+
+    /**
+     * The name of the header holding the id of the calling service, added by the AuthenticationFilter.
+     */
+    @Value("${application.user-info.service-id}")
+    private String serviceIdHeader;
+
+    /**
+     * Constructs an instance of the RateLimitFilter.
+     */
+    public RateLimitFilter(RateLimitEngine rateLimitEngine) {
+        super(Config.class);
+        this.rateLimitEngine = rateLimitEngine;
+    }
+
+    /**
+     * Allows the filter to be configured in the shortcut form,
+     * for e.g. `RateLimitFilter=50,100,USER`.
+     *
+     * @return the order of the configuration fields in the shortcut form
+     */
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("replenishRate", "burstCapacity", "keyBy");
+    }
+
+    /**
+     * Creates the filter for a route. The limit is built here, once per route, and
+     * invalid limits fail the route when it is loaded.
+     *
+     * @param config the rate limit configuration of the route
+     * @return the filter
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        RateLimit limit = new RateLimit(config.getReplenishRate(), config.getBurstCapacity());
+        KeyBy keyBy = config.getKeyBy();
+        return (exchange, chain) -> limit(exchange, chain, limit, keyBy);
+    }
+
+    /**
+     * Takes a token for the request and either continues the chain or rejects the
+     * request with 429 Too Many Requests and a Retry-After header.
+     */
+    private Mono<Void> limit(ServerWebExchange exchange, GatewayFilterChain chain, RateLimit limit, KeyBy keyBy) {
+        String key = key(exchange, keyBy);
+        return rateLimitEngine.tryAcquire(key, limit)
+                .onErrorResume(e -> {
+                    // a failing distributed engine must not take the gateway down with it
+                    log.warn("Rate limit check failed for {}, allowing the request: {}", key, e.getMessage());
+                    return Mono.just(RateLimitResult.allowed(-1));
+                })
+                .flatMap(result -> {
+                    if (result.isAllowed()) {
+                        return chain.filter(exchange);
+                    }
+                    if (log.isDebugEnabled()) {
+                        log.debug("Rate limit exceeded for {}", key);
+                    }
+                    return tooManyRequestsResponse(exchange, result);
+                });
+    }
+
+    /**
+     * Builds the key of the bucket for the request. The user headers are only trusted
+     * once the AuthenticationFilter has set them; until then they come from the client,
+     * which could pick a new bucket for every request, so unauthenticated requests are
+     * keyed by their remote address instead. Authenticated requests without the header
+     * the route is keyed by share the bucket of the route.
+     */
+    private String key(ServerWebExchange exchange, KeyBy keyBy) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "";
+        if (keyBy == KeyBy.ROUTE) {
+            return routeId;
+        }
+        if (!Boolean.TRUE.equals(exchange.getAttribute(AuthenticationFilter.AUTHENTICATED_ATTR))) {
+            InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+            if (remoteAddress == null) {
+                return routeId;
+            }
+            String host = remoteAddress.getAddress() != null
+                    ? remoteAddress.getAddress().getHostAddress() : remoteAddress.getHostString();
+            return routeId + "|ip:" + host;
+        }
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        String principal = switch (keyBy) {
+            case ROUTE -> null;
+            case USER -> headers.getFirst(userIdHeader);
+            case SERVICE -> headers.getFirst(serviceIdHeader);
+            case PRINCIPAL -> {
+                String userId = headers.getFirst(userIdHeader);
+                yield userId != null ? userId : headers.getFirst(serviceIdHeader);
+            }
+        };
+        return principal == null ? routeId : routeId + '|' + principal;
+    }
+
+    /**
+     * Sends a response with the HTTP status code 429 Too Many Requests and the number of
+     * seconds the client should wait before retrying.
+     *
+     * @param exchange the current server web exchange
+     * @param result the result of the rate limit check
+     * @return a {@code Mono<Void>} that completes when the response is finalized.
+     */
+    private Mono<Void> tooManyRequestsResponse(ServerWebExchange exchange, RateLimitResult result) {
+        long retryAfterSeconds = Math.max(1, (result.getRetryAfter().toMillis() + 999) / 1000);
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return exchange.getResponse().setComplete();
+    }
+
+    /**
+     * What the buckets of a route are keyed by, in addition to the route id.
+     */
+    public enum KeyBy {
+
+        /**
+         * One bucket for the whole route.
+         */
+        ROUTE,
+
+        /**
+         * One bucket per user, from the X-USER-ID header, or per remote address for
+         * requests that are not authenticated.
+         */
+        USER,
+
+        /**
+         * One bucket per calling service, from the X-SERVICE-ID header, or per remote
+         * address for requests that are not authenticated.
+         */
+        SERVICE,
+
+        /**
+         * One bucket per user, or per calling service for requests made by a service, or
+         * per remote address for requests that are not authenticated.
+         */
+        PRINCIPAL
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+
+        /**
+         * The number of requests per second allowed on average.
+         */
+        private long replenishRate = 10;
+
+        /**
+         * The number of requests allowed in a single burst.
+         */
+        private long burstCapacity = 20;
+
+        /**
+         * What the buckets are keyed by in addition to the route id.
+         */
+        private KeyBy keyBy = KeyBy.ROUTE;
+
+        public Config() {}
+    }
+}
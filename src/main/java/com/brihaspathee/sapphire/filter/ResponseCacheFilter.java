@@ -0,0 +1,358 @@
+package com.brihaspathee.sapphire.filter;
+
+import com.brihaspathee.sapphire.config.ResponseCacheConfig;
+import com.brihaspathee.sapphire.responsecache.CacheControlDirectives;
+import com.brihaspathee.sapphire.responsecache.CacheableRequest;
+import com.brihaspathee.sapphire.responsecache.CachedResponse;
+import com.brihaspathee.sapphire.responsecache.ResponseCacheStore;
+import com.brihaspathee.sapphire.streaming.StreamingBodyFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 9:15 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.filter
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Caches the responses of idempotent GET routes in the gateway so repeated reads are
+ * served without calling the upstream service. The filter is set per route in the filters
+ * column of the routes table, for e.g. `["AuthenticationFilter", "ResponseCacheFilter=30s,X-USER-ID"]`,
+ * with the ttl of the route followed by the request header the cached responses vary by.
+ * Routes that vary by several headers use the object form, for e.g.
+ * `{"name": "ResponseCacheFilter", "args": {"ttl": "30s", "varyHeaders": ["X-USER-ID", "X-ACCOUNT-TYPE"]}}`.
+ * The filter has to come after the AuthenticationFilter so that only authorized requests
+ * are served from the cache. The responses of authenticated requests are always cached
+ * per user and calling service; responses that depend on other headers must vary by them.
+ * A miss leaves a CacheableRequest in the exchange attributes, from which the
+ * ResponseCaptureFilter caches the response as it is written.
+ * Only 200 responses without a Set-Cookie header are cached. The Cache-Control and ETag
+ * headers of the upstream service are honored: no-store and private responses are not
+ * cached, s-maxage and max-age override the ttl of the route, and conditional requests
+ * matching the ETag of a cached response are answered with 304 Not Modified.
+ * Streaming routes are never cached.
+ */
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    /**
+     * The name of the exchange attribute holding the CacheableRequest of a request that
+     * missed the cache.
+     */
+    public static final String CACHEABLE_REQUEST_ATTR = ResponseCacheFilter.class.getName() + ".cacheableRequest";
+
+    /**
+     * The header telling the client whether the response was served from the cache.
+     */
+    static final String X_CACHE = "X-Cache";
+
+    /**
+     * The cached responses of all the routes.
+     */
+    private final ResponseCacheStore responseCacheStore;
+
+    /**
+     * The response cache configuration.
+     */
+    private final ResponseCacheConfig responseCacheConfig;
+
+    /**
+     * The registry the per route cache meters are registered with.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The name of the header holding the id of the user, added by the AuthenticationFilter.
+     */
+    @Value("${application.user-info.user-id}")
+    private String userIdHeader;
+
+    /**
+     * The name of the header holding the id of the calling service, added by the AuthenticationFilter.
+     */
+    @Value("${application.user-info.service-id}")
+    private String serviceIdHeader;
+
+    /**
+     * Constructs an instance of the ResponseCacheFilter.
+     */
+    public ResponseCacheFilter(ResponseCacheStore responseCacheStore, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.responseCacheStore = responseCacheStore;
+        this.responseCacheConfig = responseCacheStore.getResponseCacheConfig();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Allows the filter to be configured in the shortcut form,
+     * for e.g. `ResponseCacheFilter=30s,X-USER-ID`.
+     *
+     * @return the order of the configuration fields in the shortcut form
+     */
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl", "varyHeaders");
+    }
+
+    /**
+     * Creates the filter for a route. The meters of the route are registered here, once
+     * per route, so the request path only increments them.
+     *
+     * @param config the response cache configuration of the route
+     * @return the filter
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        RouteMeters meters = new RouteMeters(meterRegistry, config.getRouteId() != null ? config.getRouteId() : "");
+        List<String> varyHeaders = config.getVaryHeaders() != null ? List.copyOf(config.getVaryHeaders()) : List.of();
+        Duration ttl = config.getTtl() != null ? config.getTtl() : responseCacheConfig.getDefaultTtl();
+        String routeId = config.getRouteId();
+        return (exchange, chain) -> cache(exchange, chain, routeId, ttl, varyHeaders, meters);
+    }
+
+    /**
+     * Serves the request from the cache when a fresh response is cached for it, or else
+     * continues the chain, leaving the request for the ResponseCaptureFilter to cache the
+     * response of the upstream service.
+     */
+    private Mono<Void> cache(ServerWebExchange exchange,
+                             GatewayFilterChain chain,
+                             String routeId,
+                             Duration ttl,
+                             List<String> varyHeaders,
+                             RouteMeters meters) {
+        ServerHttpRequest request = exchange.getRequest();
+        // the bodies of a streaming route are never aggregated
+        if (!responseCacheConfig.isEnabled() || request.getMethod() != HttpMethod.GET ||
+                StreamingBodyFilter.isStreaming(exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR))) {
+            return chain.filter(exchange);
+        }
+        List<String> requestCacheControl = request.getHeaders().getValuesAsList(HttpHeaders.CACHE_CONTROL);
+        if (CacheControlDirectives.hasDirective(requestCacheControl, "no-store")) {
+            meters.bypass.increment();
+            return chain.filter(exchange);
+        }
+        String key = key(exchange, routeId, varyHeaders);
+        // no-cache asks for a response validated by the upstream service, which refreshes the entry
+        if (!CacheControlDirectives.hasDirective(requestCacheControl, "no-cache")) {
+            CachedResponse cached = responseCacheStore.get(key);
+            if (cached != null) {
+                Mono<Void> served = serve(exchange, cached, meters);
+                if (served != null) {
+                    return served;
+                }
+            }
+        }
+        meters.miss.increment();
+        exchange.getAttributes().put(CACHEABLE_REQUEST_ATTR,
+                new CacheableRequest(key, ttl, varyHeaders, System.nanoTime()));
+        return chain.filter(exchange);
+    }
+
+    /**
+     * Writes the cached response, or 304 Not Modified if the client already holds it.
+     *
+     * @return the completion of the response, or null if the entry was evicted meanwhile
+     */
+    private Mono<Void> serve(ServerWebExchange exchange, CachedResponse cached, RouteMeters meters) {
+        ServerHttpResponse response = exchange.getResponse();
+        long ageSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - cached.getStoredAt());
+        if (cached.getEtag() != null && matches(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.getEtag())) {
+            meters.notModified.increment();
+            meters.savedLatency.record(cached.getUpstreamLatencyNanos(), TimeUnit.NANOSECONDS);
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().setETag(cached.getEtag());
+            response.getHeaders().set(HttpHeaders.AGE, Long.toString(ageSeconds));
+            response.getHeaders().set(X_CACHE, "HIT");
+            return response.setComplete();
+        }
+        ByteBuf body = cached.retainedBody();
+        if (body == null) {
+            return null;
+        }
+        meters.hit.increment();
+        meters.savedLatency.record(cached.getUpstreamLatencyNanos(), TimeUnit.NANOSECONDS);
+        response.setStatusCode(HttpStatusCode.valueOf(cached.getStatus()));
+        response.getHeaders().putAll(cached.getHeaders());
+        response.getHeaders().setContentLength(body.readableBytes());
+        response.getHeaders().set(HttpHeaders.AGE, Long.toString(ageSeconds));
+        response.getHeaders().set(X_CACHE, "HIT");
+        return response.writeWith(Mono.just(wrap(response, body)));
+    }
+
+    /**
+     * Wraps the body without copying it when the server runs on Netty, which releases
+     * the duplicate once it is written.
+     */
+    private DataBuffer wrap(ServerHttpResponse response, ByteBuf body) {
+        if (response.bufferFactory() instanceof NettyDataBufferFactory nettyDataBufferFactory) {
+            return nettyDataBufferFactory.wrap(body);
+        }
+        try {
+            return response.bufferFactory().wrap(ByteBufUtil.getBytes(body));
+        } finally {
+            body.release();
+        }
+    }
+
+    /**
+     * Builds the key of the cached response from the route, the path and query of the
+     * request, the user and service of an authenticated request, and the values of the
+     * headers the route varies by. The user is part of the key whatever the route varies
+     * by, so a route that forgets to vary by it never serves a user the response of another.
+     */
+    private String key(ServerWebExchange exchange, String routeId, List<String> varyHeaders) {
+        ServerHttpRequest request = exchange.getRequest();
+        StringBuilder key = new StringBuilder(64)
+                .append(routeId).append('|')
+                .append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        if (Boolean.TRUE.equals(exchange.getAttribute(AuthenticationFilter.AUTHENTICATED_ATTR))) {
+            appendHeader(key, request, userIdHeader);
+            appendHeader(key, request, serviceIdHeader);
+        }
+        for (String header : varyHeaders) {
+            appendHeader(key, request, header);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Appends the values of a request header to the key.
+     */
+    private static void appendHeader(StringBuilder key, ServerHttpRequest request, String header) {
+        List<String> values = request.getHeaders().get(header);
+        key.append('|');
+        if (values != null) {
+            key.append(String.join(",", values));
+        }
+    }
+
+    /**
+     * Checks whether the If-None-Match header of the request matches the entity tag of the
+     * cached response, using the weak comparison required for conditional GET requests.
+     */
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        String opaqueTag = opaqueTag(etag);
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || opaqueTag.equals(opaqueTag(candidate))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Strips the weak indicator from an entity tag.
+     */
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * The cache meters of a route.
+     */
+    private static final class RouteMeters {
+
+        /**
+         * Requests served from the cache.
+         */
+        private final Counter hit;
+
+        /**
+         * Requests sent on to the upstream service.
+         */
+        private final Counter miss;
+
+        /**
+         * Conditional requests answered with 304 Not Modified.
+         */
+        private final Counter notModified;
+
+        /**
+         * Requests that asked not to use the cache.
+         */
+        private final Counter bypass;
+
+        /**
+         * The upstream latency saved by every request served from the cache.
+         */
+        private final Timer savedLatency;
+
+        RouteMeters(MeterRegistry meterRegistry, String routeId) {
+            this.hit = counter(meterRegistry, routeId, "hit");
+            this.miss = counter(meterRegistry, routeId, "miss");
+            this.notModified = counter(meterRegistry, routeId, "not_modified");
+            this.bypass = counter(meterRegistry, routeId, "bypass");
+            this.savedLatency = Timer.builder("gateway.response.cache.saved.latency")
+                    .description("Upstream latency saved by responses served from the cache")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String routeId, String result) {
+            return Counter.builder("gateway.response.cache.requests")
+                    .description("Requests to routes with a response cache, by result")
+                    .tag("route", routeId)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        /**
+         * How long responses are cached when the upstream service does not send a
+         * max-age. Defaults to the default ttl of the response cache.
+         */
+        private Duration ttl;
+
+        /**
+         * The request headers the cached responses vary by, for e.g. X-USER-ID for
+         * responses that depend on the user.
+         */
+        private List<String> varyHeaders = new ArrayList<>();
+
+        /**
+         * The id of the route, set by the gateway when the route is loaded.
+         */
+        private String routeId;
+
+        public Config() {}
+    }
+}
@@ -0,0 +1,212 @@
+package com.brihaspathee.sapphire.filter;
+
+import com.brihaspathee.sapphire.config.ResponseCacheConfig;
+import com.brihaspathee.sapphire.responsecache.CacheControlDirectives;
+import com.brihaspathee.sapphire.responsecache.CacheableRequest;
+import com.brihaspathee.sapphire.responsecache.CachedResponse;
+import com.brihaspathee.sapphire.responsecache.ResponseCacheStore;
+import com.brihaspathee.sapphire.responsecache.ResponseCapture;
+import io.netty.buffer.ByteBuf;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/23/26
+ * Time: 1:30 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.filter
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Caches the responses of the requests the ResponseCacheFilter missed the cache for.
+ * The NettyWriteResponseFilter writes the response of the exchange it was given, before
+ * any route filter ran, so a response decorated by the ResponseCacheFilter at its place
+ * in the route would never be written. This filter decorates the response right before
+ * the NettyWriteResponseFilter instead and, once the response is written, caches it if
+ * the ResponseCacheFilter left a CacheableRequest in the exchange attributes. The lookup
+ * stays with the ResponseCacheFilter, after the AuthenticationFilter of the route.
+ */
+@Slf4j
+@Component
+public class ResponseCaptureFilter implements GlobalFilter, Ordered {
+
+    /**
+     * The headers that describe the connection rather than the response and are not cached.
+     */
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(
+            HttpHeaders.CONNECTION,
+            HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.UPGRADE,
+            HttpHeaders.PROXY_AUTHENTICATE,
+            HttpHeaders.TRAILER,
+            "Keep-Alive");
+
+    /**
+     * The cached responses of all the routes.
+     */
+    private final ResponseCacheStore responseCacheStore;
+
+    /**
+     * The response cache configuration.
+     */
+    private final ResponseCacheConfig responseCacheConfig;
+
+    /**
+     * Constructs an instance of the ResponseCaptureFilter.
+     */
+    public ResponseCaptureFilter(ResponseCacheStore responseCacheStore) {
+        this.responseCacheStore = responseCacheStore;
+        this.responseCacheConfig = responseCacheStore.getResponseCacheConfig();
+    }
+
+    /**
+     * Decorates the response of the GET requests, the only ones the ResponseCacheFilter
+     * caches.
+     *
+     * @param exchange the current server web exchange
+     * @param chain the gateway filter chain
+     * @return a {@code Mono<Void>} that completes when the request is processed
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!responseCacheConfig.isEnabled() || exchange.getRequest().getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate().response(new CachingResponse(exchange)).build());
+    }
+
+    /**
+     * Runs right before the NettyWriteResponseFilter, so its decorator is the response
+     * that filter writes.
+     *
+     * @return the order of the filter
+     */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    /**
+     * Decorates the response, copying the body into the cache as it is written to the
+     * client when the request missed the cache and the response can be cached.
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        /**
+         * The exchange of the response, whose attributes tell whether the request missed the cache.
+         */
+        private final ServerWebExchange exchange;
+
+        CachingResponse(ServerWebExchange exchange) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+        }
+
+        /**
+         * Writes the body, capturing it on the way when the response can be cached.
+         * Streaming responses are written with writeAndFlushWith and are never cached.
+         */
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            CacheableRequest request = exchange.getAttribute(ResponseCacheFilter.CACHEABLE_REQUEST_ATTR);
+            if (request == null) {
+                return super.writeWith(body);
+            }
+            long upstreamLatency = System.nanoTime() - request.getStartedNanos();
+            Duration entryTtl = cacheableFor(request);
+            if (entryTtl == null) {
+                return super.writeWith(body);
+            }
+            getHeaders().set(ResponseCacheFilter.X_CACHE, "MISS");
+            HttpHeaders headers = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)
+                        && !ResponseCacheFilter.X_CACHE.equalsIgnoreCase(name)) {
+                    headers.put(name, new ArrayList<>(values));
+                }
+            });
+            String etag = getHeaders().getETag();
+            ResponseCapture capture = new ResponseCapture(
+                    (int) responseCacheConfig.getMaximumEntrySize().toBytes(),
+                    getHeaders().getContentLength());
+            Flux<? extends DataBuffer> captured = Flux.from(body)
+                    .doOnNext(capture::append)
+                    .doOnComplete(() -> store(request.getKey(), capture, headers, etag, entryTtl, upstreamLatency))
+                    .doOnError(e -> capture.discard())
+                    .doOnCancel(capture::discard);
+            return super.writeWith(captured);
+        }
+
+        /**
+         * Stores the captured body once the whole response was read from the upstream service.
+         */
+        private void store(String key, ResponseCapture capture, HttpHeaders headers, String etag,
+                           Duration entryTtl, long upstreamLatency) {
+            ByteBuf captured = capture.complete();
+            if (captured == null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Response for {} is larger than the maximum entry size, not cached", key);
+                }
+                return;
+            }
+            long now = System.nanoTime();
+            responseCacheStore.put(key, new CachedResponse(HttpStatus.OK.value(), headers, etag,
+                    now, now + entryTtl.toNanos(), upstreamLatency, captured));
+        }
+
+        /**
+         * Returns how long the response can be cached, or null if it cannot be cached.
+         */
+        private Duration cacheableFor(CacheableRequest request) {
+            HttpStatusCode status = getStatusCode();
+            HttpHeaders headers = getHeaders();
+            if (status != null && status.value() != HttpStatus.OK.value()) {
+                return null;
+            }
+            if (headers.containsKey(HttpHeaders.SET_COOKIE)) {
+                return null;
+            }
+            long contentLength = headers.getContentLength();
+            if (contentLength > responseCacheConfig.getMaximumEntrySize().toBytes()) {
+                return null;
+            }
+            for (String vary : headers.getVary()) {
+                if ("*".equals(vary) || request.getVaryHeaders().stream().noneMatch(vary::equalsIgnoreCase)) {
+                    return null;
+                }
+            }
+            List<String> cacheControl = headers.getValuesAsList(HttpHeaders.CACHE_CONTROL);
+            if (CacheControlDirectives.hasDirective(cacheControl, "no-store")
+                    || CacheControlDirectives.hasDirective(cacheControl, "private")
+                    || CacheControlDirectives.hasDirective(cacheControl, "no-cache")) {
+                return null;
+            }
+            Duration maxAge = CacheControlDirectives.maxAge(cacheControl, "s-maxage");
+            if (maxAge == null) {
+                maxAge = CacheControlDirectives.maxAge(cacheControl, "max-age");
+            }
+            Duration entryTtl = maxAge != null ? maxAge : request.getTtl();
+            return entryTtl.isZero() || entryTtl.isNegative() ? null : entryTtl;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.brihaspathee.sapphire.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/20/26
+ * Time: 2:10 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.loadbalancer
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The requests in flight and the observed latency of one instance of a downstream service,
+ * shared by all the routes and event loop threads calling it. The latency is a peak
+ * sensitive exponentially weighted moving average: a slower call raises it at once, faster
+ * calls bring it down gradually, and it fades while the instance has nothing in flight.
+ * An instance with requests in flight but no recent latency, because it was never called
+ * or its calls stopped completing, costs a penalty per request in flight instead. Everything
+ * is kept in atomics, no lock is ever taken; two concurrent updates may weigh their decay
+ * slightly off, which is fine for a load balancing heuristic.
+ */
+public final class InstanceStats {
+
+    /**
+     * The cost of each request in flight to an instance whose latency is unknown, higher
+     * than any latency an instance could be observed with.
+     */
+    static final double PENALTY_NANOS = Long.MAX_VALUE >> 16;
+
+    /**
+     * The number of decay times after which the average latency of an instance with
+     * requests in flight is stale; its weight has fallen below 1% by then.
+     */
+    private static final int STALE_DECAY_TIMES = 5;
+
+    /**
+     * The time it takes for the weight of an observation to fall to 1/e, in nanoseconds.
+     */
+    private final double decayNanos;
+
+    /**
+     * The number of requests sent to the instance that did not complete yet.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * The bits of the average latency in nanoseconds, as a double.
+     */
+    private final AtomicLong averageLatencyBits = new AtomicLong(Double.doubleToRawLongBits(0));
+
+    /**
+     * The time of the last observation, from System.nanoTime.
+     */
+    private final AtomicLong lastObservedAt = new AtomicLong(System.nanoTime());
+
+    /**
+     * Creates the statistics of an instance that was not called yet.
+     *
+     * @param decayNanos the decay time of the average latency in nanoseconds
+     */
+    public InstanceStats(long decayNanos) {
+        this.decayNanos = decayNanos;
+    }
+
+    /**
+     * Records that a request was sent to the instance.
+     */
+    public void start() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records that a request to the instance completed after the given latency.
+     *
+     * @param latencyNanos the latency of the request
+     * @param now the current time, from System.nanoTime
+     */
+    public void complete(long latencyNanos, long now) {
+        inFlight.decrementAndGet();
+        observe(latencyNanos, now);
+    }
+
+    /**
+     * Records that a request to the instance was cancelled before it completed, which
+     * says nothing about its latency.
+     */
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Returns the cost of sending one more request to the instance. An idle instance costs
+     * its average latency faded by the time since it was last observed, so an instance that
+     * was never called or not for a while is tried first. An instance with requests in
+     * flight costs its average latency, unfaded, times its requests in flight plus one; if
+     * the average is unknown or stale, because no request completed for a few decay times,
+     * the penalty takes its place, so that a stalled instance is avoided rather than tried.
+     *
+     * @param now the current time, from System.nanoTime
+     * @return the cost of the instance, lower is better
+     */
+    public double cost(long now) {
+        double averageLatency = Double.longBitsToDouble(averageLatencyBits.get());
+        long sinceObserved = Math.max(0, now - lastObservedAt.get());
+        int requests = inFlight.get();
+        if (requests <= 0) {
+            return averageLatency * Math.exp(-sinceObserved / decayNanos);
+        }
+        if (averageLatency == 0 || sinceObserved > STALE_DECAY_TIMES * decayNanos) {
+            return PENALTY_NANOS * (requests + 1);
+        }
+        return averageLatency * (requests + 1);
+    }
+
+    /**
+     * Returns the number of requests in flight.
+     *
+     * @return the requests in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the average latency in nanoseconds, without the fading since the last observation.
+     *
+     * @return the average latency
+     */
+    public double getAverageLatencyNanos() {
+        return Double.longBitsToDouble(averageLatencyBits.get());
+    }
+
+    /**
+     * Folds the given latency into the average.
+     */
+    private void observe(long latencyNanos, long now) {
+        long last = lastObservedAt.getAndSet(now);
+        double weight = Math.exp(-Math.max(0, now - last) / decayNanos);
+        long previousBits;
+        long nextBits;
+        do {
+            previousBits = averageLatencyBits.get();
+            double previous = Double.longBitsToDouble(previousBits);
+            double next = latencyNanos > previous ? latencyNanos : previous * weight + latencyNanos * (1 - weight);
+            nextBits = Double.doubleToRawLongBits(next);
+        } while (!averageLatencyBits.compareAndSet(previousBits, nextBits));
+    }
+}
@@ -0,0 +1,94 @@
+package com.brihaspathee.sapphire.loadbalancer;
+
+import com.brihaspathee.sapphire.config.LoadBalancerConfig;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/20/26
+ * Time: 2:50 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.loadbalancer
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Feeds the statistics of the instance the load balancer picked for a request: the request
+ * is in flight from here until the response headers arrive, and the time that took is
+ * folded into the average latency of the instance. Calls that fail or return a 5xx status
+ * are recorded with at least the failure penalty.
+ */
+@Component
+public class InstanceStatsFilter implements GlobalFilter, Ordered {
+
+    /**
+     * The statistics of the instances.
+     */
+    private final InstanceStatsRegistry instanceStatsRegistry;
+
+    /**
+     * The latency recorded at least for a failed call, in nanoseconds.
+     */
+    private final long failurePenaltyNanos;
+
+    /**
+     * Constructs an instance of the InstanceStatsFilter.
+     */
+    public InstanceStatsFilter(InstanceStatsRegistry instanceStatsRegistry, LoadBalancerConfig loadBalancerConfig) {
+        this.instanceStatsRegistry = instanceStatsRegistry;
+        this.failurePenaltyNanos = loadBalancerConfig.getFailurePenalty().toNanos();
+    }
+
+    /**
+     * Records the request against the instance it was sent to.
+     *
+     * @param exchange the current server web exchange
+     * @param chain the gateway filter chain
+     * @return a {@code Mono<Void>} that completes when the downstream call completes
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> response =
+                exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (response == null || !response.hasServer()) {
+            return chain.filter(exchange);
+        }
+        InstanceStats stats = instanceStatsRegistry.stats(response.getServer());
+        stats.start();
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        stats.cancel();
+                        return;
+                    }
+                    long now = System.nanoTime();
+                    long latency = now - start;
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError())) {
+                        latency = Math.max(latency, failurePenaltyNanos);
+                    }
+                    stats.complete(latency, now);
+                });
+    }
+
+    /**
+     * Runs right after the load balancer picked the instance.
+     *
+     * @return the order of the filter
+     */
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
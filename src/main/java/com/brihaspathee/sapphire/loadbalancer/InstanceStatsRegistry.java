@@ -0,0 +1,82 @@
+package com.brihaspathee.sapphire.loadbalancer;
+
+import com.brihaspathee.sapphire.config.LoadBalancerConfig;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/20/26
+ * Time: 2:20 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.loadbalancer
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Holds the statistics of every instance of every downstream service the gateway calls
+ * through an lb:// route, keyed by service id and then by instance. The statistics
+ * of an instance are kept when it is briefly missing from the registry and dropped once
+ * the instance list of its service is smaller than the statistics held for it.
+ */
+@Component
+public class InstanceStatsRegistry {
+
+    /**
+     * The statistics of the instances, by service id and then by instance.
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, InstanceStats>> stats = new ConcurrentHashMap<>();
+
+    /**
+     * The decay time of the average latency of the instances in nanoseconds.
+     */
+    private final long decayNanos;
+
+    /**
+     * Constructs an instance of the InstanceStatsRegistry.
+     */
+    public InstanceStatsRegistry(LoadBalancerConfig loadBalancerConfig) {
+        this.decayNanos = loadBalancerConfig.getDecayTime().toNanos();
+    }
+
+    /**
+     * Returns the statistics of the given instance, creating them on its first call.
+     *
+     * @param instance the instance
+     * @return the statistics of the instance
+     */
+    public InstanceStats stats(ServiceInstance instance) {
+        return stats.computeIfAbsent(instance.getServiceId(), serviceId -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key(instance), key -> new InstanceStats(decayNanos));
+    }
+
+    /**
+     * Drops the statistics of the instances of the service that are no longer in its instance list.
+     *
+     * @param serviceId the id of the service
+     * @param instances the current instances of the service
+     */
+    public void retain(String serviceId, List<ServiceInstance> instances) {
+        ConcurrentMap<String, InstanceStats> serviceStats = stats.get(serviceId);
+        if (serviceStats == null || serviceStats.size() <= instances.size()) {
+            return;
+        }
+        Set<String> current = new HashSet<>();
+        instances.forEach(instance -> current.add(key(instance)));
+        serviceStats.keySet().retainAll(current);
+    }
+
+    /**
+     * Returns the key of the given instance within its service, its instance id when it
+     * has one, as Eureka instances do, otherwise its host and port.
+     */
+    private static String key(ServiceInstance instance) {
+        String instanceId = instance.getInstanceId();
+        return instanceId != null ? instanceId : instance.getHost() + ":" + instance.getPort();
+    }
+}
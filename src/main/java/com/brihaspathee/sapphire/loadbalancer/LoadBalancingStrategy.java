@@ -0,0 +1,35 @@
+package com.brihaspathee.sapphire.loadbalancer;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/20/26
+ * Time: 2:05 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.loadbalancer
+ * To change this template use File | Settings | File and Code Template
+ *
+ * How the instance of the downstream service is picked for a request on an lb:// route.
+ * The strategy is chosen per route in the load_balancer column of the routes table.
+ */
+public enum LoadBalancingStrategy {
+
+    /**
+     * The instances take turns, which is what Spring Cloud LoadBalancer does by default.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Two instances are picked at random and the request goes to the one with the lower
+     * cost, its peak sensitive average latency multiplied by its requests in flight plus one.
+     * A slow or overloaded instance quickly stops getting traffic, without every gateway
+     * node herding onto the same fastest instance.
+     */
+    LEAST_LATENCY,
+
+    /**
+     * Instances are picked at random in proportion to the weight in their metadata, for
+     * e.g. to send a small share of the traffic to a canary.
+     */
+    WEIGHTED
+}
@@ -0,0 +1,207 @@
+package com.brihaspathee.sapphire.loadbalancer;
+
+import com.brihaspathee.sapphire.config.LoadBalancerConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/20/26
+ * Time: 2:30 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.loadbalancer
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The load balancer of every downstream service called through an lb:// route. It picks
+ * the instance with the strategy named in the metadata of the route being served, so
+ * two routes to the same service can be balanced differently; requests that do not come
+ * through a route, or whose route names no strategy, use the configured default. The
+ * instances come from the ServiceInstanceListSupplier of the service, which is Eureka in
+ * the deployed gateway and can be a static list, for e.g. from
+ * spring.cloud.discovery.client.simple.instances, without it.
+ */
+@Slf4j
+public class SapphireLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    /**
+     * The key of the route metadata holding the name of the strategy.
+     */
+    public static final String METADATA_KEY = "sapphire.load-balancer";
+
+    /**
+     * The key of the instance metadata holding the weight of the instance.
+     */
+    public static final String WEIGHT_METADATA_KEY = "weight";
+
+    /**
+     * The suppliers of the instances of the service.
+     */
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSuppliers;
+
+    /**
+     * The id of the service.
+     */
+    private final String serviceId;
+
+    /**
+     * The statistics of the instances.
+     */
+    private final InstanceStatsRegistry instanceStatsRegistry;
+
+    /**
+     * The load balancer configuration.
+     */
+    private final LoadBalancerConfig loadBalancerConfig;
+
+    /**
+     * The position of the round robin, started at random so the gateway nodes do not
+     * all begin with the same instance.
+     */
+    private final AtomicInteger position = new AtomicInteger(ThreadLocalRandom.current().nextInt(1000));
+
+    /**
+     * Constructs an instance of the SapphireLoadBalancer.
+     */
+    public SapphireLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSuppliers,
+                                String serviceId,
+                                InstanceStatsRegistry instanceStatsRegistry,
+                                LoadBalancerConfig loadBalancerConfig) {
+        this.serviceInstanceListSuppliers = serviceInstanceListSuppliers;
+        this.serviceId = serviceId;
+        this.instanceStatsRegistry = instanceStatsRegistry;
+        this.loadBalancerConfig = loadBalancerConfig;
+    }
+
+    /**
+     * Picks an instance of the service for the given request.
+     *
+     * @param request the load balancer request, carrying the exchange attributes when
+     *                it comes from the gateway
+     * @return a Mono emitting the chosen instance, or an empty response if there is none
+     */
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier =
+                serviceInstanceListSuppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request)
+                .next()
+                .map(instances -> choose(strategy(request), instances));
+    }
+
+    /**
+     * Picks one of the given instances with the given strategy.
+     *
+     * @param strategy the strategy
+     * @param instances the instances of the service
+     * @return the response holding the chosen instance, or an empty response if there is none
+     */
+    Response<ServiceInstance> choose(LoadBalancingStrategy strategy, List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        instanceStatsRegistry.retain(serviceId, instances);
+        ServiceInstance instance = switch (strategy) {
+            case ROUND_ROBIN -> roundRobin(instances);
+            case LEAST_LATENCY -> leastLatency(instances);
+            case WEIGHTED -> weighted(instances);
+        };
+        return new DefaultResponse(instance);
+    }
+
+    /**
+     * Returns the strategy named in the metadata of the route of the request, or the default one.
+     */
+    @SuppressWarnings("rawtypes")
+    private LoadBalancingStrategy strategy(Request request) {
+        if (request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest().getAttributes() != null
+                && context.getClientRequest().getAttributes().get(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR)
+                        instanceof Route route
+                && route.getMetadata().get(METADATA_KEY) instanceof String name) {
+            return LoadBalancingStrategy.valueOf(name);
+        }
+        return loadBalancerConfig.getDefaultStrategy();
+    }
+
+    /**
+     * Picks the instances in turn.
+     */
+    private ServiceInstance roundRobin(List<ServiceInstance> instances) {
+        return instances.get((position.incrementAndGet() & Integer.MAX_VALUE) % instances.size());
+    }
+
+    /**
+     * Picks two distinct instances at random and returns the one with the lower cost.
+     */
+    private ServiceInstance leastLatency(List<ServiceInstance> instances) {
+        int size = instances.size();
+        if (size == 1) {
+            return instances.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        long now = System.nanoTime();
+        return instanceStatsRegistry.stats(a).cost(now) <= instanceStatsRegistry.stats(b).cost(now) ? a : b;
+    }
+
+    /**
+     * Picks an instance at random in proportion to its weight.
+     */
+    private ServiceInstance weighted(List<ServiceInstance> instances) {
+        long total = 0;
+        for (ServiceInstance instance : instances) {
+            total += weight(instance);
+        }
+        if (total <= 0) {
+            return roundRobin(instances);
+        }
+        long point = ThreadLocalRandom.current().nextLong(total);
+        for (ServiceInstance instance : instances) {
+            point -= weight(instance);
+            if (point < 0) {
+                return instance;
+            }
+        }
+        return instances.get(instances.size() - 1);
+    }
+
+    /**
+     * Returns the weight in the metadata of the given instance, or the default weight.
+     */
+    private int weight(ServiceInstance instance) {
+        String weight = instance.getMetadata() != null ? instance.getMetadata().get(WEIGHT_METADATA_KEY) : null;
+        if (weight == null) {
+            return loadBalancerConfig.getDefaultWeight();
+        }
+        try {
+            return Math.max(0, Integer.parseInt(weight.trim()));
+        } catch (NumberFormatException e) {
+            return loadBalancerConfig.getDefaultWeight();
+        }
+    }
+}
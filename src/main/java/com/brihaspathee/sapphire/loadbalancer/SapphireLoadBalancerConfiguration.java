@@ -0,0 +1,46 @@
+package com.brihaspathee.sapphire.loadbalancer;
+
+import com.brihaspathee.sapphire.config.LoadBalancerConfig;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/20/26
+ * Time: 2:45 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.loadbalancer
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The load balancer configuration of every downstream service, registered as the default
+ * configuration of the load balancer clients in BeansConfig. Spring Cloud LoadBalancer
+ * creates a child context per service from it, so it is deliberately not annotated with
+ * Configuration, which would get it picked up by the component scan of the application.
+ */
+public class SapphireLoadBalancerConfiguration {
+
+    /**
+     * Provides the load balancer of the service of the child context.
+     *
+     * @param environment the environment of the child context, holding the service id
+     * @param loadBalancerClientFactory the factory of the child contexts
+     * @param instanceStatsRegistry the statistics of the instances, from the application context
+     * @param loadBalancerConfig the load balancer configuration, from the application context
+     * @return the load balancer of the service
+     */
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> sapphireLoadBalancer(Environment environment,
+                                                                     LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                     InstanceStatsRegistry instanceStatsRegistry,
+                                                                     LoadBalancerConfig loadBalancerConfig) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new SapphireLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, instanceStatsRegistry, loadBalancerConfig);
+    }
+}
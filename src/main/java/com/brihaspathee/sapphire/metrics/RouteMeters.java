@@ -0,0 +1,124 @@
+package com.brihaspathee.sapphire.metrics;
+
+import com.brihaspathee.sapphire.config.RouteMetricsConfig;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/19/26
+ * Time: 9:10 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.metrics
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The meters of a single route. All of them are registered up front, one request timer per
+ * status class, so that recording a request is a couple of array reads and timer updates.
+ * The request timers also count the requests, which gives the throughput of the route.
+ */
+public final class RouteMeters {
+
+    /**
+     * The status tags of the request timers, indexed by the status code divided by 100.
+     * Index 0 is used for requests that completed without a status.
+     */
+    private static final String[] STATUS_CLASSES = {"NONE", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    /**
+     * The request timers indexed like the status classes.
+     */
+    private final Timer[] requests;
+
+    /**
+     * The time spent waiting for the authentication service.
+     */
+    private final Timer auth;
+
+    /**
+     * The time the downstream service took to respond.
+     */
+    private final Timer upstream;
+
+    /**
+     * Registers the meters of a route.
+     *
+     * @param meterRegistry the registry the meters are registered with
+     * @param routeMetricsConfig the route metrics configuration
+     * @param routeId the id of the route
+     */
+    RouteMeters(MeterRegistry meterRegistry, RouteMetricsConfig routeMetricsConfig, String routeId) {
+        this.requests = new Timer[STATUS_CLASSES.length];
+        for (int i = 0; i < STATUS_CLASSES.length; i++) {
+            requests[i] = timer("gateway.route.requests", "Time the gateway took to handle the requests of the route",
+                    routeMetricsConfig, routeId)
+                    .tag("status", STATUS_CLASSES[i])
+                    .register(meterRegistry);
+        }
+        this.auth = timer("gateway.route.auth", "Time the requests of the route waited for the authentication service",
+                routeMetricsConfig, routeId)
+                .register(meterRegistry);
+        this.upstream = timer("gateway.route.upstream", "Time the downstream service of the route took to respond",
+                routeMetricsConfig, routeId)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a completed request.
+     *
+     * @param status the status of the response, null if none was set
+     * @param totalNanos the time the gateway took to handle the request
+     * @param authNanos the time spent waiting for the authentication service, -1 if not called
+     * @param upstreamNanos the time the downstream service took to respond, -1 if not called
+     */
+    void record(HttpStatusCode status, long totalNanos, long authNanos, long upstreamNanos) {
+        int statusClass = status != null ? status.value() / 100 : 0;
+        if (statusClass < 0 || statusClass >= requests.length) {
+            statusClass = 0;
+        }
+        requests[statusClass].record(totalNanos, TimeUnit.NANOSECONDS);
+        if (authNanos >= 0) {
+            auth.record(authNanos, TimeUnit.NANOSECONDS);
+        }
+        if (upstreamNanos >= 0) {
+            upstream.record(upstreamNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns all the meters of the route, so they can be removed with the route.
+     *
+     * @return the meters of the route
+     */
+    List<Meter> meters() {
+        List<Meter> meters = new ArrayList<>(List.of(requests));
+        meters.add(auth);
+        meters.add(upstream);
+        return meters;
+    }
+
+    /**
+     * Starts building a latency timer of the route.
+     */
+    private static Timer.Builder timer(String name, String description,
+                                       RouteMetricsConfig routeMetricsConfig, String routeId) {
+        Timer.Builder builder = Timer.builder(name)
+                .description(description)
+                .tag("route", routeId)
+                .publishPercentileHistogram(routeMetricsConfig.isPercentileHistogram())
+                .minimumExpectedValue(routeMetricsConfig.getMinimumExpectedLatency())
+                .maximumExpectedValue(routeMetricsConfig.getMaximumExpectedLatency());
+        if (!routeMetricsConfig.getPercentiles().isEmpty()) {
+            builder.publishPercentiles(routeMetricsConfig.getPercentiles().stream()
+                    .mapToDouble(Double::doubleValue)
+                    .toArray());
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,114 @@
+package com.brihaspathee.sapphire.metrics;
+
+import com.brihaspathee.sapphire.config.RouteMetricsConfig;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/19/26
+ * Time: 9:20 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.metrics
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Keeps the meters of every route loaded from the routes table. The meters are registered
+ * when the routes are refreshed, before the first request of a new route, and the meters
+ * of the routes that were removed are removed from the registry, so the number of time
+ * series follows the routes table rather than the traffic.
+ */
+@Slf4j
+@Component
+public class RouteMetrics implements ApplicationListener<RefreshRoutesResultEvent> {
+
+    /**
+     * The registry the meters are registered with.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The route metrics configuration.
+     */
+    private final RouteMetricsConfig routeMetricsConfig;
+
+    /**
+     * The route locator the loaded routes are read from.
+     */
+    private final RouteLocator routeLocator;
+
+    /**
+     * The meters of the routes keyed by the route id.
+     */
+    private final Map<String, RouteMeters> metersByRoute = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an instance of the RouteMetrics.
+     */
+    public RouteMetrics(MeterRegistry meterRegistry, RouteMetricsConfig routeMetricsConfig, RouteLocator routeLocator) {
+        this.meterRegistry = meterRegistry;
+        this.routeMetricsConfig = routeMetricsConfig;
+        this.routeLocator = routeLocator;
+    }
+
+    /**
+     * Returns the meters of a route, registering them if the route was not refreshed yet.
+     *
+     * @param routeId the id of the route
+     * @return the meters of the route
+     */
+    public RouteMeters meters(String routeId) {
+        RouteMeters meters = metersByRoute.get(routeId);
+        if (meters != null) {
+            return meters;
+        }
+        return metersByRoute.computeIfAbsent(routeId,
+                id -> new RouteMeters(meterRegistry, routeMetricsConfig, id));
+    }
+
+    /**
+     * Registers the meters of the new routes and removes the meters of the removed ones
+     * once the routes have been refreshed.
+     *
+     * @param event the result of the route refresh
+     */
+    @Override
+    public void onApplicationEvent(RefreshRoutesResultEvent event) {
+        if (!event.isSuccess() || !routeMetricsConfig.isEnabled()) {
+            return;
+        }
+        routeLocator.getRoutes()
+                .map(Route::getId)
+                .collect(Collectors.toSet())
+                .subscribe(this::retain,
+                        e -> log.error("Unable to register the meters of the routes", e));
+    }
+
+    /**
+     * Keeps the meters of the given routes only.
+     */
+    private void retain(Set<String> routeIds) {
+        routeIds.forEach(this::meters);
+        metersByRoute.entrySet().removeIf(entry -> {
+            if (routeIds.contains(entry.getKey())) {
+                return false;
+            }
+            for (Meter meter : entry.getValue().meters()) {
+                meterRegistry.remove(meter);
+            }
+            return true;
+        });
+        log.debug("Registered the meters of {} routes", metersByRoute.size());
+    }
+}
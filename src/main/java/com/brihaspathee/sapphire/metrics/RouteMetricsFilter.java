@@ -0,0 +1,90 @@
+package com.brihaspathee.sapphire.metrics;
+
+import com.brihaspathee.sapphire.accesslog.GatewayTimings;
+import com.brihaspathee.sapphire.config.RouteMetricsConfig;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/19/26
+ * Time: 9:30 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.metrics
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Records the latency and the status class of every routed request against the meters
+ * of its route, along with the time spent in the authentication service and in the
+ * downstream service. The meters are tagged with the route id only, never the path or
+ * the user, and are published through the actuator, including the Prometheus endpoint.
+ */
+@Component
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    /**
+     * The meters of the routes.
+     */
+    private final RouteMetrics routeMetrics;
+
+    /**
+     * The route metrics configuration.
+     */
+    private final RouteMetricsConfig routeMetricsConfig;
+
+    /**
+     * Constructs an instance of the RouteMetricsFilter.
+     */
+    public RouteMetricsFilter(RouteMetrics routeMetrics, RouteMetricsConfig routeMetricsConfig) {
+        this.routeMetrics = routeMetrics;
+        this.routeMetricsConfig = routeMetricsConfig;
+    }
+
+    /**
+     * Starts timing the request and records it against its route once the response completes.
+     *
+     * @param exchange the current server web exchange
+     * @param chain the gateway filter chain
+     * @return a {@code Mono<Void>} that completes when the request is processed
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!routeMetricsConfig.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        GatewayTimings timings = GatewayTimings.start(exchange);
+        return chain.filter(exchange)
+                .doFinally(signal -> record(exchange, timings));
+    }
+
+    /**
+     * Records the request against the meters of its route.
+     */
+    private void record(ServerWebExchange exchange, GatewayTimings timings) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return;
+        }
+        routeMetrics.meters(route.getId()).record(
+                exchange.getResponse().getStatusCode(),
+                timings.totalNanos(System.nanoTime()),
+                timings.authNanos(),
+                timings.upstreamNanos());
+    }
+
+    /**
+     * Runs right after the AccessLogFilter so the total time covers the whole filter chain.
+     *
+     * @return the order of the filter
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+}
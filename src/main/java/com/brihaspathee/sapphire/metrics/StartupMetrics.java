@@ -0,0 +1,103 @@
+package com.brihaspathee.sapphire.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/20/26
+ * Time: 9:15 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.metrics
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Records how long after the JVM started the gateway completed its first routed request.
+ * Unlike the startup time Spring Boot logs, this includes loading the routes and warming
+ * up the connection to the downstream service, which is what a new instance has to get
+ * through before it is of any use during a scale out or a restart. The time is logged
+ * once and published as the gateway.startup.first.routed.request gauge.
+ */
+@Slf4j
+@Component
+public class StartupMetrics implements GlobalFilter, Ordered {
+
+    /**
+     * The time the JVM started, in milliseconds since the epoch.
+     */
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    /**
+     * The milliseconds from the JVM start to the completion of the first routed request,
+     * -1 until it completed.
+     */
+    private volatile long firstRoutedRequestMillis = -1;
+
+    /**
+     * Constructs an instance of the StartupMetrics and registers its gauge.
+     */
+    public StartupMetrics(MeterRegistry meterRegistry) {
+        TimeGauge.builder("gateway.startup.first.routed.request", this,
+                        TimeUnit.MILLISECONDS, StartupMetrics::firstRoutedRequestMillis)
+                .description("Time from the JVM start to the completion of the first routed request")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the first routed request once its response completes. After that the
+     * filter only reads a volatile field.
+     *
+     * @param exchange the current server web exchange
+     * @param chain the gateway filter chain
+     * @return a {@code Mono<Void>} that completes when the request is processed
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (firstRoutedRequestMillis >= 0) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange)
+                .doOnSuccess(done -> record(exchange));
+    }
+
+    /**
+     * Records the time of the first request that was routed.
+     */
+    private synchronized void record(ServerWebExchange exchange) {
+        if (firstRoutedRequestMillis >= 0
+                || exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR) == null) {
+            return;
+        }
+        firstRoutedRequestMillis = System.currentTimeMillis() - jvmStartMillis;
+        log.info("First routed request completed {} ms after the JVM started", firstRoutedRequestMillis);
+    }
+
+    /**
+     * Returns the milliseconds from the JVM start to the first routed request, NaN until then.
+     */
+    private double firstRoutedRequestMillis() {
+        long millis = firstRoutedRequestMillis;
+        return millis < 0 ? Double.NaN : millis;
+    }
+
+    /**
+     * Runs right after the RouteMetricsFilter.
+     *
+     * @return the order of the filter
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 2;
+    }
+}
@@ -0,0 +1,96 @@
+package com.brihaspathee.sapphire.ratelimit;
+
+import com.brihaspathee.sapphire.config.RateLimitConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 5:20 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.ratelimit
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Keeps the token buckets in the memory of this gateway instance. The buckets are held in
+ * a bounded cache that drops buckets that have not been used for the idle timeout, and
+ * each bucket is updated with a single compare-and-set, so the engine scales across the
+ * event loop threads without locks.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.rate-limit", name = "engine", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitEngine implements RateLimitEngine {
+
+    /**
+     * The name under which the bucket cache metrics are published.
+     */
+    private static final String CACHE_NAME = "rate.limit.buckets";
+
+    /**
+     * The buckets keyed by the key the filter built for the request.
+     */
+    private final Cache<String, TokenBucket> buckets;
+
+    /**
+     * The source of the current time in nanoseconds.
+     */
+    private final LongSupplier nanoTime;
+
+    /**
+     * Constructs an instance of the LocalRateLimitEngine.
+     */
+    @Autowired
+    public LocalRateLimitEngine(RateLimitConfig rateLimitConfig, MeterRegistry meterRegistry) {
+        this(rateLimitConfig, System::nanoTime);
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, CACHE_NAME);
+    }
+
+    /**
+     * Constructs an instance of the LocalRateLimitEngine that reads the time from the given source.
+     */
+    LocalRateLimitEngine(RateLimitConfig rateLimitConfig, LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(rateLimitConfig.getMaximumKeys())
+                .expireAfterAccess(rateLimitConfig.getIdleTimeout())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Mono<RateLimitResult> tryAcquire(String key, RateLimit limit) {
+        return Mono.just(acquire(key, limit));
+    }
+
+    /**
+     * Takes a token from the bucket with the given key, creating the bucket if needed.
+     *
+     * @param key the key of the bucket
+     * @param limit the limit of the bucket
+     * @return whether the request is allowed
+     */
+    RateLimitResult acquire(String key, RateLimit limit) {
+        return buckets.get(key, k -> new TokenBucket()).tryAcquire(limit, nanoTime.getAsLong());
+    }
+
+    /**
+     * Returns the number of buckets currently kept.
+     *
+     * @return the estimated number of buckets
+     */
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,61 @@
+package com.brihaspathee.sapphire.ratelimit;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 5:05 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.ratelimit
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The limit of a token bucket: the bucket holds up to burst capacity tokens and is
+ * refilled at the replenish rate. The limit is built once per route when the route is
+ * loaded, so the per-request check only does integer arithmetic.
+ */
+@Getter
+public final class RateLimit {
+
+    /**
+     * The number of tokens added to the bucket every second.
+     */
+    private final long replenishRate;
+
+    /**
+     * The maximum number of tokens the bucket holds, i.e. the largest burst allowed.
+     */
+    private final long burstCapacity;
+
+    /**
+     * The time it takes to refill a single token, in nanoseconds.
+     */
+    private final long emissionIntervalNanos;
+
+    /**
+     * The time it takes to refill the whole bucket, in nanoseconds.
+     */
+    private final long burstToleranceNanos;
+
+    /**
+     * Creates a limit.
+     *
+     * @param replenishRate the number of tokens added every second
+     * @param burstCapacity the maximum number of tokens in the bucket
+     */
+    public RateLimit(long replenishRate, long burstCapacity) {
+        if (replenishRate <= 0) {
+            throw new IllegalArgumentException("The replenish rate must be positive, found " + replenishRate);
+        }
+        if (burstCapacity < 1) {
+            throw new IllegalArgumentException("The burst capacity must be at least 1, found " + burstCapacity);
+        }
+        this.replenishRate = replenishRate;
+        this.burstCapacity = burstCapacity;
+        this.emissionIntervalNanos = Math.max(1, TimeUnit.SECONDS.toNanos(1) / replenishRate);
+        this.burstToleranceNanos = emissionIntervalNanos * burstCapacity;
+    }
+}
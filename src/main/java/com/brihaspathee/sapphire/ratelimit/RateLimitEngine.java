@@ -0,0 +1,28 @@
+package com.brihaspathee.sapphire.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 5:12 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.ratelimit
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Keeps the token buckets the RateLimitFilter takes tokens from. The local engine keeps
+ * them in memory; an engine sharing the buckets across gateway instances, for e.g.
+ * through Redis, can be plugged in by providing another bean.
+ */
+public interface RateLimitEngine {
+
+    /**
+     * Takes a token from the bucket with the given key.
+     *
+     * @param key the key of the bucket, for e.g. the route id and the user id
+     * @param limit the limit of the bucket
+     * @return a Mono emitting whether the request is allowed
+     */
+    Mono<RateLimitResult> tryAcquire(String key, RateLimit limit);
+}
@@ -0,0 +1,63 @@
+package com.brihaspathee.sapphire.ratelimit;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 5:10 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.ratelimit
+ * To change this template use File | Settings | File and Code Template
+ */
+@Getter
+public final class RateLimitResult {
+
+    /**
+     * Indicates whether the request is allowed.
+     */
+    private final boolean allowed;
+
+    /**
+     * The number of tokens left in the bucket after the request.
+     */
+    private final long remaining;
+
+    /**
+     * How long the client has to wait before the next request can be allowed,
+     * zero when the request is allowed.
+     */
+    private final Duration retryAfter;
+
+    /**
+     * Creates a result.
+     */
+    private RateLimitResult(boolean allowed, long remaining, Duration retryAfter) {
+        this.allowed = allowed;
+        this.remaining = remaining;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Creates the result of an allowed request.
+     *
+     * @param remaining the number of tokens left in the bucket
+     * @return the result
+     */
+    public static RateLimitResult allowed(long remaining) {
+        return new RateLimitResult(true, remaining, Duration.ZERO);
+    }
+
+    /**
+     * Creates the result of a rejected request.
+     *
+     * @param retryAfter how long until a token is available
+     * @return the result
+     */
+    public static RateLimitResult rejected(Duration retryAfter) {
+        return new RateLimitResult(false, 0, retryAfter);
+    }
+}
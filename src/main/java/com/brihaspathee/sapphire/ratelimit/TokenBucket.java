@@ -0,0 +1,49 @@
+package com.brihaspathee.sapphire.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 5:15 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.ratelimit
+ * To change this template use File | Settings | File and Code Template
+ *
+ * A lock-free token bucket. Instead of a token count and a refill time it keeps the
+ * single time at which the bucket will be full again (the generic cell rate algorithm),
+ * so taking a token is one compare-and-set and no thread ever blocks on another.
+ */
+final class TokenBucket {
+
+    /**
+     * The time, in nanoseconds, at which the bucket will be full again. A value in the
+     * past means the bucket is full.
+     */
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Takes a token from the bucket.
+     *
+     * @param limit the limit of the bucket
+     * @param now the current time in nanoseconds
+     * @return whether the request is allowed
+     */
+    RateLimitResult tryAcquire(RateLimit limit, long now) {
+        long interval = limit.getEmissionIntervalNanos();
+        long tolerance = limit.getBurstToleranceNanos();
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long backlog = next - now;
+            if (backlog > tolerance) {
+                return RateLimitResult.rejected(Duration.ofNanos(backlog - tolerance));
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return RateLimitResult.allowed((tolerance - backlog) / interval);
+            }
+        }
+    }
+}
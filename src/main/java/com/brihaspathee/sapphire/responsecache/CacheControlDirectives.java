@@ -0,0 +1,74 @@
+package com.brihaspathee.sapphire.responsecache;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/23/26
+ * Time: 1:10 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.responsecache
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Reads the directives of the Cache-Control header values of a request or a response.
+ */
+public final class CacheControlDirectives {
+
+    private CacheControlDirectives() {
+    }
+
+    /**
+     * Checks whether the Cache-Control header values hold the directive.
+     *
+     * @param cacheControl the values of the Cache-Control header
+     * @param directive the name of the directive, for e.g. no-store
+     * @return true if one of the values holds the directive
+     */
+    public static boolean hasDirective(List<String> cacheControl, String directive) {
+        for (String value : cacheControl) {
+            if (directive(value, directive) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value of a max-age directive in seconds.
+     *
+     * @param cacheControl the values of the Cache-Control header
+     * @param directive the name of the directive, max-age or s-maxage
+     * @return the value of the directive, or null if it is absent or invalid
+     */
+    public static Duration maxAge(List<String> cacheControl, String directive) {
+        for (String value : cacheControl) {
+            String seconds = directive(value, directive);
+            if (seconds != null && !seconds.isEmpty()) {
+                try {
+                    return Duration.ofSeconds(Long.parseLong(seconds));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value of a directive in a Cache-Control header value, an empty string
+     * for a directive without a value, or null if the directive is absent.
+     */
+    private static String directive(String cacheControl, String directive) {
+        for (String part : cacheControl.split(",")) {
+            String token = part.trim();
+            int equals = token.indexOf('=');
+            String name = equals < 0 ? token : token.substring(0, equals).trim();
+            if (name.equalsIgnoreCase(directive)) {
+                return equals < 0 ? "" : token.substring(equals + 1).trim().replace("\"", "");
+            }
+        }
+        return null;
+    }
+}
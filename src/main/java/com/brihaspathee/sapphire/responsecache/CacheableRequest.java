@@ -0,0 +1,42 @@
+package com.brihaspathee.sapphire.responsecache;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/23/26
+ * Time: 1:20 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.responsecache
+ * To change this template use File | Settings | File and Code Template
+ *
+ * A request the ResponseCacheFilter missed the cache for, left in the exchange
+ * attributes for the ResponseCaptureFilter to cache its response once it is written.
+ */
+@Value
+public class CacheableRequest {
+
+    /**
+     * The cache key of the request.
+     */
+    String key;
+
+    /**
+     * The ttl of the route, used when the response does not carry a max-age.
+     */
+    Duration ttl;
+
+    /**
+     * The request headers the route varies by.
+     */
+    List<String> varyHeaders;
+
+    /**
+     * The time the request was sent on to the upstream service, in nanoseconds.
+     */
+    long startedNanos;
+}
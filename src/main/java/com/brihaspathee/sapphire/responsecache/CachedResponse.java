@@ -0,0 +1,107 @@
+package com.brihaspathee.sapphire.responsecache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.IllegalReferenceCountException;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 8:35 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.responsecache
+ * To change this template use File | Settings | File and Code Template
+ *
+ * A cached GET response. The body is held in a pooled direct buffer owned by the cache,
+ * which releases it when the entry is evicted; every response served from the entry
+ * writes a retained duplicate of the buffer, so the body is never copied on a hit.
+ */
+@Getter
+public final class CachedResponse {
+
+    /**
+     * The status code of the response.
+     */
+    private final int status;
+
+    /**
+     * The headers of the response, without the hop-by-hop headers.
+     */
+    private final HttpHeaders headers;
+
+    /**
+     * The entity tag sent by the upstream service, null if it did not send one.
+     */
+    private final String etag;
+
+    /**
+     * The time the response was stored, in nanoseconds.
+     */
+    private final long storedAt;
+
+    /**
+     * The time the response expires, in nanoseconds.
+     */
+    private final long expiresAt;
+
+    /**
+     * The time the upstream service took to respond, i.e. the latency every hit saves.
+     */
+    private final long upstreamLatencyNanos;
+
+    /**
+     * The body of the response.
+     */
+    private final ByteBuf body;
+
+    /**
+     * Creates a cached response that takes ownership of the body.
+     */
+    public CachedResponse(int status,
+                          HttpHeaders headers,
+                          String etag,
+                          long storedAt,
+                          long expiresAt,
+                          long upstreamLatencyNanos,
+                          ByteBuf body) {
+        this.status = status;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.etag = etag;
+        this.storedAt = storedAt;
+        this.expiresAt = expiresAt;
+        this.upstreamLatencyNanos = upstreamLatencyNanos;
+        this.body = body;
+    }
+
+    /**
+     * Returns a duplicate of the body the caller owns and must release, typically by
+     * writing it to the response.
+     *
+     * @return the duplicate of the body, or null if the entry was evicted meanwhile
+     */
+    public ByteBuf retainedBody() {
+        try {
+            return body.retainedDuplicate();
+        } catch (IllegalReferenceCountException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of bytes the entry takes up in the cache.
+     *
+     * @return the size of the body plus an estimate of the headers
+     */
+    public int weight() {
+        return body.readableBytes() + 64 * headers.size() + 128;
+    }
+
+    /**
+     * Releases the body. Called by the cache when the entry is evicted.
+     */
+    void release() {
+        body.release();
+    }
+}
@@ -0,0 +1,112 @@
+package com.brihaspathee.sapphire.responsecache;
+
+import com.brihaspathee.sapphire.config.ResponseCacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 8:45 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.responsecache
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Holds the cached responses of all the routes. The cache is bounded by the number of
+ * bytes of the entries rather than their count, and every entry expires at the time the
+ * filter computed from the route ttl and the Cache-Control header of the response.
+ */
+@Component
+public class ResponseCacheStore {
+
+    /**
+     * The name under which the cache metrics are published.
+     */
+    private static final String CACHE_NAME = "gateway.response";
+
+    /**
+     * The response cache configuration.
+     */
+    @Getter
+    private final ResponseCacheConfig responseCacheConfig;
+
+    /**
+     * The cached responses keyed by the key the filter built for the request.
+     */
+    private final Cache<String, CachedResponse> cache;
+
+    /**
+     * Creates the store using the settings under `application.response-cache`.
+     *
+     * @param responseCacheConfig the response cache configuration
+     * @param meterRegistry the registry the cache metrics are published to
+     */
+    public ResponseCacheStore(ResponseCacheConfig responseCacheConfig, MeterRegistry meterRegistry) {
+        this.responseCacheConfig = responseCacheConfig;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(responseCacheConfig.getMaximumSize().toBytes())
+                .weigher((String key, CachedResponse response) -> key.length() + response.weight())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return Math.max(0, response.getExpiresAt() - System.nanoTime());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, response, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                // release the buffers as soon as the entries leave the cache
+                .executor(Runnable::run)
+                .removalListener((String key, CachedResponse response, RemovalCause cause) -> {
+                    if (response != null) {
+                        response.release();
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached response for the key if it has not expired.
+     *
+     * @param key the cache key of the request
+     * @return the cached response or null
+     */
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Stores the response for the key. Any previous response for the key is released.
+     *
+     * @param key the cache key of the request
+     * @param response the response to cache
+     */
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * Removes all the cached responses.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,83 @@
+package com.brihaspathee.sapphire.responsecache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 9:00 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.responsecache
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Copies the body of a response into a pooled direct buffer as it streams to the client.
+ * The chunks are written to the client unchanged; once the body grows beyond the
+ * maximum entry size the copy is dropped and the rest of the body is not captured.
+ */
+public final class ResponseCapture {
+
+    /**
+     * The largest body that is captured.
+     */
+    private final int maximumSize;
+
+    /**
+     * The captured body, null once it was discarded or handed over.
+     */
+    private ByteBuf body;
+
+    /**
+     * Starts capturing a body.
+     *
+     * @param maximumSize the largest body that is captured
+     * @param expectedSize the content length of the response, -1 if unknown
+     */
+    public ResponseCapture(int maximumSize, long expectedSize) {
+        this.maximumSize = maximumSize;
+        int initialCapacity = expectedSize >= 0 ? (int) Math.min(expectedSize, maximumSize) : 1024;
+        this.body = PooledByteBufAllocator.DEFAULT.directBuffer(initialCapacity, maximumSize);
+    }
+
+    /**
+     * Appends a chunk of the body. The chunk itself is left untouched.
+     *
+     * @param chunk the chunk written to the client
+     */
+    public synchronized void append(DataBuffer chunk) {
+        if (body == null) {
+            return;
+        }
+        ByteBuf source = NettyDataBufferFactory.toByteBuf(chunk);
+        int length = source.readableBytes();
+        if (body.readableBytes() + length > maximumSize) {
+            discard();
+            return;
+        }
+        body.writeBytes(source, source.readerIndex(), length);
+    }
+
+    /**
+     * Hands the captured body over to the caller.
+     *
+     * @return the body, owned by the caller from now on, or null if it was discarded
+     */
+    public synchronized ByteBuf complete() {
+        ByteBuf captured = body;
+        body = null;
+        return captured;
+    }
+
+    /**
+     * Drops the captured body.
+     */
+    public synchronized void discard() {
+        if (body != null) {
+            body.release();
+            body = null;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.brihaspathee.sapphire.route;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_ROUTE_ATTR;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 2:40 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Looks up the route for a request through the {@link RouteIndex} instead of applying the
+ * predicates of every route in turn. The candidate routes are evaluated exactly like the
+ * stock lookup evaluates all the routes, so the first matching route in route order wins.
+ */
+@Slf4j
+public class IndexedRoutePredicateHandlerMapping extends RoutePredicateHandlerMapping
+        implements ApplicationListener<RefreshRoutesResultEvent> {
+
+    /**
+     * The locator of the routes that are indexed.
+     */
+    private final RouteLocator routeLocator;
+
+    /**
+     * The repository holding the route definitions the path patterns are taken from.
+     */
+    private final SapphireRouteDefinitionRepository routeDefinitionRepository;
+
+    /**
+     * The current index. Null until the routes are loaded for the first time, in which
+     * case the stock lookup is used.
+     */
+    private volatile RouteIndex routeIndex;
+
+    /**
+     * Constructs an instance of the IndexedRoutePredicateHandlerMapping.
+     */
+    public IndexedRoutePredicateHandlerMapping(FilteringWebHandler webHandler,
+                                               RouteLocator routeLocator,
+                                               GlobalCorsProperties globalCorsProperties,
+                                               Environment environment,
+                                               SapphireRouteDefinitionRepository routeDefinitionRepository) {
+        super(webHandler, routeLocator, globalCorsProperties, environment);
+        this.routeLocator = routeLocator;
+        this.routeDefinitionRepository = routeDefinitionRepository;
+    }
+
+    /**
+     * Finds the first candidate route whose predicates match the request.
+     *
+     * @param exchange the current server exchange
+     * @return a Mono emitting the matching route, empty if no route matches
+     */
+    @Override
+    protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+        RouteIndex index = routeIndex;
+        if (index == null) {
+            return super.lookupRoute(exchange);
+        }
+        return Flux.fromIterable(index.candidates(exchange.getRequest().getPath().pathWithinApplication()))
+                .concatMap(route -> Mono.just(route).filterWhen(r -> {
+                            exchange.getAttributes().put(GATEWAY_PREDICATE_ROUTE_ATTR, r.getId());
+                            return r.getPredicate().apply(exchange);
+                        })
+                        .doOnError(e -> log.error("Error applying predicate for route: {}", route.getId(), e))
+                        .onErrorResume(e -> Mono.empty()))
+                .next()
+                .map(route -> {
+                    validateRoute(route, exchange);
+                    return route;
+                });
+    }
+
+    /**
+     * Rebuilds the index once the gateway has rebuilt its routes.
+     *
+     * @param event the result of the route refresh
+     */
+    @Override
+    public void onApplicationEvent(RefreshRoutesResultEvent event) {
+        if (!event.isSuccess()) {
+            return;
+        }
+        routeLocator.getRoutes()
+                .collectList()
+                .subscribe(routes -> {
+                    routeIndex = RouteIndex.build(routes,
+                            routeDefinitionRepository.getSnapshot().getRouteDefinitionsById());
+                    log.debug("Indexed {} routes", routes.size());
+                }, e -> log.error("Unable to index the routes, keeping the previous index", e));
+    }
+}
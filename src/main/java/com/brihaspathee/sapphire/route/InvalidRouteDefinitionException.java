@@ -0,0 +1,47 @@
+package com.brihaspathee.sapphire.route;
+
+import lombok.Getter;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 4:05 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Thrown when the predicates or filters stored for a route cannot be parsed into
+ * route definitions.
+ */
+@Getter
+public class InvalidRouteDefinitionException extends RuntimeException {
+
+    /**
+     * The id of the route whose definition is invalid.
+     */
+    private final String routeId;
+
+    /**
+     * Constructs an instance of the InvalidRouteDefinitionException.
+     *
+     * @param routeId the id of the route whose definition is invalid
+     * @param message the reason the definition is invalid
+     */
+    public InvalidRouteDefinitionException(String routeId, String message) {
+        super("Invalid definition for route " + routeId + ": " + message);
+        this.routeId = routeId;
+    }
+
+    /**
+     * Constructs an instance of the InvalidRouteDefinitionException.
+     *
+     * @param routeId the id of the route whose definition is invalid
+     * @param message the reason the definition is invalid
+     * @param cause the error raised while parsing the definition
+     */
+    public InvalidRouteDefinitionException(String routeId, String message, Throwable cause) {
+        super("Invalid definition for route " + routeId + ": " + message, cause);
+        this.routeId = routeId;
+    }
+}
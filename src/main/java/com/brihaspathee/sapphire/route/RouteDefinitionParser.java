@@ -0,0 +1,291 @@
+package com.brihaspathee.sapphire.route;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.support.NameUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 4:10 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Parses the predicates and filters columns of the routes table into predicate and
+ * filter definitions. The columns hold a JSON array whose entries are either shortcut
+ * strings or objects with a name and named arguments, for e.g.
+ * <pre>
+ * ["Path=/api/v1/sapphire/mms/secured/member/**,/api/v1/sapphire/mms/secured/account/**", "Method=GET,POST"]
+ * [{"name": "AuthenticationFilter", "args": {"resourceAuthorization": "true"}}, "StripPrefix=1"]
+ * </pre>
+ * Rows that predate the JSON format hold a comma separated list of paths in the predicates
+ * column and the shortcut of a single filter in the filters column; they are still accepted.
+ * Everything is parsed once when the routes are loaded, so an invalid row is reported then
+ * rather than when a request hits the route.
+ */
+@Component
+public class RouteDefinitionParser {
+
+    /**
+     * The name of the predicate built from the legacy predicates column.
+     */
+    private static final String PATH_PREDICATE = "Path";
+
+    /**
+     * The named argument of the Path predicate holding its patterns.
+     */
+    private static final String PATTERNS_ARG = "patterns";
+
+    /**
+     * The object mapper used to read the JSON columns.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The predicate factories known to the gateway, used to reject unknown predicate names.
+     */
+    @SuppressWarnings("rawtypes")
+    private final ObjectProvider<RoutePredicateFactory> predicateFactories;
+
+    /**
+     * The filter factories known to the gateway, used to reject unknown filter names.
+     */
+    @SuppressWarnings("rawtypes")
+    private final ObjectProvider<GatewayFilterFactory> filterFactories;
+
+    /**
+     * Constructs an instance of the RouteDefinitionParser.
+     */
+    @SuppressWarnings("rawtypes")
+    public RouteDefinitionParser(ObjectMapper objectMapper,
+                                 ObjectProvider<RoutePredicateFactory> predicateFactories,
+                                 ObjectProvider<GatewayFilterFactory> filterFactories) {
+        this.objectMapper = objectMapper;
+        this.predicateFactories = predicateFactories;
+        this.filterFactories = filterFactories;
+    }
+
+    /**
+     * Parses the predicates column of a route.
+     *
+     * @param routeId the id of the route
+     * @param predicates the value of the predicates column
+     * @return the predicate definitions of the route
+     * @throws InvalidRouteDefinitionException if the value cannot be parsed
+     */
+    public List<PredicateDefinition> parsePredicates(String routeId, String predicates) {
+        if (!StringUtils.hasText(predicates)) {
+            throw new InvalidRouteDefinitionException(routeId, "the route has no predicates");
+        }
+        if (!isJson(predicates)) {
+            return List.of(new PredicateDefinition(PATH_PREDICATE + "=" + predicates.trim()));
+        }
+        Set<String> knownNames = names(predicateFactories.stream().map(RoutePredicateFactory::name));
+        return parse(routeId, predicates, "predicate", knownNames, PredicateDefinition::new, (name, args) -> {
+            PredicateDefinition predicateDefinition = new PredicateDefinition();
+            predicateDefinition.setName(name);
+            predicateDefinition.setArgs(args);
+            return predicateDefinition;
+        }, PredicateDefinition::getName);
+    }
+
+    /**
+     * Parses the filters column of a route.
+     *
+     * @param routeId the id of the route
+     * @param filters the value of the filters column, may be null
+     * @return the filter definitions of the route, empty if the route has no filters
+     * @throws InvalidRouteDefinitionException if the value cannot be parsed
+     */
+    public List<FilterDefinition> parseFilters(String routeId, String filters) {
+        if (!StringUtils.hasText(filters)) {
+            return List.of();
+        }
+        if (!isJson(filters)) {
+            return List.of(new FilterDefinition(filters.trim()));
+        }
+        Set<String> knownNames = names(filterFactories.stream().map(GatewayFilterFactory::name));
+        return parse(routeId, filters, "filter", knownNames, FilterDefinition::new, (name, args) -> {
+            FilterDefinition filterDefinition = new FilterDefinition();
+            filterDefinition.setName(name);
+            filterDefinition.setArgs(args);
+            return filterDefinition;
+        }, FilterDefinition::getName);
+    }
+
+    /**
+     * Formats predicate or filter definitions as the JSON array of name/args objects
+     * stored in the predicates and filters columns.
+     *
+     * @param definitions the predicate or filter definitions
+     * @return the JSON array
+     */
+    public String format(List<?> definitions) {
+        try {
+            return objectMapper.writeValueAsString(definitions);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to format " + definitions, e);
+        }
+    }
+
+    /**
+     * Returns the path patterns of the first Path predicate of the route definition.
+     * Only the named `patterns` argument of the object form and the generated arguments
+     * of the shortcut form hold patterns; the other arguments, for e.g. matchTrailingSlash,
+     * are skipped, as is the trailing flag of the shortcut form, for e.g. `Path=/a/**,false`.
+     * Arguments holding several comma separated patterns are split into the individual patterns.
+     *
+     * @param routeDefinition the route definition, may be null
+     * @return the path patterns, empty if the route has no Path predicate
+     */
+    public static List<String> pathPatterns(RouteDefinition routeDefinition) {
+        List<String> patterns = new ArrayList<>();
+        if (routeDefinition == null) {
+            return patterns;
+        }
+        for (PredicateDefinition predicate : routeDefinition.getPredicates()) {
+            if (PATH_PREDICATE.equals(predicate.getName())) {
+                predicate.getArgs().forEach((name, value) -> {
+                    if (!PATTERNS_ARG.equals(name) && !name.startsWith(NameUtils.GENERATED_NAME_PREFIX)) {
+                        return;
+                    }
+                    for (String pattern : StringUtils.commaDelimitedListToStringArray(value)) {
+                        if (StringUtils.hasText(pattern) && !isFlag(pattern.trim())) {
+                            patterns.add(pattern.trim());
+                        }
+                    }
+                });
+                return patterns;
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * Checks whether a shortcut argument of the Path predicate is its matchTrailingSlash flag.
+     */
+    private static boolean isFlag(String value) {
+        return "true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value);
+    }
+
+    /**
+     * Parses a JSON array of shortcut strings and name/args objects.
+     */
+    private <T> List<T> parse(String routeId,
+                              String value,
+                              String kind,
+                              Set<String> knownNames,
+                              Function<String, T> fromShortcut,
+                              DefinitionFactory<T> fromObject,
+                              Function<T, String> nameOf) {
+        JsonNode entries;
+        try {
+            entries = objectMapper.readTree(value);
+        } catch (JsonProcessingException e) {
+            throw new InvalidRouteDefinitionException(routeId, "the " + kind + "s are not valid JSON", e);
+        }
+        if (!entries.isArray()) {
+            throw new InvalidRouteDefinitionException(routeId, "the " + kind + "s must be a JSON array");
+        }
+        List<T> definitions = new ArrayList<>(entries.size());
+        for (JsonNode entry : entries) {
+            T definition;
+            if (entry.isTextual()) {
+                try {
+                    definition = fromShortcut.apply(entry.asText().trim());
+                } catch (RuntimeException e) {
+                    throw new InvalidRouteDefinitionException(routeId,
+                            "invalid " + kind + " '" + entry.asText() + "'", e);
+                }
+            } else if (entry.isObject() && entry.path("name").isTextual()) {
+                definition = fromObject.create(entry.get("name").asText().trim(), args(routeId, kind, entry.path("args")));
+            } else {
+                throw new InvalidRouteDefinitionException(routeId,
+                        "a " + kind + " must be a string or an object with a name, found " + entry);
+            }
+            String name = nameOf.apply(definition);
+            if (!knownNames.isEmpty() && !knownNames.contains(name)) {
+                throw new InvalidRouteDefinitionException(routeId, "unknown " + kind + " '" + name + "'");
+            }
+            definitions.add(definition);
+        }
+        return definitions;
+    }
+
+    /**
+     * Reads the named arguments of a predicate or filter. Arrays are joined with commas,
+     * which the gateway binds to list properties.
+     */
+    private Map<String, String> args(String routeId, String kind, JsonNode args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (args.isMissingNode() || args.isNull()) {
+            return values;
+        }
+        if (!args.isObject()) {
+            throw new InvalidRouteDefinitionException(routeId, "the args of a " + kind + " must be an object");
+        }
+        Iterator<Map.Entry<String, JsonNode>> fields = args.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode arg = field.getValue();
+            if (arg.isValueNode()) {
+                values.put(field.getKey(), arg.asText());
+            } else if (arg.isArray()) {
+                List<String> items = new ArrayList<>();
+                arg.forEach(item -> items.add(item.asText()));
+                values.put(field.getKey(), String.join(",", items));
+            } else {
+                throw new InvalidRouteDefinitionException(routeId,
+                        "the arg '" + field.getKey() + "' of a " + kind + " must be a value or an array");
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Indicates whether the column holds the JSON format.
+     */
+    private static boolean isJson(String value) {
+        return value.trim().startsWith("[");
+    }
+
+    /**
+     * Collects the names of the known factories.
+     */
+    private static Set<String> names(Stream<String> names) {
+        return names.collect(Collectors.toSet());
+    }
+
+    /**
+     * Creates a definition from its name and arguments.
+     */
+    @FunctionalInterface
+    private interface DefinitionFactory<T> {
+
+        /**
+         * Creates the definition.
+         */
+        T create(String name, Map<String, String> args);
+    }
+}
@@ -0,0 +1,102 @@
+package com.brihaspathee.sapphire.route;
+
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.http.server.PathContainer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 2:20 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The routes of the gateway in precedence order, indexed by their path patterns.
+ * Routes without a Path predicate, for e.g. routes defined in the configuration files
+ * with only a Host predicate, cannot be indexed and are candidates for every request.
+ */
+public final class RouteIndex {
+
+    /**
+     * The routes in the order the gateway evaluates them, i.e. by route order.
+     */
+    private final Route[] routes;
+
+    /**
+     * The trie over the path patterns of the indexed routes.
+     */
+    private final RouteTrie trie;
+
+    /**
+     * The ranks of the routes that are not indexed.
+     */
+    private final BitSet unindexed;
+
+    /**
+     * Creates an index.
+     */
+    private RouteIndex(Route[] routes, RouteTrie trie, BitSet unindexed) {
+        this.routes = routes;
+        this.trie = trie;
+        this.unindexed = unindexed;
+    }
+
+    /**
+     * Builds the index of the given routes. The path patterns are taken from the route
+     * definitions the routes were built from. A route matches a request only if its Path
+     * predicate does, so the route can be indexed by its patterns whatever its other
+     * predicates are.
+     *
+     * @param routes the routes in the order the gateway evaluates them
+     * @param routeDefinitionsById the route definitions keyed by route id
+     * @return the index
+     */
+    public static RouteIndex build(List<Route> routes, Map<String, RouteDefinition> routeDefinitionsById) {
+        RouteTrie.Builder trie = RouteTrie.builder();
+        BitSet unindexed = new BitSet(routes.size());
+        for (int rank = 0; rank < routes.size(); rank++) {
+            List<String> patterns = RouteDefinitionParser.pathPatterns(routeDefinitionsById.get(routes.get(rank).getId()));
+            if (patterns.isEmpty()) {
+                unindexed.set(rank);
+                continue;
+            }
+            for (String pattern : patterns) {
+                trie.add(rank, pattern);
+            }
+        }
+        return new RouteIndex(routes.toArray(new Route[0]), trie.build(), unindexed);
+    }
+
+    /**
+     * Returns the routes whose predicates have to be applied to find the route for the path,
+     * in the order the gateway evaluates them.
+     *
+     * @param path the path of the request
+     * @return the candidate routes
+     */
+    public List<Route> candidates(PathContainer path) {
+        BitSet ranks = (BitSet) unindexed.clone();
+        trie.collectCandidates(path, ranks);
+        List<Route> candidates = new ArrayList<>(ranks.cardinality());
+        for (int rank = ranks.nextSetBit(0); rank >= 0; rank = ranks.nextSetBit(rank + 1)) {
+            candidates.add(routes[rank]);
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the number of routes in the index.
+     *
+     * @return the number of routes
+     */
+    public int size() {
+        return routes.length;
+    }
+}
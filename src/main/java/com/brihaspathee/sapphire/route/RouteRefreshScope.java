@@ -0,0 +1,59 @@
+package com.brihaspathee.sapphire.route;
+
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 10:05 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Scopes a {@code RefreshRoutesEvent} to a single route. The gateway refreshes the routes
+ * whose metadata matches the event metadata, comparing the values one key at a time.
+ * Every route definition carries its route id under {@link #METADATA_KEY}, so an event
+ * carrying a route id under the same key matches the old and the new version of that
+ * route and leaves every other route in the gateway's cache untouched. A change to
+ * several routes is published as one event per route.
+ */
+public final class RouteRefreshScope {
+
+    /**
+     * The metadata key under which the route id is stored.
+     */
+    public static final String METADATA_KEY = "sapphire.route-key";
+
+    private RouteRefreshScope() {
+    }
+
+    /**
+     * Returns the metadata that scopes a refresh event to the given route, which is also
+     * what every route definition carries under {@link #METADATA_KEY}.
+     *
+     * @param routeId the id of the route
+     * @return the metadata matching the route
+     */
+    public static Map<String, Object> metadataFor(String routeId) {
+        return Map.of(METADATA_KEY, routeId);
+    }
+
+    /**
+     * Returns the refresh events rebuilding the given routes, one per route.
+     *
+     * @param source the publisher of the events
+     * @param routeIds the ids of the routes that were added, updated or removed
+     * @return the scoped refresh events, in the order of the route ids
+     */
+    public static List<RefreshRoutesEvent> eventsFor(Object source, Set<String> routeIds) {
+        return routeIds.stream()
+                .sorted()
+                .map(routeId -> new RefreshRoutesEvent(source, metadataFor(routeId)))
+                .toList();
+    }
+}
@@ -0,0 +1,112 @@
+package com.brihaspathee.sapphire.route;
+
+import lombok.Getter;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 9:10 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ */
+@Getter
+public final class RouteSnapshot {
+
+    /**
+     * The snapshot served before the routes are loaded for the first time.
+     */
+    public static final RouteSnapshot EMPTY = new RouteSnapshot(0, List.of(), Instant.EPOCH, Set.of());
+
+    /**
+     * The version of the route table, incremented every time a new snapshot is swapped in.
+     */
+    private final long version;
+
+    /**
+     * The route definitions of the enabled routes. The list is immutable and is
+     * never modified after the snapshot is built.
+     */
+    private final List<RouteDefinition> routeDefinitions;
+
+    /**
+     * The time at which the routes were loaded.
+     */
+    private final Instant loadedAt;
+
+    /**
+     * The ids of the routes that were added, updated or removed compared to the
+     * snapshot this one replaced.
+     */
+    private final Set<String> changedRouteIds;
+
+    /**
+     * The route definitions keyed by route id.
+     */
+    private final Map<String, RouteDefinition> routeDefinitionsById;
+
+    /**
+     * Creates a snapshot of the given route definitions.
+     *
+     * @param version the version of the route table
+     * @param routeDefinitions the route definitions of the enabled routes
+     * @param loadedAt the time at which the routes were loaded
+     * @param changedRouteIds the ids of the routes that changed compared to the previous snapshot
+     */
+    private RouteSnapshot(long version,
+                          List<RouteDefinition> routeDefinitions,
+                          Instant loadedAt,
+                          Set<String> changedRouteIds) {
+        this.version = version;
+        this.routeDefinitions = List.copyOf(routeDefinitions);
+        this.loadedAt = loadedAt;
+        this.changedRouteIds = Set.copyOf(changedRouteIds);
+        Map<String, RouteDefinition> byId = new LinkedHashMap<>();
+        this.routeDefinitions.forEach(routeDefinition -> byId.put(routeDefinition.getId(), routeDefinition));
+        this.routeDefinitionsById = Map.copyOf(byId);
+    }
+
+    /**
+     * Creates the snapshot that replaces this one with the given route definitions.
+     * The new snapshot gets the next version and records which routes differ from this one.
+     *
+     * @param routeDefinitions the route definitions of the enabled routes
+     * @param loadedAt the time at which the routes were loaded
+     * @return the next snapshot
+     */
+    public RouteSnapshot next(List<RouteDefinition> routeDefinitions, Instant loadedAt) {
+        Map<String, RouteDefinition> byId = new LinkedHashMap<>();
+        routeDefinitions.forEach(routeDefinition -> byId.put(routeDefinition.getId(), routeDefinition));
+        Set<String> changed = new HashSet<>();
+        byId.forEach((routeId, routeDefinition) -> {
+            if (!Objects.equals(routeDefinition, routeDefinitionsById.get(routeId))) {
+                changed.add(routeId);
+            }
+        });
+        routeDefinitionsById.keySet().forEach(routeId -> {
+            if (!byId.containsKey(routeId)) {
+                changed.add(routeId);
+            }
+        });
+        return new RouteSnapshot(version + 1, routeDefinitions, loadedAt, changed);
+    }
+
+    /**
+     * Indicates whether any route differs from the snapshot this one replaced.
+     *
+     * @return true if at least one route was added, updated or removed
+     */
+    public boolean hasChanges() {
+        return !changedRouteIds.isEmpty();
+    }
+}
@@ -0,0 +1,257 @@
+package com.brihaspathee.sapphire.route;
+
+import com.brihaspathee.sapphire.config.RouteConfig;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/20/26
+ * Time: 11:00 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The local file holding the last route definitions loaded from the database, so the
+ * gateway can serve them when it starts while the database is unavailable or still
+ * warming up. The file starts with a header line holding the format, the time the routes
+ * were loaded and the SHA-256 checksum of the rest of the file, which is the compact JSON
+ * of the route definitions:
+ * <pre>
+ * sapphire-routes 1 2026-10-20T11:00:00Z 9f86d081884c7d65...
+ * [{"id":"member-management","uri":"lb://MEMBER-MANAGEMENT",...}]
+ * </pre>
+ * The file is written to a temporary file that is moved over the previous one, so a
+ * reader never sees a partially written file; a file whose checksum does not match is
+ * ignored. The modification time of the file records when its routes were last
+ * confirmed against the database, and a file older than the configured maximum age is
+ * not served. All the methods do blocking file IO and must not run on an event loop.
+ */
+@Slf4j
+@Component
+public class RouteSnapshotFile {
+
+    /**
+     * The first word of the header line.
+     */
+    private static final String MAGIC = "sapphire-routes";
+
+    /**
+     * The version of the file format.
+     */
+    private static final int FORMAT = 1;
+
+    /**
+     * The type of the route definitions in the file.
+     */
+    private static final TypeReference<List<RouteDefinition>> ROUTE_DEFINITIONS = new TypeReference<>() {};
+
+    /**
+     * The object mapper used to write and read the route definitions.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The route refresh configuration.
+     */
+    private final RouteConfig routeConfig;
+
+    /**
+     * Constructs an instance of the RouteSnapshotFile.
+     */
+    public RouteSnapshotFile(ObjectMapper objectMapper, RouteConfig routeConfig) {
+        this.objectMapper = objectMapper;
+        this.routeConfig = routeConfig;
+    }
+
+    /**
+     * Writes the given route definitions to the file, replacing the previous ones.
+     * A failure is logged and otherwise ignored, the routes are still served from memory.
+     *
+     * @param routeDefinitions the route definitions loaded from the database
+     * @param loadedAt the time at which the routes were loaded
+     */
+    public void write(List<RouteDefinition> routeDefinitions, Instant loadedAt) {
+        if (!routeConfig.getSnapshotFile().isEnabled()) {
+            return;
+        }
+        Path path = path();
+        Path temporary = null;
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(routeDefinitions);
+            byte[] header = (MAGIC + " " + FORMAT + " " + loadedAt + " " + checksum(body) + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer[] buffers = {ByteBuffer.wrap(header), ByteBuffer.wrap(body)};
+                while (buffers[1].hasRemaining()) {
+                    channel.write(buffers);
+                }
+                channel.force(true);
+            }
+            move(temporary, path);
+            log.debug("Wrote {} routes to {}", routeDefinitions.size(), path);
+        } catch (IOException e) {
+            log.warn("Unable to write the route snapshot file {}", path, e);
+            deleteQuietly(temporary);
+        }
+    }
+
+    /**
+     * Records that the routes in the file were confirmed against the database just now,
+     * which restarts the maximum age of the file without rewriting it.
+     */
+    public void touch() {
+        if (!routeConfig.getSnapshotFile().isEnabled()) {
+            return;
+        }
+        Path path = path();
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+        } catch (NoSuchFileException e) {
+            // nothing was written yet
+        } catch (IOException e) {
+            log.warn("Unable to update the route snapshot file {}", path, e);
+        }
+    }
+
+    /**
+     * Reads the route definitions from the file. Nothing is returned if the file is
+     * disabled, missing, older than the maximum age, or fails its checksum.
+     *
+     * @return the route definitions of the file and the time they were loaded at
+     */
+    public Optional<Contents> read() {
+        if (!routeConfig.getSnapshotFile().isEnabled()) {
+            return Optional.empty();
+        }
+        Path path = path();
+        try {
+            Duration age = Duration.between(Files.getLastModifiedTime(path).toInstant(), Instant.now());
+            if (age.compareTo(routeConfig.getSnapshotFile().getMaxAge()) > 0) {
+                log.warn("Ignoring the route snapshot file {}, its routes were last confirmed {} ago", path, age);
+                return Optional.empty();
+            }
+            byte[] bytes = Files.readAllBytes(path);
+            int newline = indexOf(bytes, (byte) '\n');
+            String[] header = newline < 0 ? new String[0]
+                    : new String(bytes, 0, newline, StandardCharsets.UTF_8).split(" ");
+            if (header.length != 4 || !MAGIC.equals(header[0]) || !String.valueOf(FORMAT).equals(header[1])) {
+                log.warn("Ignoring the route snapshot file {}, it is not a route snapshot", path);
+                return Optional.empty();
+            }
+            byte[] body = Arrays.copyOfRange(bytes, newline + 1, bytes.length);
+            if (!checksum(body).equals(header[3])) {
+                log.warn("Ignoring the route snapshot file {}, its checksum does not match", path);
+                return Optional.empty();
+            }
+            List<RouteDefinition> routeDefinitions = objectMapper.readValue(body, ROUTE_DEFINITIONS);
+            return Optional.of(new Contents(routeDefinitions, Instant.parse(header[2])));
+        } catch (NoSuchFileException e) {
+            log.info("No route snapshot file at {}", path);
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring the route snapshot file {}, it cannot be read", path, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Moves the written file over the previous one, atomically where the file system allows it.
+     */
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Deletes the given file, if any, ignoring failures.
+     */
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Unable to delete {}", path, e);
+        }
+    }
+
+    /**
+     * Returns the hex encoded SHA-256 checksum of the given bytes.
+     */
+    private static String checksum(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Returns the index of the first occurrence of the given byte, -1 if there is none.
+     */
+    private static int indexOf(byte[] bytes, byte value) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the path of the file.
+     */
+    private Path path() {
+        return Path.of(routeConfig.getSnapshotFile().getPath());
+    }
+
+    /**
+     * The route definitions read from the file.
+     */
+    @Value
+    public static class Contents {
+
+        /**
+         * The route definitions.
+         */
+        List<RouteDefinition> routeDefinitions;
+
+        /**
+         * The time at which the routes were loaded from the database.
+         */
+        Instant loadedAt;
+    }
+}
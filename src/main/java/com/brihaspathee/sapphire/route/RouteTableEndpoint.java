@@ -0,0 +1,127 @@
+package com.brihaspathee.sapphire.route;
+
+import com.brihaspathee.sapphire.domain.entity.Route;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/20/26
+ * Time: 4:40 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "routetable")
+public class RouteTableEndpoint {
+
+    /**
+     * The repository serving the route definitions to the gateway.
+     */
+    private final SapphireRouteDefinitionRepository routeDefinitionRepository;
+
+    /**
+     * The object mapper used to write predicates and filters given as JSON arrays.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Returns the version of the route table served by this gateway node.
+     * For e.g. GET /actuator/routetable
+     *
+     * @return the version, the number of routes and the time they were loaded
+     */
+    @ReadOperation
+    public Map<String, Object> version() {
+        return describe(routeDefinitionRepository.getSnapshot());
+    }
+
+    /**
+     * Applies a batch of route changes in a single transaction and refreshes only the
+     * routes that changed. The whole batch is rejected if any change is invalid.
+     * For e.g. POST /actuator/routetable with
+     * <pre>
+     * {"save": [{"routeId": "member-management", "uri": "lb://MEMBER-MANAGEMENT",
+     *            "predicates": ["Path=/api/v1/sapphire/mms/secured/**"], "filters": ["AuthenticationFilter"],
+     *            "routeOrder": 0, "loadBalancer": "LEAST_LATENCY", "streaming": false}],
+     *  "delete": ["premium-billing"]}
+     * </pre>
+     * A saved route is enabled unless it carries "enabled": false.
+     *
+     * @param save the routes to add, or to replace the routes with the same route id
+     * @param delete the ids of the routes to delete
+     * @return the new version of the route table and the routes that were refreshed
+     */
+    @WriteOperation
+    public Mono<Map<String, Object>> apply(@Nullable List<Map<String, Object>> save, @Nullable List<String> delete) {
+        List<Route> saves = new ArrayList<>();
+        if (save != null) {
+            save.forEach(change -> saves.add(toRoute(change)));
+        }
+        return routeDefinitionRepository.apply(saves, delete != null ? delete : List.of())
+                .map(this::describe)
+                .onErrorMap(InvalidRouteDefinitionException.class,
+                        e -> new InvalidEndpointRequestException(e.getMessage(), e.getMessage()));
+    }
+
+    /**
+     * Describes the given snapshot.
+     */
+    private Map<String, Object> describe(RouteSnapshot snapshot) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("version", snapshot.getVersion());
+        description.put("routes", snapshot.getRouteDefinitions().size());
+        description.put("loadedAt", snapshot.getLoadedAt());
+        description.put("changedRoutes", snapshot.getChangedRouteIds());
+        return description;
+    }
+
+    /**
+     * Converts a route change of the request body into a Route entity.
+     */
+    private Route toRoute(Map<String, Object> change) {
+        Object routeOrder = change.get("routeOrder");
+        Object loadBalancer = change.get("loadBalancer");
+        return Route.builder()
+                .routeId(change.get("routeId") != null ? change.get("routeId").toString() : null)
+                .uri(change.get("uri") != null ? change.get("uri").toString() : null)
+                .predicates(column(change.get("predicates")))
+                .filters(change.get("filters") != null ? column(change.get("filters")) : "[]")
+                .enabled(!Boolean.FALSE.equals(change.get("enabled")))
+                .routeOrder(routeOrder instanceof Number number ? number.intValue() : 0)
+                .loadBalancer(loadBalancer != null ? loadBalancer.toString() : null)
+                .streaming(Boolean.TRUE.equals(change.get("streaming")))
+                .build();
+    }
+
+    /**
+     * Returns the value of the predicates or filters column for the given value of the
+     * request body, which is either the column as is or a JSON array.
+     */
+    private String column(Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new InvalidEndpointRequestException("Invalid predicates or filters " + value, "Invalid predicates or filters");
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.brihaspathee.sapphire.route;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/17/26
+ * Time: 3:30 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ */
+public final class RouteTemplateMatcher {
+
+    /**
+     * The kind of a segment of the path template.
+     */
+    private enum Kind {
+        /**
+         * A literal segment or a single segment wildcard (`*`, `?`), copied from the request path.
+         */
+        COPY,
+        /**
+         * A segment that contains one or more variables, for e.g. `{organizationId}`.
+         */
+        VARIABLE,
+        /**
+         * A `**` segment, the rest of the request path is copied as is.
+         */
+        REST,
+        /**
+         * A `{*name}` segment, the rest of the request path is replaced by the variable.
+         */
+        CAPTURE_REST
+    }
+
+    /**
+     * The path template the matcher was compiled from.
+     */
+    @Getter
+    private final String template;
+
+    /**
+     * The kinds of the segments of the template.
+     */
+    private final Kind[] kinds;
+
+    /**
+     * The text written to the validation path for the variable segments,
+     * including the leading slash. Null for the other segments.
+     */
+    private final String[] replacements;
+
+    /**
+     * Indicates whether the template has any variables. Paths matched by
+     * templates without variables are returned as is.
+     */
+    private final boolean hasVariables;
+
+    /**
+     * Creates a matcher from the compiled segments.
+     */
+    private RouteTemplateMatcher(String template, Kind[] kinds, String[] replacements, boolean hasVariables) {
+        this.template = template;
+        this.kinds = kinds;
+        this.replacements = replacements;
+        this.hasVariables = hasVariables;
+    }
+
+    /**
+     * Compiles a path template such as
+     * `/api/v1/sapphire/provider/private/organization/{organizationId}/**`.
+     * Regular expressions in the variables are dropped from the validation path,
+     * i.e. `{id:\d+}` is written as `{id}`.
+     *
+     * @param template the path template of the route predicate
+     * @return the compiled matcher
+     */
+    public static RouteTemplateMatcher compile(String template) {
+        String trimmed = template.trim();
+        List<Kind> kinds = new ArrayList<>();
+        List<String> replacements = new ArrayList<>();
+        boolean hasVariables = false;
+        for (String segment : trimmed.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.equals("**")) {
+                kinds.add(Kind.REST);
+                replacements.add(null);
+                break;
+            }
+            if (segment.startsWith("{*") && segment.endsWith("}")) {
+                kinds.add(Kind.CAPTURE_REST);
+                replacements.add("/{" + segment.substring(2, segment.length() - 1) + "}");
+                hasVariables = true;
+                break;
+            }
+            if (segment.indexOf('{') >= 0) {
+                kinds.add(Kind.VARIABLE);
+                replacements.add("/" + stripRegex(segment));
+                hasVariables = true;
+            } else {
+                kinds.add(Kind.COPY);
+                replacements.add(null);
+            }
+        }
+        return new RouteTemplateMatcher(trimmed,
+                kinds.toArray(new Kind[0]),
+                replacements.toArray(new String[0]),
+                hasVariables);
+    }
+
+    /**
+     * Maps a request path matched by the template back to the template, i.e. the
+     * values of the variables are replaced by the variable names while the literal
+     * and wildcard segments keep the values of the request path. For e.g. the path
+     * `/organization/123/member/123/address` matched by
+     * `/organization/{organizationId}/member/{memberId}/**` is mapped to
+     * `/organization/{organizationId}/member/{memberId}/address`.
+     * The segments are replaced by position, so repeated values and values that also
+     * appear elsewhere in the path are handled correctly. Templates without variables
+     * return the path itself; otherwise the resulting string is the only allocation.
+     *
+     * @param path the request path matched by the template
+     * @return the validation path
+     */
+    public String toTemplatePath(String path) {
+        if (!hasVariables) {
+            return path;
+        }
+        int length = path.length();
+        StringBuilder validationPath = new StringBuilder(length + template.length());
+        int position = 0;
+        for (int i = 0; i < kinds.length && position < length; i++) {
+            int start = position;
+            int end = path.indexOf('/', start + 1);
+            if (end < 0) {
+                end = length;
+            }
+            switch (kinds[i]) {
+                case COPY -> {
+                    validationPath.append(path, start, end);
+                    position = end;
+                }
+                case VARIABLE -> {
+                    validationPath.append(replacements[i]);
+                    position = end;
+                }
+                case REST -> {
+                    validationPath.append(path, start, length);
+                    position = length;
+                }
+                case CAPTURE_REST -> {
+                    validationPath.append(replacements[i]);
+                    position = length;
+                }
+            }
+        }
+        if (position < length) {
+            validationPath.append(path, position, length);
+        }
+        return validationPath.toString();
+    }
+
+    /**
+     * Removes the regular expressions from the variables of a segment.
+     */
+    private static String stripRegex(String segment) {
+        StringBuilder stripped = new StringBuilder(segment.length());
+        int depth = 0;
+        boolean inRegex = false;
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c == '{') {
+                depth++;
+                if (depth == 1) {
+                    stripped.append(c);
+                }
+                continue;
+            }
+            if (c == '}') {
+                depth--;
+                if (depth == 0) {
+                    inRegex = false;
+                    stripped.append(c);
+                }
+                continue;
+            }
+            if (depth == 1 && c == ':') {
+                inRegex = true;
+                continue;
+            }
+            if (!inRegex && depth <= 1) {
+                stripped.append(c);
+            }
+        }
+        return stripped.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.brihaspathee.sapphire.route;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/17/26
+ * Time: 3:55 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ */
+@Component
+public class RouteTemplateRegistry {
+
+    /**
+     * The compiled matchers keyed by the path template they were compiled from.
+     */
+    private final Map<String, RouteTemplateMatcher> matchers = new ConcurrentHashMap<>();
+
+    /**
+     * Compiles the path templates of the loaded routes. Templates that are no longer
+     * used by any route are dropped so the registry does not grow across refreshes.
+     *
+     * @param templates the path templates of all the loaded routes
+     */
+    public void update(Collection<String> templates) {
+        for (String template : templates) {
+            matchers.computeIfAbsent(template, RouteTemplateMatcher::compile);
+        }
+        matchers.keySet().retainAll(templates);
+    }
+
+    /**
+     * Returns the matcher for the path template that matched the request. Templates
+     * that were not registered at load time (for e.g. routes defined in the configuration
+     * files) are compiled on first use.
+     *
+     * @param template the path template that matched the request
+     * @return the compiled matcher
+     */
+    public RouteTemplateMatcher matcherFor(String template) {
+        RouteTemplateMatcher matcher = matchers.get(template);
+        return matcher != null ? matcher : matchers.computeIfAbsent(template, RouteTemplateMatcher::compile);
+    }
+}
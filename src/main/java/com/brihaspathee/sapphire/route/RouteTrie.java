@@ -0,0 +1,201 @@
+package com.brihaspathee.sapphire.route;
+
+import org.springframework.http.server.PathContainer;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 2:00 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ *
+ * A segment trie over the path patterns of the routes. Each route is identified by its
+ * rank, i.e. its position in the ordered route table, so the candidates found for a path
+ * come out in route order. The trie only narrows down the routes worth evaluating: any
+ * segment with a variable or wildcard matches every value, so the candidates are a
+ * superset of the matching routes and their predicates must still be applied.
+ */
+public final class RouteTrie {
+
+    /**
+     * The root of the trie, i.e. the node for the path "/".
+     */
+    private final Node root;
+
+    /**
+     * Creates a trie with the given root.
+     */
+    private RouteTrie(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Creates a builder for a new trie.
+     *
+     * @return the builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Adds the ranks of the routes whose patterns can match the path to the given set.
+     * The work done is proportional to the depth of the path, times the number of
+     * wildcard branches that are live at the same depth.
+     *
+     * @param path the path of the request
+     * @param candidates the set the ranks of the candidate routes are added to
+     */
+    public void collectCandidates(PathContainer path, BitSet candidates) {
+        List<PathContainer.Element> elements = path.elements();
+        collect(root, elements, 0, candidates);
+    }
+
+    /**
+     * Walks the trie from the given node for the segments of the path starting at the given element.
+     */
+    private static void collect(Node node, List<PathContainer.Element> elements, int index, BitSet candidates) {
+        addAll(node.rest, candidates);
+        int next = nextSegment(elements, index);
+        if (next < 0) {
+            addAll(node.terminal, candidates);
+            return;
+        }
+        String segment = ((PathContainer.PathSegment) elements.get(next)).valueToMatch();
+        Node literal = node.literals.get(segment);
+        if (literal != null) {
+            collect(literal, elements, next + 1, candidates);
+        }
+        if (node.wildcard != null) {
+            collect(node.wildcard, elements, next + 1, candidates);
+        }
+    }
+
+    /**
+     * Returns the index of the next non-empty path segment, or -1 if there is none.
+     * Separators and empty segments (trailing or doubled slashes) are skipped.
+     */
+    private static int nextSegment(List<PathContainer.Element> elements, int index) {
+        for (int i = index; i < elements.size(); i++) {
+            if (elements.get(i) instanceof PathContainer.PathSegment segment && !segment.valueToMatch().isEmpty()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds the ranks to the set.
+     */
+    private static void addAll(int[] ranks, BitSet candidates) {
+        for (int rank : ranks) {
+            candidates.set(rank);
+        }
+    }
+
+    /**
+     * A node of the trie.
+     */
+    private static final class Node {
+
+        /**
+         * The children for literal segments.
+         */
+        private final Map<String, Node> literals = new HashMap<>();
+
+        /**
+         * The child for segments with a variable or a wildcard.
+         */
+        private Node wildcard;
+
+        /**
+         * The ranks of the routes whose pattern ends at this node.
+         */
+        private int[] terminal = new int[0];
+
+        /**
+         * The ranks of the routes whose pattern matches anything below this node (`**` or `{*name}`).
+         */
+        private int[] rest = new int[0];
+    }
+
+    /**
+     * Builds a trie from the path patterns of the routes.
+     */
+    public static final class Builder {
+
+        /**
+         * The root of the trie being built.
+         */
+        private final Node root = new Node();
+
+        /**
+         * Creates a builder.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Adds a path pattern of the route with the given rank.
+         *
+         * @param rank the position of the route in the ordered route table
+         * @param pattern the path pattern of the route
+         * @return this builder
+         */
+        public Builder add(int rank, String pattern) {
+            Node node = root;
+            for (String segment : pattern.trim().split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                if (segment.equals("**") || (segment.startsWith("{*") && segment.endsWith("}"))) {
+                    node.rest = append(node.rest, rank);
+                    return this;
+                }
+                if (isWildcard(segment)) {
+                    if (node.wildcard == null) {
+                        node.wildcard = new Node();
+                    }
+                    node = node.wildcard;
+                } else {
+                    node = node.literals.computeIfAbsent(segment, s -> new Node());
+                }
+            }
+            node.terminal = append(node.terminal, rank);
+            return this;
+        }
+
+        /**
+         * Builds the trie.
+         *
+         * @return the trie
+         */
+        public RouteTrie build() {
+            return new RouteTrie(root);
+        }
+
+        /**
+         * Indicates whether the segment matches more than one literal value.
+         */
+        private static boolean isWildcard(String segment) {
+            return segment.indexOf('{') >= 0 || segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0;
+        }
+
+        /**
+         * Appends the rank to the array.
+         */
+        private static int[] append(int[] ranks, int rank) {
+            int[] appended = Arrays.copyOf(ranks, ranks.length + 1);
+            appended[ranks.length] = rank;
+            return appended;
+        }
+    }
+}
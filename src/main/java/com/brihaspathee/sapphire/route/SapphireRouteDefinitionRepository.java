@@ -2,20 +2,35 @@ package com.brihaspathee.sapphire.route;
 
 import com.brihaspathee.sapphire.domain.entity.Route;
 import com.brihaspathee.sapphire.domain.repository.RouteRepository;
+import com.brihaspathee.sapphire.domain.repository.RouteTableFingerprint;
+import com.brihaspathee.sapphire.loadbalancer.LoadBalancingStrategy;
+import com.brihaspathee.sapphire.loadbalancer.SapphireLoadBalancer;
+import com.brihaspathee.sapphire.streaming.StreamingBodyFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cloud.gateway.filter.FilterDefinition;
-import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
 import org.springframework.cloud.gateway.route.RouteDefinition;
 import org.springframework.cloud.gateway.route.RouteDefinitionRepository;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.net.URI;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Created in Intellij IDEA
@@ -38,85 +53,389 @@ public class SapphireRouteDefinitionRepository implements RouteDefinitionReposit
      */
     private final RouteRepository routeRepository;
 
+    /**
+     * The registry of the compiled path templates of the routes, used by the
+     * AuthenticationFilter to map a request path back to the route template.
+     */
+    private final RouteTemplateRegistry routeTemplateRegistry;
+
+    /**
+     * The parser of the predicates and filters columns of the routes table.
+     */
+    private final RouteDefinitionParser routeDefinitionParser;
+
+    /**
+     * The scheduler the blocking JPA calls run on, see BeansConfig#jdbcScheduler.
+     */
+    private final Scheduler jdbcScheduler;
+
+    /**
+     * The local file the loaded routes are written to and restored from when the
+     * database is unavailable.
+     */
+    private final RouteSnapshotFile routeSnapshotFile;
+
+    /**
+     * Runs the changes made through the gateway in a single database transaction.
+     */
+    private final TransactionOperations transactionOperations;
+
+    /**
+     * Publishes the refresh of the routes changed through the gateway.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The snapshot of the route definitions currently served to the gateway.
+     * It is only ever replaced as a whole, never modified in place.
+     */
+    private final AtomicReference<RouteSnapshot> snapshot = new AtomicReference<>(RouteSnapshot.EMPTY);
+
+    /**
+     * The fingerprint of the routes table when the current snapshot was loaded.
+     */
+    private final AtomicReference<RouteTableFingerprint> fingerprint = new AtomicReference<>();
 
     /**
-     * Retrieves the list of active route definitions from the route repository.
+     * Retrieves the active route definitions from the current in-memory snapshot.
+     * This never touches the database so it is safe to call from an event loop thread;
+     * the snapshot is rebuilt by {@link #reload()}, first when the SapphireRouteRefresher
+     * starts.
      *
      * @return a Flux containing the active route definitions.
      */
     @Override
     public Flux<RouteDefinition> getRouteDefinitions() {
-        log.info("Retrieving Routes");
-        List<RouteDefinition> routeDefinitions = routeRepository.findByEnabledTrue()
-                .stream()
-                .map(this::convertToRouteDefinition)
-                .toList();
-        return Flux.fromIterable(routeDefinitions);
+        return Flux.fromIterable(snapshot.get().getRouteDefinitions());
+    }
+
+    /**
+     * Returns the snapshot of the route definitions currently served to the gateway.
+     *
+     * @return the current route snapshot
+     */
+    public RouteSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Checks whether the routes table changed since the current snapshot was loaded.
+     * Only the row count and the latest change time are read, the routes themselves
+     * are not loaded. When nothing changed the snapshot file is marked as confirmed
+     * against the database. The query runs on the JDBC scheduler.
+     *
+     * @return a Mono emitting true if the routes table changed
+     */
+    public Mono<Boolean> hasChanged() {
+        return Mono.fromCallable(() -> {
+                    boolean changed = !routeRepository.findFingerprint().equals(fingerprint.get());
+                    if (!changed) {
+                        routeSnapshotFile.touch();
+                    }
+                    return changed;
+                })
+                .subscribeOn(jdbcScheduler);
+    }
+
+    /**
+     * Rebuilds the snapshot from the enabled routes in the database and swaps it in
+     * if any route was added, updated or removed. The blocking JPA calls run on the
+     * JDBC scheduler so the caller's thread is never blocked; until the new
+     * snapshot is swapped in the gateway keeps being served from the previous one.
+     * Every loaded route set is also written to the snapshot file.
+     *
+     * @return a Mono emitting the new snapshot, or an empty Mono if nothing changed
+     */
+    public Mono<RouteSnapshot> reload() {
+        return Mono.fromCallable(() -> {
+                    RouteTableFingerprint loadedFingerprint = routeRepository.findFingerprint();
+                    List<Route> routes = routeRepository.findByEnabledTrue();
+                    return swap(loadedFingerprint, routes);
+                })
+                .subscribeOn(jdbcScheduler)
+                .filter(RouteSnapshot::hasChanges);
+    }
+
+    /**
+     * Builds the route definitions of the loaded routes and swaps in the next snapshot
+     * when they differ from the current one, writing it to the snapshot file.
+     *
+     * @param loadedFingerprint the fingerprint of the routes table read before the routes
+     * @param routes the enabled routes
+     * @return the new snapshot, or the current snapshot if nothing changed
+     */
+    private synchronized RouteSnapshot swap(RouteTableFingerprint loadedFingerprint, List<Route> routes) {
+        RouteSnapshot current = snapshot.get();
+        List<RouteDefinition> routeDefinitions = new ArrayList<>(routes.size());
+        for (Route route : routes) {
+            try {
+                routeDefinitions.add(convertToRouteDefinition(route));
+            } catch (InvalidRouteDefinitionException e) {
+                // keep serving the last valid definition of the route, if there is one
+                RouteDefinition previous = current.getRouteDefinitionsById().get(route.getRouteId());
+                log.error("{}, {}", e.getMessage(), previous != null ? "keeping its previous definition" : "skipping it", e);
+                if (previous != null) {
+                    routeDefinitions.add(previous);
+                }
+            }
+        }
+        RouteSnapshot next = current.next(routeDefinitions, Instant.now());
+        fingerprint.set(loadedFingerprint);
+        if (!next.hasChanges()) {
+            routeSnapshotFile.touch();
+            return next;
+        }
+        routeTemplateRegistry.update(pathTemplates(routeDefinitions));
+        snapshot.set(next);
+        routeSnapshotFile.write(next.getRouteDefinitions(), next.getLoadedAt());
+        log.info("Loaded {} routes, route table version {}, changed routes {}",
+                routeDefinitions.size(), next.getVersion(), next.getChangedRouteIds());
+        return next;
     }
 
     /**
-     * Persists the provided route definition.
+     * Serves the routes of the snapshot file until they can be loaded from the database.
+     * Only applies while no routes were loaded yet; the next check of the routes table
+     * always reports a change, so the routes are reloaded from the database as soon as it
+     * is reachable. This reads the file on the caller's thread, never call it from an
+     * event loop.
+     *
+     * @return the restored snapshot, or an empty Optional if there was nothing to restore
+     */
+    public synchronized Optional<RouteSnapshot> restore() {
+        if (snapshot.get() != RouteSnapshot.EMPTY) {
+            return Optional.empty();
+        }
+        return routeSnapshotFile.read().map(contents -> {
+            RouteSnapshot restored = RouteSnapshot.EMPTY.next(contents.getRouteDefinitions(), contents.getLoadedAt());
+            routeTemplateRegistry.update(pathTemplates(restored.getRouteDefinitions()));
+            snapshot.set(restored);
+            log.info("Restored {} routes loaded at {} from the route snapshot file",
+                    restored.getRouteDefinitions().size(), contents.getLoadedAt());
+            return restored;
+        });
+    }
+
+    /**
+     * Collects the path templates of the Path predicates of the given route definitions.
+     *
+     * @param routeDefinitions the route definitions
+     * @return the distinct path templates used by the routes
+     */
+    private Set<String> pathTemplates(List<RouteDefinition> routeDefinitions) {
+        Set<String> templates = new HashSet<>();
+        for (RouteDefinition routeDefinition : routeDefinitions) {
+            templates.addAll(RouteDefinitionParser.pathPatterns(routeDefinition));
+        }
+        return templates;
+    }
+
+    /**
+     * Persists the provided route definition as an enabled route, adding it or replacing
+     * the route with the same id, and refreshes it in the gateway. This is what the
+     * gateway actuator endpoint POST /actuator/gateway/routes/{id} calls.
      *
      * @param route the Mono emitting the route definition to be saved
      * @return a Mono indicating the completion of the save operation
      */
     @Override
     public Mono<Void> save(Mono<RouteDefinition> route) {
-        return Mono.empty();
+        return route.map(this::convertToRoute)
+                .flatMap(converted -> apply(List.of(converted), List.of()))
+                .then();
     }
 
     /**
-     * Deletes the resource associated with the given route ID.
+     * Deletes the route with the given id and removes it from the gateway.
      *
      * @param routeId a {@link Mono} emitting the route ID of the resource to be deleted
-     * @return a {@link Mono} signaling when the delete operation has completed
+     * @return a {@link Mono} signaling when the delete operation has completed, or a
+     * NotFoundException if there is no such route
      */
     @Override
     public Mono<Void> delete(Mono<String> routeId) {
-        return Mono.empty();
+        return routeId.flatMap(id -> apply(List.of(), List.of(id))
+                        .onErrorMap(UnknownRouteException.class,
+                                e -> new NotFoundException("RouteDefinition not found: " + id)))
+                .then();
+    }
+
+    /**
+     * Applies a batch of route changes. Every saved route is validated first and the
+     * batch is rejected as a whole if any of them is invalid or a deleted route does not
+     * exist. The changes are then written in a single transaction and the snapshot is
+     * reloaded, and a single refresh is published for the routes whose definitions
+     * changed, so the gateway rebuilds only those routes, once, however large the batch.
+     * The database calls run on the JDBC scheduler.
+     *
+     * @param saves the routes to add, or to replace the routes with the same route id
+     * @param deletes the ids of the routes to delete
+     * @return a Mono emitting the snapshot served once the changes are applied
+     * @throws InvalidRouteDefinitionException through the Mono if the batch is invalid
+     */
+    public Mono<RouteSnapshot> apply(List<Route> saves, Collection<String> deletes) {
+        return Mono.fromCallable(() -> {
+                    validate(saves, deletes);
+                    return transactionOperations.execute(status -> write(saves, deletes));
+                })
+                .subscribeOn(jdbcScheduler)
+                .then(Mono.defer(this::reload))
+                .doOnNext(reloaded -> {
+                    log.info("Refreshing routes {}", reloaded.getChangedRouteIds());
+                    RouteRefreshScope.eventsFor(this, reloaded.getChangedRouteIds())
+                            .forEach(eventPublisher::publishEvent);
+                })
+                // nothing to refresh, or a concurrent refresh already picked the changes up
+                .switchIfEmpty(Mono.fromSupplier(snapshot::get));
+    }
+
+    /**
+     * Checks a batch of route changes before anything is written.
+     *
+     * @param saves the routes to add or replace
+     * @param deletes the ids of the routes to delete
+     * @throws InvalidRouteDefinitionException if a route is invalid, appears twice in the
+     * batch, or is both saved and deleted
+     */
+    private void validate(List<Route> saves, Collection<String> deletes) {
+        Set<String> routeIds = new HashSet<>();
+        for (Route route : saves) {
+            if (!StringUtils.hasText(route.getRouteId())) {
+                throw new InvalidRouteDefinitionException(route.getRouteId(), "the route id is missing");
+            }
+            if (!StringUtils.hasText(route.getUri()) || !StringUtils.hasText(route.getPredicates())) {
+                throw new InvalidRouteDefinitionException(route.getRouteId(), "the uri or the predicates are missing");
+            }
+            if (!routeIds.add(route.getRouteId())) {
+                throw new InvalidRouteDefinitionException(route.getRouteId(), "the route is saved more than once");
+            }
+            convertToRouteDefinition(route);
+        }
+        for (String routeId : deletes) {
+            if (!routeIds.add(routeId)) {
+                throw new InvalidRouteDefinitionException(routeId, "the route is both saved and deleted, or deleted twice");
+            }
+        }
+    }
+
+    /**
+     * Writes a validated batch of route changes, within the transaction of the caller.
+     *
+     * @param saves the routes to add or replace
+     * @param deletes the ids of the routes to delete
+     * @return the number of routes written
+     * @throws UnknownRouteException if a deleted route does not exist
+     */
+    private int write(List<Route> saves, Collection<String> deletes) {
+        Set<String> routeIds = new HashSet<>(deletes);
+        saves.forEach(route -> routeIds.add(route.getRouteId()));
+        Map<String, Route> existing = new HashMap<>();
+        routeRepository.findByRouteIdIn(routeIds).forEach(route -> existing.put(route.getRouteId(), route));
+        List<Route> saved = new ArrayList<>(saves.size());
+        for (Route route : saves) {
+            Route target = existing.get(route.getRouteId());
+            if (target == null) {
+                saved.add(route);
+                continue;
+            }
+            target.setUri(route.getUri());
+            target.setPredicates(route.getPredicates());
+            target.setFilters(route.getFilters());
+            target.setEnabled(route.isEnabled());
+            target.setRouteOrder(route.getRouteOrder());
+            target.setLoadBalancer(route.getLoadBalancer());
+            target.setStreaming(route.isStreaming());
+            saved.add(target);
+        }
+        List<Route> deleted = new ArrayList<>(deletes.size());
+        for (String routeId : deletes) {
+            Route route = existing.get(routeId);
+            if (route == null) {
+                throw new UnknownRouteException(routeId);
+            }
+            deleted.add(route);
+        }
+        routeRepository.saveAll(saved);
+        routeRepository.deleteAllInBatch(deleted);
+        log.info("Saved routes {}, deleted routes {}", saved.stream().map(Route::getRouteId).toList(), deletes);
+        return saved.size() + deleted.size();
+    }
+
+    /**
+     * Converts a route definition received through the gateway actuator into an enabled Route entity.
+     *
+     * @param routeDefinition the route definition
+     * @return the Route entity
+     */
+    private Route convertToRoute(RouteDefinition routeDefinition) {
+        Object loadBalancer = routeDefinition.getMetadata().get(SapphireLoadBalancer.METADATA_KEY);
+        Object streaming = routeDefinition.getMetadata().get(StreamingBodyFilter.METADATA_KEY);
+        return Route.builder()
+                .routeId(routeDefinition.getId())
+                .uri(routeDefinition.getUri() != null ? routeDefinition.getUri().toString() : null)
+                .predicates(routeDefinitionParser.format(routeDefinition.getPredicates()))
+                .filters(routeDefinitionParser.format(routeDefinition.getFilters()))
+                .enabled(true)
+                .routeOrder(routeDefinition.getOrder())
+                .loadBalancer(loadBalancer != null ? loadBalancer.toString() : null)
+                .streaming(Boolean.parseBoolean(String.valueOf(streaming)))
+                .build();
     }
 
     /**
      * Converts a given Route entity into a RouteDefinition object.
      * This method maps the route's ID, URI, predicates, and filters into a format
-     * that is useful for defining routing configurations.
+     * that is useful for defining routing configurations. The predicates and filters
+     * are parsed here, once per load, so the gateway only has to build the filter chain
+     * of each route when the route table is refreshed.
      *
      * @param route the Route entity containing routing information,
      *              including route ID, URI, predicates, and filters
      * @return a RouteDefinition object populated with data from the provided Route entity
+     * @throws InvalidRouteDefinitionException if the predicates or filters cannot be parsed
      */
     private RouteDefinition convertToRouteDefinition(Route route) {
         RouteDefinition routeDefinition = new RouteDefinition();
         routeDefinition.setId(route.getRouteId());
-        routeDefinition.setUri(URI.create(route.getUri()));
+        try {
+            routeDefinition.setUri(URI.create(route.getUri()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRouteDefinitionException(route.getRouteId(), "invalid uri '" + route.getUri() + "'", e);
+        }
         routeDefinition.setOrder(route.getRouteOrder());
-        routeDefinition.setMetadata(Map.of("order", route.getRouteOrder()));
-
-        // Add Predicates
-        List<PredicateDefinition> predicates = new ArrayList<>();
-        predicates.add(new PredicateDefinition("Path="+route.getPredicates().trim()));
-//        predicates.add(new PredicateDefinition("Path=/api/v1/sapphire/mms/secured/member/**"));
-//        for(String predicate : route.getPredicates().split(",")) {
-//            PredicateDefinition predicateDefinition =
-//                    new PredicateDefinition("Path="+predicate.trim());
-//            predicates.add(predicateDefinition);
-//
-//        }
-        routeDefinition.setPredicates(predicates);
-
-        // Add filters
-        if(route.getFilters() != null) {
-            List<FilterDefinition> filters = new ArrayList<>();
-            filters.add(new FilterDefinition(route.getFilters().trim()));
-//            for(String filter : route.getFilters().split(",")) {
-//                FilterDefinition filterDefinition =
-//                        new FilterDefinition(filter.trim());
-//                filters.add(filterDefinition);
-//            }
-            routeDefinition.setFilters(filters);
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("order", route.getRouteOrder());
+        metadata.put(RouteRefreshScope.METADATA_KEY, route.getRouteId());
+        if (StringUtils.hasText(route.getLoadBalancer())) {
+            metadata.put(SapphireLoadBalancer.METADATA_KEY, loadBalancingStrategy(route).name());
+        }
+        if (route.isStreaming()) {
+            metadata.put(StreamingBodyFilter.METADATA_KEY, true);
+        }
+        routeDefinition.setMetadata(metadata);
+        routeDefinition.setPredicates(new ArrayList<>(
+                routeDefinitionParser.parsePredicates(route.getRouteId(), route.getPredicates())));
+        routeDefinition.setFilters(new ArrayList<>(
+                routeDefinitionParser.parseFilters(route.getRouteId(), route.getFilters())));
+        if (log.isDebugEnabled()) {
+            log.debug("Route Definition: {}", routeDefinition);
         }
-        // routeDefinition.setOrder((route.getIsSecured() ? -1 : 0));
-        log.info("Route Definition: " + routeDefinition);
         return routeDefinition;
     }
+
+    /**
+     * Returns the load balancing strategy named in the load_balancer column of the route.
+     *
+     * @param route the Route entity
+     * @return the load balancing strategy
+     * @throws InvalidRouteDefinitionException if the column does not name a strategy
+     */
+    private LoadBalancingStrategy loadBalancingStrategy(Route route) {
+        try {
+            return LoadBalancingStrategy.valueOf(route.getLoadBalancer().trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRouteDefinitionException(route.getRouteId(),
+                    "unknown load balancer '" + route.getLoadBalancer() + "'", e);
+        }
+    }
 }
@@ -0,0 +1,24 @@
+package com.brihaspathee.sapphire.route;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/20/26
+ * Time: 4:30 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Thrown when a route change refers to a route that does not exist.
+ */
+public class UnknownRouteException extends InvalidRouteDefinitionException {
+
+    /**
+     * Constructs an instance of the UnknownRouteException.
+     *
+     * @param routeId the id of the route that does not exist
+     */
+    public UnknownRouteException(String routeId) {
+        super(routeId, "the route does not exist");
+    }
+}
@@ -0,0 +1,134 @@
+package com.brihaspathee.sapphire.scheduler;
+
+import com.brihaspathee.sapphire.config.RouteConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 11:30 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.scheduler
+ * To change this template use File | Settings | File and Code Template
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "application.routes.notify", name = "enabled", havingValue = "true")
+public class PostgresRouteChangeNotifications implements RouteChangeNotifications {
+
+    /**
+     * The data source the listening connection is taken from.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * The route change notification settings.
+     */
+    private final RouteConfig.Notify notifyConfig;
+
+    /**
+     * The sink the received notifications are emitted to.
+     */
+    private final Sinks.Many<String> notifications = Sinks.many().multicast().directBestEffort();
+
+    /**
+     * The thread holding the listening connection.
+     */
+    private Thread listenerThread;
+
+    /**
+     * Indicates whether the listener is running.
+     */
+    private volatile boolean running;
+
+    /**
+     * Constructs an instance of the PostgresRouteChangeNotifications.
+     */
+    public PostgresRouteChangeNotifications(DataSource dataSource, RouteConfig routeConfig) {
+        this.dataSource = dataSource;
+        this.notifyConfig = routeConfig.getNotify();
+    }
+
+    /**
+     * Starts listening on a dedicated thread. The connection is held for as long as
+     * the gateway runs, so the pool needs one connection more than before.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        listenerThread = Thread.ofPlatform()
+                .name("route-change-listener")
+                .daemon(true)
+                .start(this::listen);
+    }
+
+    /**
+     * Stops listening and releases the connection.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        notifications.tryEmitComplete();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Flux<String> changes() {
+        return notifications.asFlux();
+    }
+
+    /**
+     * Listens on the channel and emits every notification received, reconnecting
+     * after a delay whenever the connection fails.
+     */
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + notifyConfig.getChannel());
+                }
+                log.info("Listening for route changes on channel {}", notifyConfig.getChannel());
+                int pollTimeout = (int) notifyConfig.getPollTimeout().toMillis();
+                while (running) {
+                    PGNotification[] received = pgConnection.getNotifications(pollTimeout);
+                    if (received != null) {
+                        for (PGNotification notification : received) {
+                            notifications.tryEmitNext(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Route change listener failed, reconnecting in {}: {}",
+                        notifyConfig.getReconnectDelay(), e.getMessage());
+                try {
+                    Thread.sleep(notifyConfig.getReconnectDelay().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
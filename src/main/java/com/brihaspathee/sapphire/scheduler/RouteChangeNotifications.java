@@ -0,0 +1,24 @@
+package com.brihaspathee.sapphire.scheduler;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 11:20 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.scheduler
+ * To change this template use File | Settings | File and Code Template
+ */
+public interface RouteChangeNotifications {
+
+    /**
+     * Emits a notification every time a route is changed in the database.
+     * The payload is the id of the changed route, if known; it is informational only
+     * since the refresh always compares the whole route table.
+     *
+     * @return a Flux of route change notifications
+     */
+    Flux<String> changes();
+}
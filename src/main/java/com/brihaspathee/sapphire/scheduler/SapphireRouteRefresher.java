@@ -1,17 +1,31 @@
 package com.brihaspathee.sapphire.scheduler;
 
+import com.brihaspathee.sapphire.config.RouteConfig;
+import com.brihaspathee.sapphire.route.RouteRefreshScope;
+import com.brihaspathee.sapphire.route.RouteSnapshot;
+import com.brihaspathee.sapphire.route.SapphireRouteDefinitionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Set;
 
 /**
  * Created in Intellij IDEA
  * User: Balaji Varadharajan
  * Date: 26, February 2025
- * Time: 3:56 PM
+ * Time: 3:56 PM
  * Project: sapphire
  * Package Name: com.brihaspathee.sapphire.scheduler
  * To change this template use File | Settings | File and Code Template
@@ -29,16 +43,151 @@ public class SapphireRouteRefresher {
      */
     private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * The repository serving the route definitions to the gateway from an in-memory snapshot.
+     */
+    private final SapphireRouteDefinitionRepository routeDefinitionRepository;
+
+    /**
+     * The route refresh configuration.
+     */
+    private final RouteConfig routeConfig;
+
+    /**
+     * The sources of route change notifications, for e.g. PostgreSQL LISTEN/NOTIFY.
+     * Empty when no notifications are configured.
+     */
+    private final ObjectProvider<RouteChangeNotifications> routeChangeNotifications;
+
+    /**
+     * The refresh requests. Requests from the schedule and from notifications are
+     * processed one at a time, and requests that arrive while a refresh is running
+     * are collapsed into a single follow-up refresh.
+     */
+    private final Sinks.Many<String> refreshRequests = Sinks.many().unicast().onBackpressureBuffer();
+
+    /**
+     * The subscriptions to the refresh requests and the notifications.
+     */
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    /**
+     * Loads the routes, starts processing refresh requests and subscribes to the route
+     * change notifications. With a blocking startup load the routes are loaded before the
+     * gateway builds its route table for the first time, falling back to the route
+     * snapshot file if the database is unavailable; with a background load the gateway
+     * starts with the routes of the snapshot file. This runs on the thread that creates
+     * the application context, never on an event loop.
+     */
+    @PostConstruct
+    public void init() {
+        if (routeConfig.getStartupLoad() == RouteConfig.StartupLoad.BLOCKING) {
+            try {
+                routeDefinitionRepository.reload().block();
+            } catch (Exception e) {
+                log.error("Unable to load the routes at startup", e);
+                restoreSnapshot();
+            }
+        } else {
+            restoreSnapshot();
+            loadInBackground();
+        }
+        subscriptions.add(refreshRequests.asFlux()
+                .onBackpressureLatest()
+                .concatMap(trigger -> refreshIfChanged()
+                        .onErrorResume(e -> {
+                            log.error("Unable to refresh routes from db, keeping the current routes", e);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe());
+        routeChangeNotifications.orderedStream().forEach(source -> subscriptions.add(source.changes()
+                .subscribe(routeId -> {
+                    log.info("Route change notification received for {}", routeId);
+                    requestRefresh("notification");
+                })));
+    }
+
+    /**
+     * Serves the routes of the route snapshot file until the routes are loaded from the database.
+     */
+    private void restoreSnapshot() {
+        if (routeDefinitionRepository.restore().isEmpty()
+                && routeDefinitionRepository.getSnapshot() == RouteSnapshot.EMPTY) {
+            log.warn("No route snapshot to restore, the gateway serves no routes until they are loaded from db");
+        }
+    }
+
+    /**
+     * Loads the routes without holding up the startup. The gateway starts with the routes
+     * of the snapshot file, if any, and its route table is rebuilt as a whole once the
+     * routes are loaded and differ from them.
+     */
+    private void loadInBackground() {
+        log.info("Loading the routes in the background");
+        subscriptions.add(routeDefinitionRepository.reload()
+                .subscribe(snapshot -> eventPublisher.publishEvent(new RefreshRoutesEvent(this)),
+                        e -> log.error("Unable to load the routes at startup, the gateway will serve no routes until the next refresh", e)));
+    }
+
+    /**
+     * Stops processing refresh requests.
+     */
+    @PreDestroy
+    public void destroy() {
+        subscriptions.dispose();
+    }
+
     /**
      * Refreshes the application routes by retrieving the latest route details from the database.
-     * This method publishes a {@link RefreshRoutesEvent} to notify other components about
-     * the refresh operation, enabling them to update their state or behavior accordingly.
-     * It uses the {@link ApplicationEventPublisher} to broadcast the event and generates
-     * an informational log message indicating the initiation of the refresh process.
+     * With change detection enabled the routes table is checked first and a scoped
+     * {@link RefreshRoutesEvent} is published only for the routes that were added, updated
+     * or removed, so the gateway rebuilds just those routes. Otherwise all the routes are
+     * reloaded and the whole route table is rebuilt.
+     * If the routes cannot be loaded the gateway keeps serving the previous snapshot.
      */
     @Scheduled(fixedRate = 60000)
     public void refresh() {
+        if (routeConfig.isChangeDetection()) {
+            requestRefresh("schedule");
+            return;
+        }
         log.info("Refreshing routes from db");
-        eventPublisher.publishEvent(new RefreshRoutesEvent(this));
+        routeDefinitionRepository.reload()
+                .defaultIfEmpty(routeDefinitionRepository.getSnapshot())
+                .subscribe(snapshot -> eventPublisher.publishEvent(new RefreshRoutesEvent(this)),
+                        e -> log.error("Unable to refresh routes from db, keeping the current routes", e));
+    }
+
+    /**
+     * Queues a refresh of the routes that changed.
+     *
+     * @param trigger what caused the refresh, used for logging
+     */
+    public void requestRefresh(String trigger) {
+        refreshRequests.emitNext(trigger, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+    /**
+     * Reloads the routes if the routes table changed and publishes a scoped refresh
+     * for the routes that differ from the current snapshot.
+     *
+     * @return a Mono emitting the ids of the refreshed routes, empty if nothing changed
+     */
+    Mono<Set<String>> refreshIfChanged() {
+        return routeDefinitionRepository.hasChanged()
+                .filter(Boolean::booleanValue)
+                .flatMap(changed -> routeDefinitionRepository.reload())
+                .map(RouteSnapshot::getChangedRouteIds)
+                .doOnNext(this::publishRefresh);
+    }
+
+    /**
+     * Publishes the refresh events that make the gateway rebuild only the given routes.
+     *
+     * @param routeIds the ids of the routes that were added, updated or removed
+     */
+    public void publishRefresh(Set<String> routeIds) {
+        log.info("Refreshing routes {}", routeIds);
+        RouteRefreshScope.eventsFor(this, routeIds).forEach(eventPublisher::publishEvent);
     }
 }
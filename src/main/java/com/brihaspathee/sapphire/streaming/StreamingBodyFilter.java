@@ -0,0 +1,269 @@
+package com.brihaspathee.sapphire.streaming;
+
+import com.brihaspathee.sapphire.config.StreamingConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufAllocatorMetric;
+import io.netty.buffer.ByteBufAllocatorMetricProvider;
+import io.netty.util.ResourceLeakDetector;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/21/26
+ * Time: 2:15 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.streaming
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Guards the streaming routes, the routes flagged in the streaming column of the routes
+ * table, for e.g. the member and provider exports. Their bodies are passed between the
+ * client and the downstream service one pooled buffer at a time: every buffer is forwarded
+ * as is, never aggregated or copied, and is only read from one side once the other side
+ * asked for it, so the memory a transfer holds does not grow with its size. The filter
+ * only counts the bytes going through and cuts off a body that goes past the configured
+ * maximum size, releasing the buffers it drops. Filters that need the whole body, like the
+ * ResponseCacheFilter, leave the streaming routes alone.
+ * The pooled memory of the Netty allocator is published as gauges, so a leak of pooled
+ * buffers shows up as memory that keeps growing, and Netty reports the buffers it finds
+ * garbage collected without being released at the configured leak detection level.
+ */
+@Slf4j
+@Component
+public class StreamingBodyFilter implements GlobalFilter, Ordered {
+
+    /**
+     * The key of the route metadata flagging a streaming route.
+     */
+    public static final String METADATA_KEY = "sapphire.streaming";
+
+    /**
+     * The streaming configuration.
+     */
+    private final StreamingConfig streamingConfig;
+
+    /**
+     * Counts the requests cut off for being larger than the maximum request size.
+     */
+    private final Counter requestsTooLarge;
+
+    /**
+     * Counts the responses cut off for being larger than the maximum response size.
+     */
+    private final Counter responsesTooLarge;
+
+    /**
+     * Constructs an instance of the StreamingBodyFilter, setting the leak detection level
+     * of Netty and registering the gauges of the pooled memory.
+     */
+    public StreamingBodyFilter(StreamingConfig streamingConfig, MeterRegistry meterRegistry) {
+        this.streamingConfig = streamingConfig;
+        ResourceLeakDetector.setLevel(streamingConfig.getLeakDetection());
+        this.requestsTooLarge = Counter.builder("gateway.streaming.too.large")
+                .description("Bodies of streaming routes cut off for going past the maximum size")
+                .tag("direction", "request")
+                .register(meterRegistry);
+        this.responsesTooLarge = Counter.builder("gateway.streaming.too.large")
+                .description("Bodies of streaming routes cut off for going past the maximum size")
+                .tag("direction", "response")
+                .register(meterRegistry);
+        if (ByteBufAllocator.DEFAULT instanceof ByteBufAllocatorMetricProvider provider) {
+            ByteBufAllocatorMetric metric = provider.metric();
+            Gauge.builder("gateway.streaming.pooled.memory", metric, ByteBufAllocatorMetric::usedDirectMemory)
+                    .description("Memory held by the buffers of the Netty allocator")
+                    .tag("type", "direct")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder("gateway.streaming.pooled.memory", metric, ByteBufAllocatorMetric::usedHeapMemory)
+                    .description("Memory held by the buffers of the Netty allocator")
+                    .tag("type", "heap")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Indicates whether the route is a streaming route.
+     *
+     * @param route the route serving the request, may be null
+     * @return true if the route is flagged as streaming in its metadata
+     */
+    public static boolean isStreaming(Route route) {
+        return route != null && Boolean.parseBoolean(String.valueOf(route.getMetadata().get(METADATA_KEY)));
+    }
+
+    /**
+     * Limits the request and response bodies of a streaming route. A request announcing a
+     * Content-Length above the limit is answered with 413 without calling the downstream
+     * service.
+     *
+     * @param exchange the current server web exchange
+     * @param chain the gateway filter chain
+     * @return a {@code Mono<Void>} that completes when the request is processed
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!isStreaming(route)) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        long maxRequestSize = streamingConfig.getMaxRequestSize().toBytes();
+        long contentLength = request.getHeaders().getContentLength();
+        if (contentLength > maxRequestSize) {
+            requestsTooLarge.increment();
+            log.debug("Rejecting a request of {} bytes to the route {}, the limit is {}",
+                    contentLength, route.getId(), maxRequestSize);
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.PAYLOAD_TOO_LARGE);
+            // the body is not read, so the connection cannot be reused
+            response.getHeaders().setConnection("close");
+            return response.setComplete();
+        }
+        ServerHttpRequest limitedRequest = new ServerHttpRequestDecorator(request) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return Flux.defer(() -> limit(getDelegate().getBody(), maxRequestSize, new long[1], () -> {
+                    requestsTooLarge.increment();
+                    return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                            "Request body is larger than " + maxRequestSize + " bytes");
+                }));
+            }
+        };
+        return chain.filter(exchange.mutate()
+                .request(limitedRequest)
+                .response(new LimitedResponse(exchange.getResponse(), route.getId()))
+                .build());
+    }
+
+    /**
+     * Passes the buffers of the body on as they come, counting their bytes into the given
+     * total. The buffer going past the maximum size is released and the body fails with
+     * the given error instead. Buffers dropped because the body was cancelled or failed
+     * are released.
+     */
+    private static Flux<DataBuffer> limit(Publisher<? extends DataBuffer> body,
+                                          long maxSize,
+                                          long[] total,
+                                          Supplier<? extends Throwable> tooLarge) {
+        return Flux.<DataBuffer>from(body)
+                .<DataBuffer>handle((buffer, sink) -> {
+                    total[0] += buffer.readableByteCount();
+                    if (total[0] > maxSize) {
+                        DataBufferUtils.release(buffer);
+                        sink.error(tooLarge.get());
+                        return;
+                    }
+                    sink.next(buffer);
+                })
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    /**
+     * Runs right after the metrics filters, before any filter that could decorate the bodies.
+     *
+     * @return the order of the filter
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 3;
+    }
+
+    /**
+     * The response of a streaming route, limited to the maximum response size.
+     */
+    private class LimitedResponse extends ServerHttpResponseDecorator {
+
+        /**
+         * The id of the route serving the response.
+         */
+        private final String routeId;
+
+        /**
+         * Constructs an instance of the LimitedResponse.
+         */
+        private LimitedResponse(ServerHttpResponse delegate, String routeId) {
+            super(delegate);
+            this.routeId = routeId;
+        }
+
+        /**
+         * Writes the body of the downstream service, or a 502 if it announced a
+         * Content-Length above the limit.
+         */
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            long maxResponseSize = streamingConfig.getMaxResponseSize().toBytes();
+            if (getHeaders().getContentLength() > maxResponseSize) {
+                return reject(body, maxResponseSize);
+            }
+            return super.writeWith(limit(body, maxResponseSize, new long[1], () -> tooLarge(maxResponseSize)));
+        }
+
+        /**
+         * Writes the body of the downstream service flushing each part, used for streaming
+         * media types such as server sent events. The limit applies to all the parts together.
+         */
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            long maxResponseSize = streamingConfig.getMaxResponseSize().toBytes();
+            if (getHeaders().getContentLength() > maxResponseSize) {
+                return reject(Flux.from(body).concatMap(Flux::from), maxResponseSize);
+            }
+            long[] total = new long[1];
+            return super.writeAndFlushWith(Flux.from(body)
+                    .map(part -> limit(part, maxResponseSize, total, () -> tooLarge(maxResponseSize))));
+        }
+
+        /**
+         * Answers with an empty 502 instead of a body that is known to be too large, and
+         * stops reading it from the downstream service.
+         */
+        private Mono<Void> reject(Publisher<? extends DataBuffer> body, long maxResponseSize) {
+            responsesTooLarge.increment();
+            log.warn("Route {} responded with {} bytes, more than the limit of {}",
+                    routeId, getHeaders().getContentLength(), maxResponseSize);
+            getHeaders().clear();
+            getHeaders().setContentLength(0);
+            setStatusCode(HttpStatus.BAD_GATEWAY);
+            return Mono.from(body)
+                    .doOnNext(DataBufferUtils::release)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .then(getDelegate().setComplete());
+        }
+
+        /**
+         * Returns the error cutting off a response that went past the limit. The status and
+         * headers are already sent by then, so the client sees the connection closed early.
+         */
+        private Throwable tooLarge(long maxResponseSize) {
+            responsesTooLarge.increment();
+            log.warn("Cutting off the response of route {}, it is larger than {} bytes", routeId, maxResponseSize);
+            return new ResponseStatusException(HttpStatus.BAD_GATEWAY,
+                    "Response body is larger than " + maxResponseSize + " bytes");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.brihaspathee.sapphire.config.AuthServiceConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 8:00 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+class AuthServiceBreakerTest {
+
+    private AuthServiceBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        AuthServiceConfig authServiceConfig = new AuthServiceConfig();
+        authServiceConfig.getBreaker().setSlidingWindowSize(4);
+        authServiceConfig.getBreaker().setMinimumNumberOfCalls(4);
+        breaker = new AuthServiceBreaker(authServiceConfig, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void rejectedTokensDoNotOpenTheBreaker() {
+        for (int i = 0; i < 10; i++) {
+            assertSame(AuthorizationDecision.unauthorized(),
+                    breaker.protect(Mono.just(AuthorizationDecision.unauthorized())).block());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void openBreakerFailsFastWithoutCallingTheService() {
+        for (int i = 0; i < 4; i++) {
+            Mono<AuthorizationDecision> failing = Mono.error(
+                    new AuthServiceUnavailableException("Authentication service responded with 502", null));
+            assertThrows(AuthServiceUnavailableException.class, () -> breaker.protect(failing).block());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getCircuitBreaker().getState());
+
+        AtomicInteger calls = new AtomicInteger();
+        Mono<AuthorizationDecision> call = Mono.fromCallable(() -> {
+            calls.incrementAndGet();
+            return AuthorizationDecision.unauthorized();
+        });
+        assertThrows(AuthServiceUnavailableException.class, () -> breaker.protect(call).block());
+        assertEquals(0, calls.get());
+    }
+}
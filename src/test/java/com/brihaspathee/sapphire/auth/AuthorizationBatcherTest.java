@@ -0,0 +1,193 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.brihaspathee.sapphire.config.AuthServiceConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/21/26
+ * Time: 10:30 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Runs the batcher against a local stub of the single and batch validate endpoints. The
+ * stub allows every token except "rejected" and returns the token as the user id, so each
+ * decision can be matched to its validation.
+ */
+class AuthorizationBatcherTest {
+
+    private static final String RESOURCE_URI = "/api/v1/sapphire/mms/secured/member/1";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicInteger batchCalls = new AtomicInteger();
+
+    private final AtomicInteger singleCalls = new AtomicInteger();
+
+    private final AtomicBoolean batchSupported = new AtomicBoolean(true);
+
+    private DisposableServer authService;
+
+    private ConnectionProvider connectionProvider;
+
+    private AuthorizationBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        authService = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .post("/api/v1/sapphire/auth/resource/validate/batch", (request, response) -> {
+                            batchCalls.incrementAndGet();
+                            if (!batchSupported.get()) {
+                                return request.receive().then(response.status(404).send());
+                            }
+                            return request.receive().aggregate().asString().flatMap(body -> response
+                                    .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                                    .sendString(Mono.just(batchResponse(body)))
+                                    .then());
+                        })
+                        .post("/api/v1/sapphire/auth/resource/validate", (request, response) -> {
+                            singleCalls.incrementAndGet();
+                            String token = request.requestHeaders().get(HttpHeaders.AUTHORIZATION).substring("Bearer ".length());
+                            if (token.equals("rejected")) {
+                                return request.receive().then(response.status(401).send());
+                            }
+                            return request.receive().then(response
+                                    .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                                    .sendString(Mono.just("{\"response\": " + user(token) + "}"))
+                                    .then());
+                        }))
+                .bindNow();
+
+        AuthServiceConfig authServiceConfig = new AuthServiceConfig();
+        authServiceConfig.setHost("localhost");
+        authServiceConfig.setPort(String.valueOf(authService.port()));
+        authServiceConfig.getBatch().setEnabled(true);
+        authServiceConfig.getBatch().setLinger(Duration.ofMillis(50));
+        authServiceConfig.getBatch().setMaxDelay(Duration.ofMillis(100));
+        connectionProvider = ConnectionProvider.create("auth-service-batch-test", 10);
+        batcher = new AuthorizationBatcher(
+                new AuthServiceClient(WebClient.builder(), authServiceConfig, connectionProvider), authServiceConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.disposeLater().block();
+        authService.disposeNow();
+    }
+
+    @Test
+    void concurrentValidationsAreSentInOneBatch() {
+        List<String> tokens = List.of("member-1", "member-2", "rejected", "member-3", "member-4");
+
+        List<AuthorizationDecision> decisions = validateAll(tokens);
+
+        assertEquals(1, batchCalls.get());
+        assertEquals(0, singleCalls.get());
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).equals("rejected")) {
+                assertSame(AuthorizationDecision.unauthorized(), decisions.get(i));
+            } else {
+                assertEquals(tokens.get(i), decisions.get(i).getUserId());
+            }
+        }
+    }
+
+    @Test
+    void validationsAreSentOneByOneWhenBatchingIsUnsupported() {
+        batchSupported.set(false);
+        List<String> tokens = List.of("member-1", "member-2", "member-3");
+
+        List<AuthorizationDecision> decisions = validateAll(tokens);
+
+        assertEquals(1, batchCalls.get());
+        assertEquals(3, singleCalls.get());
+        for (int i = 0; i < tokens.size(); i++) {
+            assertEquals(tokens.get(i), decisions.get(i).getUserId());
+        }
+
+        validateAll(tokens);
+
+        assertEquals(1, batchCalls.get());
+        assertEquals(6, singleCalls.get());
+    }
+
+    @Test
+    void cancelledValidationsAreLeftOutOfTheBatch() throws Exception {
+        Disposable first = batcher.validate("member-1", RESOURCE_URI).subscribe();
+        Disposable second = batcher.validate("member-2", RESOURCE_URI).subscribe();
+        first.dispose();
+        second.dispose();
+
+        // past the maximum delay, so the emptied batch would have been sent
+        Thread.sleep(300);
+        assertEquals(0, batchCalls.get());
+        assertEquals(0, singleCalls.get());
+
+        Disposable cancelled = batcher.validate("member-3", RESOURCE_URI).subscribe();
+        CompletableFuture<AuthorizationDecision> kept = batcher.validate("member-4", RESOURCE_URI).toFuture();
+        cancelled.dispose();
+
+        assertEquals("member-4", kept.get(10, TimeUnit.SECONDS).getUserId());
+        assertEquals(0, batchCalls.get());
+        assertEquals(1, singleCalls.get());
+    }
+
+    private List<AuthorizationDecision> validateAll(List<String> tokens) {
+        return Flux.fromIterable(tokens)
+                .flatMapSequential(token -> batcher.validate(token, RESOURCE_URI))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private String batchResponse(String body) {
+        try {
+            ArrayNode results = objectMapper.createArrayNode();
+            for (JsonNode validation : objectMapper.readTree(body).get("validations")) {
+                String token = validation.get("token").asText();
+                ObjectNode result = results.addObject();
+                if (token.equals("rejected")) {
+                    result.put("status", 401);
+                } else {
+                    result.put("status", 200);
+                    result.set("user", objectMapper.readTree(user(token)));
+                }
+            }
+            return objectMapper.writeValueAsString(objectMapper.createObjectNode().set("results", results));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String user(String token) {
+        return "{\"userId\": \"" + token + "\", \"username\": \"" + token + "\", \"accountType\": \"MEMBER\"}";
+    }
+}
@@ -0,0 +1,63 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.brihaspathee.sapphire.config.AuthServiceConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/23/26
+ * Time: 9:40 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+class AuthorizationCacheEndpointTest {
+
+    private AuthorizationCache cache;
+
+    private AuthorizationCacheEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        AuthServiceConfig authServiceConfig = new AuthServiceConfig();
+        authServiceConfig.getCache().setEnabled(true);
+        cache = new AuthorizationCache(authServiceConfig, new SimpleMeterRegistry());
+        endpoint = new AuthorizationCacheEndpoint(cache);
+        cache.put(AuthorizationKey.of("token-1", "/member"), AuthorizationDecision.allowed("1", "jdoe", null, "MEMBER"));
+        cache.put(AuthorizationKey.of("token-1", "/account"), AuthorizationDecision.forbidden());
+        cache.put(AuthorizationKey.of("token-2", "/member"), AuthorizationDecision.allowed("2", "asmith", null, "MEMBER"));
+    }
+
+    @Test
+    void evictsTheDecisionsOfAToken() {
+        assertEquals(Map.of("evicted", 2), endpoint.evict("token-1", null));
+
+        assertNull(cache.get(AuthorizationKey.of("token-1", "/member")));
+        assertNull(cache.get(AuthorizationKey.of("token-1", "/account")));
+        assertNotNull(cache.get(AuthorizationKey.of("token-2", "/member")));
+    }
+
+    @Test
+    void evictsTheDecisionsOfAUser() {
+        assertEquals(Map.of("evicted", 1), endpoint.evict(null, "2"));
+
+        assertNull(cache.get(AuthorizationKey.of("token-2", "/member")));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void evictsAllTheDecisions() {
+        endpoint.evictAll();
+
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,104 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.brihaspathee.sapphire.config.AuthServiceConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/23/26
+ * Time: 9:10 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+class AuthorizationCacheTest {
+
+    private static final String RESOURCE = "/api/v1/sapphire/mms/secured/member";
+
+    private static final AuthorizationDecision ALLOWED =
+            AuthorizationDecision.allowed("123", "jdoe", null, "MEMBER");
+
+    private AuthServiceConfig authServiceConfig;
+
+    @BeforeEach
+    void setUp() {
+        authServiceConfig = new AuthServiceConfig();
+        authServiceConfig.getCache().setEnabled(true);
+        authServiceConfig.getCache().setPositiveTtl(Duration.ofMinutes(1));
+        authServiceConfig.getCache().setNegativeTtl(Duration.ofMillis(100));
+    }
+
+    @Test
+    void rejectedDecisionsExpireBeforeAllowedOnes() throws InterruptedException {
+        AuthorizationCache cache = new AuthorizationCache(authServiceConfig, new SimpleMeterRegistry());
+        cache.put(AuthorizationKey.of("allowed", RESOURCE), ALLOWED);
+        cache.put(AuthorizationKey.of("forbidden", RESOURCE), AuthorizationDecision.forbidden());
+        cache.put(AuthorizationKey.of("unauthorized", RESOURCE), AuthorizationDecision.unauthorized());
+
+        assertSame(AuthorizationDecision.forbidden(), cache.get(AuthorizationKey.of("forbidden", RESOURCE)));
+
+        Thread.sleep(300);
+
+        assertSame(ALLOWED, cache.get(AuthorizationKey.of("allowed", RESOURCE)));
+        assertNull(cache.get(AuthorizationKey.of("forbidden", RESOURCE)));
+        assertNull(cache.get(AuthorizationKey.of("unauthorized", RESOURCE)));
+    }
+
+    @Test
+    void cacheIsBoundedByTheMaximumSize() {
+        authServiceConfig.getCache().setMaximumSize(10);
+        AuthorizationCache cache = new AuthorizationCache(authServiceConfig, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 100; i++) {
+            cache.put(AuthorizationKey.of("token-" + i, RESOURCE), ALLOWED);
+        }
+
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    void unavailableDecisionsAreNotCached() {
+        AuthorizationCache cache = new AuthorizationCache(authServiceConfig, new SimpleMeterRegistry());
+
+        cache.put(AuthorizationKey.of("token", RESOURCE), AuthorizationDecision.unavailable());
+
+        assertNull(cache.get(AuthorizationKey.of("token", RESOURCE)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void failedValidationsAreNotCached() {
+        AuthorizationCache cache = new AuthorizationCache(authServiceConfig, new SimpleMeterRegistry());
+        AuthServiceClient client = mock(AuthServiceClient.class);
+        when(client.validate("token", RESOURCE)).thenReturn(
+                Mono.error(new AuthServiceUnavailableException("Authentication service responded with 502", null)),
+                Mono.just(ALLOWED));
+        AuthorizationService service = new AuthorizationService(client, cache, new InFlightValidations(),
+                authServiceConfig, new AuthServiceBreaker(authServiceConfig, new SimpleMeterRegistry()), null);
+
+        assertThrows(AuthServiceUnavailableException.class, () -> service.authorize("token", RESOURCE).block());
+        assertEquals(0, cache.size());
+
+        assertSame(ALLOWED, service.authorize("token", RESOURCE).block());
+        assertSame(ALLOWED, service.authorize("token", RESOURCE).block());
+
+        assertNotNull(cache.get(AuthorizationKey.of("token", RESOURCE)));
+        verify(client, times(2)).validate("token", RESOURCE);
+    }
+}
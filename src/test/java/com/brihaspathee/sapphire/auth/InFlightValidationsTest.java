@@ -0,0 +1,112 @@
+package com.brihaspathee.sapphire.auth;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/23/26
+ * Time: 10:15 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+class InFlightValidationsTest {
+
+    private static final AuthorizationKey KEY = AuthorizationKey.of("token", "/api/v1/sapphire/mms/secured/member");
+
+    private final InFlightValidations inFlightValidations = new InFlightValidations();
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final AtomicInteger cancelled = new AtomicInteger();
+
+    private Sinks.One<AuthorizationDecision> upstream;
+
+    @Test
+    void concurrentValidationsShareASingleCall() {
+        List<AuthorizationDecision> decisions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            join().subscribe(decisions::add);
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(1, inFlightValidations.size());
+
+        AuthorizationDecision allowed = AuthorizationDecision.allowed("123", "jdoe", null, "MEMBER");
+        upstream.tryEmitValue(allowed);
+
+        assertEquals(10, decisions.size());
+        decisions.forEach(decision -> assertSame(allowed, decision));
+        assertEquals(0, inFlightValidations.size());
+    }
+
+    @Test
+    void errorReachesEveryWaiter() {
+        List<Throwable> errors = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            join().subscribe(decision -> {}, errors::add);
+        }
+        AuthServiceUnavailableException error =
+                new AuthServiceUnavailableException("Authentication service responded with 502", null);
+
+        upstream.tryEmitError(error);
+
+        assertEquals(3, errors.size());
+        errors.forEach(received -> assertSame(error, received));
+        assertEquals(1, calls.get());
+        assertEquals(0, inFlightValidations.size());
+    }
+
+    @Test
+    void nextValidationCallsTheServiceAgainOnceTheCallCompleted() {
+        join().subscribe();
+        upstream.tryEmitValue(AuthorizationDecision.forbidden());
+
+        join().subscribe();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void callIsCancelledAndRemovedOnceEveryWaiterCancelled() {
+        Disposable first = join().subscribe();
+        Disposable second = join().subscribe();
+
+        first.dispose();
+
+        assertEquals(0, cancelled.get());
+        assertEquals(1, inFlightValidations.size());
+
+        second.dispose();
+
+        assertEquals(1, cancelled.get());
+        assertEquals(0, inFlightValidations.size());
+
+        AtomicReference<AuthorizationDecision> decision = new AtomicReference<>();
+        join().subscribe(decision::set);
+        upstream.tryEmitValue(AuthorizationDecision.unauthorized());
+
+        assertEquals(2, calls.get());
+        assertSame(AuthorizationDecision.unauthorized(), decision.get());
+    }
+
+    private Mono<AuthorizationDecision> join() {
+        return inFlightValidations.join(KEY, () -> {
+            calls.incrementAndGet();
+            upstream = Sinks.one();
+            return upstream.asMono().doOnCancel(cancelled::incrementAndGet);
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package com.brihaspathee.sapphire.auth;
+
+import com.brihaspathee.sapphire.config.AuthServiceConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/17/26
+ * Time: 2:50 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+class JwtVerifierTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-17T12:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    private KeyPair keyPair;
+
+    private JwtVerifier jwtVerifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        Path keySet = tempDir.resolve("jwks.json");
+        Files.writeString(keySet, """
+                {"keys": [{"kty": "RSA", "kid": "test-key", "n": "%s", "e": "%s"}]}
+                """.formatted(encode(publicKey.getModulus().toByteArray()),
+                encode(publicKey.getPublicExponent().toByteArray())));
+
+        AuthServiceConfig authServiceConfig = new AuthServiceConfig();
+        authServiceConfig.getJwt().setEnabled(true);
+        authServiceConfig.getJwt().setKeySetUri(keySet.toUri().toString());
+        JwtKeySetProvider keySetProvider = new JwtKeySetProvider(authServiceConfig, WebClient.builder(), objectMapper);
+        keySetProvider.init();
+        jwtVerifier = new JwtVerifier(authServiceConfig, keySetProvider, objectMapper,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void populatesUserFromClaimsOfValidToken() throws Exception {
+        String token = sign("{\"alg\":\"RS256\",\"kid\":\"test-key\"}",
+                "{\"sub\":\"jdoe\",\"userId\":42,\"serviceId\":\"MMS\",\"accountType\":\"USER\",\"exp\":"
+                        + NOW.plusSeconds(300).getEpochSecond() + "}");
+
+        AuthorizationDecision decision = jwtVerifier.verify(token);
+
+        assertTrue(decision.isAllowed());
+        assertEquals("42", decision.getUserId());
+        assertEquals("jdoe", decision.getUsername());
+        assertEquals("MMS", decision.getServiceId());
+        assertEquals("USER", decision.getAccountType());
+    }
+
+    @Test
+    void rejectsExpiredToken() throws Exception {
+        String token = sign("{\"alg\":\"RS256\",\"kid\":\"test-key\"}",
+                "{\"sub\":\"jdoe\",\"exp\":" + NOW.minusSeconds(300).getEpochSecond() + "}");
+
+        assertFalse(jwtVerifier.verify(token).isAllowed());
+    }
+
+    @Test
+    void rejectsTamperedToken() throws Exception {
+        String token = sign("{\"alg\":\"RS256\",\"kid\":\"test-key\"}",
+                "{\"sub\":\"jdoe\",\"exp\":" + NOW.plusSeconds(300).getEpochSecond() + "}");
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + encode("{\"sub\":\"admin\",\"exp\":9999999999}".getBytes(StandardCharsets.UTF_8))
+                + "." + parts[2];
+
+        assertFalse(jwtVerifier.verify(forged).isAllowed());
+    }
+
+    @Test
+    void rejectsUnsignedToken() {
+        String token = encode("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encode("{\"sub\":\"jdoe\",\"exp\":9999999999}".getBytes(StandardCharsets.UTF_8)) + ".";
+
+        assertFalse(jwtVerifier.verify(token).isAllowed());
+    }
+
+    private String sign(String header, String claims) throws Exception {
+        String signingInput = encode(header.getBytes(StandardCharsets.UTF_8)) + "."
+                + encode(claims.getBytes(StandardCharsets.UTF_8));
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(keyPair.getPrivate());
+        signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + encode(signature.sign());
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
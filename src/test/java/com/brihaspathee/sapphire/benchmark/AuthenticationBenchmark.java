@@ -0,0 +1,133 @@
+package com.brihaspathee.sapphire.benchmark;
+
+import com.brihaspathee.sapphire.auth.AuthServiceBreaker;
+import com.brihaspathee.sapphire.auth.AuthServiceClient;
+import com.brihaspathee.sapphire.auth.AuthorizationBatcher;
+import com.brihaspathee.sapphire.auth.AuthorizationCache;
+import com.brihaspathee.sapphire.auth.AuthorizationService;
+import com.brihaspathee.sapphire.auth.InFlightValidations;
+import com.brihaspathee.sapphire.auth.JwtVerifier;
+import com.brihaspathee.sapphire.config.AuthServiceConfig;
+import com.brihaspathee.sapphire.filter.AuthenticationFilter;
+import com.brihaspathee.sapphire.route.RouteTemplateRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/19/26
+ * Time: 10:00 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.benchmark
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Measures the AuthenticationFilter on a secured route, from reading the bearer token to
+ * continuing the chain with the user headers, against a stub of the validate endpoint of
+ * the authentication service running on a local port. With the decision cache disabled
+ * every request calls the stub, so the result is the cost of a validation round trip;
+ * with the cache enabled it is the cost of the filter on a cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    private static final String VALIDATE_RESPONSE = """
+            {"response": {"userId": "1001", "username": "benchmark", "serviceId": null, "accountType": "MEMBER"}}""";
+
+    @Param({"false", "true"})
+    public boolean cacheEnabled;
+
+    private DisposableServer authService;
+
+    private ConnectionProvider connectionProvider;
+
+    private GatewayFilter filter;
+
+    private GatewayFilterChain chain;
+
+    @Setup
+    public void setUp() {
+        authService = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.post("/api/v1/sapphire/auth/resource/validate", (request, response) ->
+                        request.receive().then(response
+                                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                                .sendString(Mono.just(VALIDATE_RESPONSE))
+                                .then())))
+                .bindNow();
+
+        AuthServiceConfig authServiceConfig = new AuthServiceConfig();
+        authServiceConfig.setHost("localhost");
+        authServiceConfig.setPort(String.valueOf(authService.port()));
+        authServiceConfig.setCoalesceRequests(false);
+        authServiceConfig.getCache().setEnabled(cacheEnabled);
+        connectionProvider = ConnectionProvider.create("auth-service-benchmark", 50);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuthServiceClient authServiceClient = new AuthServiceClient(WebClient.builder(), authServiceConfig, connectionProvider);
+        AuthorizationService authorizationService = new AuthorizationService(
+                authServiceClient,
+                new AuthorizationCache(authServiceConfig, meterRegistry),
+                new InFlightValidations(),
+                authServiceConfig,
+                new AuthServiceBreaker(authServiceConfig, meterRegistry),
+                new AuthorizationBatcher(authServiceClient, authServiceConfig));
+        // local verification is disabled, so the key set provider is never used
+        JwtVerifier jwtVerifier = new JwtVerifier(authServiceConfig, null, new ObjectMapper());
+        AuthenticationFilter authenticationFilter =
+                new AuthenticationFilter(authorizationService, jwtVerifier, new RouteTemplateRegistry());
+        ReflectionTestUtils.setField(authenticationFilter, "userIdHeader", "X-USER-ID");
+        ReflectionTestUtils.setField(authenticationFilter, "usernameHeader", "X-USER-NAME");
+        ReflectionTestUtils.setField(authenticationFilter, "serviceIdHeader", "X-SERVICE-ID");
+        ReflectionTestUtils.setField(authenticationFilter, "accountTypeHeader", "X-ACCOUNT-TYPE");
+        filter = authenticationFilter.apply(new AuthenticationFilter.Config());
+        chain = exchange -> Mono.empty();
+    }
+
+    @TearDown
+    public void tearDown() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+        authService.disposeNow();
+    }
+
+    @Benchmark
+    public HttpStatusCode authenticate() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/v1/sapphire/mms/secured/member/1001")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer benchmark-token"));
+        filter.filter(exchange, chain).block();
+        return exchange.getResponse().getStatusCode();
+    }
+}
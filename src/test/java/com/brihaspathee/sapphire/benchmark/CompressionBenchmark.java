@@ -0,0 +1,138 @@
+package com.brihaspathee.sapphire.benchmark;
+
+import com.brihaspathee.sapphire.compression.CompressorPool;
+import com.brihaspathee.sapphire.config.CompressionConfig;
+import com.brihaspathee.sapphire.filter.CompressionFilter;
+import com.brihaspathee.sapphire.support.TestGateway;
+import com.brihaspathee.sapphire.support.TestGateway.TestRoute;
+import io.netty.buffer.ByteBuf;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/22/26
+ * Time: 10:30 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.benchmark
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Load tests the response compression and the HTTP/2 listener. Concurrent clients fetch a
+ * 64 KB JSON document of a local backend through a gateway, over HTTP/1.1 or h2c, from a
+ * route with and without the CompressionFilter. The score is the latency per request;
+ * the bytes counter divided by the requests counter is the size of the body the client
+ * received, which shows the bandwidth saved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class CompressionBenchmark {
+
+    private static final String DOCUMENT = document();
+
+    @Param({"HTTP11", "H2C"})
+    public String protocol;
+
+    @Param({"plain", "gzip"})
+    public String route;
+
+    private DisposableServer backend;
+
+    private TestGateway gateway;
+
+    private HttpClient httpClient;
+
+    private String url;
+
+    @Setup
+    public void setUp() {
+        backend = TestGateway.backend(routes -> routes.get("/**", (request, response) ->
+                response.header(HttpHeaders.CONTENT_TYPE, "application/json").sendString(Mono.just(DOCUMENT))));
+        String backendUri = "http://localhost:" + backend.port();
+        gateway = TestGateway.start(
+                List.of(TestRoute.builder().id("plain").uri(backendUri).path("/plain/**").build(),
+                        TestRoute.builder().id("gzip").uri(backendUri).path("/gzip/**")
+                                .filter("CompressionFilter=1KB")
+                                .build()),
+                List.of(CompressionConfig.class, CompressorPool.class, CompressionFilter.class),
+                "server.http2.enabled=true");
+        url = gateway.url("/" + route + "/providers");
+        httpClient = HttpClient.create()
+                .protocol(HttpProtocol.valueOf(protocol))
+                .headers(headers -> headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        gateway.close();
+        backend.disposeNow();
+    }
+
+    @Benchmark
+    public Integer fetch(Received received) {
+        Integer size = httpClient.get()
+                .uri(url)
+                .responseSingle((response, body) -> body.map(ByteBuf::readableBytes).defaultIfEmpty(0))
+                .block();
+        received.bytes += size;
+        received.requests++;
+        return size;
+    }
+
+    /**
+     * The bytes and the responses received, reported next to the latency.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Received {
+
+        public long bytes;
+
+        public long requests;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            requests = 0;
+        }
+    }
+
+    private static String document() {
+        StringBuilder document = new StringBuilder("[");
+        for (int i = 0; document.length() < 64 * 1024; i++) {
+            if (i > 0) {
+                document.append(',');
+            }
+            document.append("{\"providerId\": \"").append(1000 + i)
+                    .append("\", \"name\": \"Provider ").append(i)
+                    .append("\", \"specialty\": \"Family Medicine\", \"city\": \"Springfield\", \"acceptingPatients\": true}");
+        }
+        return document.append(']').toString();
+    }
+}
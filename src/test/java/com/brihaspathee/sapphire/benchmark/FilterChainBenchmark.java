@@ -0,0 +1,104 @@
+package com.brihaspathee.sapphire.benchmark;
+
+import com.brihaspathee.sapphire.accesslog.AccessLogFilter;
+import com.brihaspathee.sapphire.accesslog.UpstreamTimingFilter;
+import com.brihaspathee.sapphire.config.AccessLogConfig;
+import com.brihaspathee.sapphire.config.RouteMetricsConfig;
+import com.brihaspathee.sapphire.metrics.RouteMetrics;
+import com.brihaspathee.sapphire.metrics.RouteMetricsFilter;
+import com.brihaspathee.sapphire.support.TestGateway;
+import com.brihaspathee.sapphire.support.TestGateway.TestRoute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/19/26
+ * Time: 10:40 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.benchmark
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Measures what the gateway adds to a request end to end. A local echo backend is called
+ * directly and through a gateway running the global filters of the project in front of
+ * it, both over keep-alive connections; the difference between the two is the overhead
+ * of the gateway and its filter chain. The gateway is started without the database, with
+ * a single route defined in the properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterChainBenchmark {
+
+    private static final String PAYLOAD = "{\"memberId\": \"1001\", \"firstName\": \"Jane\", \"lastName\": \"Doe\"}";
+
+    private DisposableServer backend;
+
+    private TestGateway gateway;
+
+    private HttpClient httpClient;
+
+    private String directUrl;
+
+    private String gatewayUrl;
+
+    @Setup
+    public void setUp() {
+        backend = TestGateway.backend(routes -> routes.get("/echo/**", (request, response) ->
+                response.header("Content-Type", "application/json").sendString(Mono.just(PAYLOAD))));
+        gateway = TestGateway.start(
+                List.of(TestRoute.builder()
+                        .id("echo")
+                        .uri("http://localhost:" + backend.port())
+                        .path("/echo/**")
+                        .build()),
+                List.of(AccessLogConfig.class, AccessLogFilter.class, UpstreamTimingFilter.class,
+                        RouteMetricsConfig.class, RouteMetrics.class, RouteMetricsFilter.class),
+                "application.access-log.sample-rate=0.0");
+        directUrl = "http://localhost:" + backend.port() + "/echo/member/1001";
+        gatewayUrl = gateway.url("/echo/member/1001");
+        httpClient = HttpClient.create().keepAlive(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        gateway.close();
+        backend.disposeNow();
+    }
+
+    @Benchmark
+    public String direct() {
+        return get(directUrl);
+    }
+
+    @Benchmark
+    public String throughGateway() {
+        return get(gatewayUrl);
+    }
+
+    private String get(String url) {
+        return httpClient.get()
+                .uri(url)
+                .responseSingle((response, body) -> body.asString())
+                .block();
+    }
+}
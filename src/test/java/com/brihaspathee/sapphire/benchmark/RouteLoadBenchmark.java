@@ -0,0 +1,130 @@
+package com.brihaspathee.sapphire.benchmark;
+
+import com.brihaspathee.sapphire.config.RouteConfig;
+import com.brihaspathee.sapphire.domain.entity.Route;
+import com.brihaspathee.sapphire.domain.repository.RouteRepository;
+import com.brihaspathee.sapphire.domain.repository.RouteTableFingerprint;
+import com.brihaspathee.sapphire.route.RouteDefinitionParser;
+import com.brihaspathee.sapphire.route.RouteSnapshot;
+import com.brihaspathee.sapphire.route.RouteSnapshotFile;
+import com.brihaspathee.sapphire.route.RouteTemplateRegistry;
+import com.brihaspathee.sapphire.route.SapphireRouteDefinitionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+import org.springframework.transaction.support.TransactionOperations;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/19/26
+ * Time: 10:20 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.benchmark
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Measures loading the routes table into the SapphireRouteDefinitionRepository, with the
+ * database replaced by a mocked RouteRepository. Every load converts all the rows into
+ * route definitions, so dividing the time by the number of routes gives the cost of
+ * converting a single route. An unchanged table is what every refresh of an idle gateway
+ * pays; a changed table also swaps the snapshot and recompiles the path templates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteLoadBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int routeCount;
+
+    private SapphireRouteDefinitionRepository repository;
+
+    private List<Route> routes;
+
+    private List<Route> changedRoutes;
+
+    private boolean changed;
+
+    @Setup
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void setUp() {
+        RoutePredicateFactory path = mock(RoutePredicateFactory.class);
+        when(path.name()).thenReturn("Path");
+        RoutePredicateFactory method = mock(RoutePredicateFactory.class);
+        when(method.name()).thenReturn("Method");
+        GatewayFilterFactory authentication = mock(GatewayFilterFactory.class);
+        when(authentication.name()).thenReturn("AuthenticationFilter");
+        GatewayFilterFactory stripPrefix = mock(GatewayFilterFactory.class);
+        when(stripPrefix.name()).thenReturn("StripPrefix");
+        ObjectProvider<RoutePredicateFactory> predicateFactories = mock(ObjectProvider.class);
+        when(predicateFactories.stream()).thenAnswer(invocation -> Stream.of(path, method));
+        ObjectProvider<GatewayFilterFactory> filterFactories = mock(ObjectProvider.class);
+        when(filterFactories.stream()).thenAnswer(invocation -> Stream.of(authentication, stripPrefix));
+
+        routes = routes("lb://SERVICE");
+        changedRoutes = routes("lb://SERVICE-CANARY");
+        RouteRepository routeRepository = mock(RouteRepository.class);
+        RouteConfig routeConfig = new RouteConfig();
+        routeConfig.getSnapshotFile().setEnabled(false);
+        when(routeRepository.findFingerprint())
+                .thenAnswer(invocation -> new RouteTableFingerprint((long) routeCount, Instant.now()));
+        when(routeRepository.findByEnabledTrue()).thenAnswer(invocation -> changed ? changedRoutes : routes);
+        repository = new SapphireRouteDefinitionRepository(routeRepository, new RouteTemplateRegistry(),
+                new RouteDefinitionParser(new ObjectMapper(), predicateFactories, filterFactories),
+                Schedulers.boundedElastic(), new RouteSnapshotFile(new ObjectMapper(), routeConfig),
+                TransactionOperations.withoutTransaction(), event -> {});
+        repository.reload().block();
+    }
+
+    @Benchmark
+    public RouteSnapshot reloadUnchanged() {
+        return repository.reload().block();
+    }
+
+    @Benchmark
+    public RouteSnapshot reloadChanged() {
+        changed = !changed;
+        return repository.reload().block();
+    }
+
+    private List<Route> routes(String uriPrefix) {
+        List<Route> loaded = new ArrayList<>(routeCount);
+        for (int i = 0; i < routeCount; i++) {
+            loaded.add(Route.builder()
+                    .id(i)
+                    .routeId("service-" + i)
+                    .uri(uriPrefix + i)
+                    .predicates("[\"Path=/api/v1/sapphire/service" + i + "/secured/**\", \"Method=GET,POST\"]")
+                    .filters("[\"AuthenticationFilter\", \"StripPrefix=1\"]")
+                    .enabled(true)
+                    .routeOrder(i)
+                    .build());
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,111 @@
+package com.brihaspathee.sapphire.benchmark;
+
+import com.brihaspathee.sapphire.route.RouteIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 3:10 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.benchmark
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Compares finding the route for a request through the {@link RouteIndex} against applying
+ * the predicates of every route in order, the way the stock RoutePredicateHandlerMapping does.
+ * The request targets the last service so the stock lookup has to go through the whole table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteLookupBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int routeCount;
+
+    private List<Route> routes;
+
+    private RouteIndex routeIndex;
+
+    private ServerWebExchange exchange;
+
+    @Setup
+    public void setUp() {
+        PathPatternParser parser = new PathPatternParser();
+        List<Route> unordered = new ArrayList<>();
+        Map<String, RouteDefinition> routeDefinitions = new HashMap<>();
+        for (int i = 0; i < routeCount; i++) {
+            // every other service has a more specific route that takes precedence, as
+            // provider-management-get-org does over provider-management
+            String template = i % 2 == 0
+                    ? "/api/v1/sapphire/service" + i + "/private/**"
+                    : "/api/v1/sapphire/service" + i + "/private/organization/{organizationId}/**";
+            int order = i % 2 == 0 ? 10 : 5;
+            PathPattern pattern = parser.parse(template);
+            String routeId = "service-" + i;
+            unordered.add(Route.async()
+                    .id(routeId)
+                    .uri(URI.create("lb://SERVICE" + i))
+                    .order(order)
+                    .predicate(e -> pattern.matches(e.getRequest().getPath().pathWithinApplication()))
+                    .build());
+            RouteDefinition routeDefinition = new RouteDefinition();
+            routeDefinition.setId(routeId);
+            routeDefinition.setPredicates(List.of(new PredicateDefinition("Path=" + template)));
+            routeDefinitions.put(routeId, routeDefinition);
+        }
+        routes = unordered.stream().sorted((a, b) -> Integer.compare(a.getOrder(), b.getOrder())).toList();
+        routeIndex = RouteIndex.build(routes, routeDefinitions);
+        int target = routeCount - 2;
+        exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/v1/sapphire/service" + target + "/private/organization/list"));
+    }
+
+    @Benchmark
+    public Route stockLookup() {
+        return firstMatch(Flux.fromIterable(routes));
+    }
+
+    @Benchmark
+    public Route indexedLookup() {
+        return firstMatch(Flux.fromIterable(routeIndex.candidates(exchange.getRequest().getPath().pathWithinApplication())));
+    }
+
+    private Route firstMatch(Flux<Route> candidates) {
+        return candidates
+                .concatMap(route -> Mono.just(route).filterWhen(r -> r.getPredicate().apply(exchange)))
+                .next()
+                .block();
+    }
+}
@@ -0,0 +1,80 @@
+package com.brihaspathee.sapphire.benchmark;
+
+import com.brihaspathee.sapphire.route.RouteTemplateMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/17/26
+ * Time: 4:20 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.benchmark
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Compares building the validation path with the precompiled {@link RouteTemplateMatcher}
+ * against the replace loop over the uri template variables that AuthenticationFilter used to run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteTemplateMatcherBenchmark {
+
+    @Param({
+            "/api/v1/sapphire/provider/private/**|/api/v1/sapphire/provider/private/organization/list",
+            "/api/v1/sapphire/provider/private/organization/{organizationId}/**|/api/v1/sapphire/provider/private/organization/8f2c1a/locations",
+            "/api/v1/sapphire/mms/secured/account/{accountId}/member/{memberId}/**|/api/v1/sapphire/mms/secured/account/1001/member/2002/address"
+    })
+    public String scenario;
+
+    private String path;
+
+    private RouteTemplateMatcher matcher;
+
+    private Map<String, String> uriVariables;
+
+    @Setup
+    public void setUp() {
+        String[] parts = scenario.split("\\|");
+        String template = parts[0];
+        path = parts[1];
+        matcher = RouteTemplateMatcher.compile(template);
+        // The gateway's Path predicate extracts these once per request before the filter runs
+        PathPattern pattern = new PathPatternParser().parse(template);
+        PathPattern.PathMatchInfo matchInfo = pattern.matchAndExtract(PathContainer.parsePath(path));
+        uriVariables = matchInfo == null ? Map.of() : matchInfo.getUriVariables();
+    }
+
+    @Benchmark
+    public String precompiledMatcher() {
+        return matcher.toTemplatePath(path);
+    }
+
+    @Benchmark
+    public String replaceLoop() {
+        AtomicReference<String> reconstructedPath = new AtomicReference<>();
+        uriVariables.forEach((key, value) -> reconstructedPath.set(path.replace(value, "{" + key + "}")));
+        String validationPath = reconstructedPath.get();
+        return validationPath != null ? validationPath : path;
+    }
+}
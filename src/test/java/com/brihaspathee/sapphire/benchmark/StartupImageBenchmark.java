@@ -0,0 +1,188 @@
+package com.brihaspathee.sapphire.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/23/26
+ * Time: 5:00 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.benchmark
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Measures the time to the first routed request of the packaged gateway, started the way
+ * the container image starts it: from the extracted jar with the class data sharing
+ * archive and the ahead-of-time processed bean definitions. The same jar is also started
+ * plainly with java -jar, so the difference is what the image saves. Each launch is a
+ * new process; the time runs from starting the process to the first response of a route
+ * to a local backend. The database, the config server and eureka are left out like in
+ * the training run of the image, so the routes table is never loaded and only the route
+ * passed as a property is served. Runs in the verify phase of the fast-startup profile,
+ * after the jar is extracted and the archive is dumped:
+ * <pre>
+ * mvn -Pfast-startup verify
+ * mvn -Pfast-startup verify -Dstartup-benchmark.launches=10
+ * </pre>
+ */
+public final class StartupImageBenchmark {
+
+    /**
+     * How long a launch may take to route its first request before it is failed.
+     */
+    private static final Duration LAUNCH_TIMEOUT = Duration.ofMinutes(2);
+
+    private StartupImageBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the packaged jar, the extracted jar, the class data sharing archive, the
+     *             number of launches of each mode and the file the results are written to
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 5) {
+            throw new IllegalArgumentException(
+                    "Expected <jar> <extracted jar> <archive> <launches> <result file>, got " + Arrays.toString(args));
+        }
+        File jar = new File(args[0]);
+        File extractedJar = new File(args[1]);
+        File archive = new File(args[2]);
+        int launches = Integer.parseInt(args[3]);
+        File resultFile = new File(args[4]);
+        DisposableServer backend = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.get("/echo/**", (request, response) -> response.sendString(Mono.just("ok"))))
+                .bindNow();
+        try {
+            Map<String, Object> results = new LinkedHashMap<>();
+            results.put("jar", measure("jar", List.of("-jar", jar.getAbsolutePath()),
+                    launches, backend.port(), resultFile.getParentFile()));
+            results.put("fast-startup-image", measure("fast-startup-image", List.of(
+                            "-XX:SharedArchiveFile=" + archive.getAbsolutePath(),
+                            "-Dspring.aot.enabled=true",
+                            "-jar", extractedJar.getAbsolutePath()),
+                    launches, backend.port(), resultFile.getParentFile()));
+            if (resultFile.getParentFile() != null) {
+                resultFile.getParentFile().mkdirs();
+            }
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(resultFile, results);
+            System.out.println("Results written to " + resultFile.getAbsolutePath());
+        } finally {
+            backend.disposeNow();
+        }
+    }
+
+    /**
+     * Launches the gateway the given number of times and prints the min, median and max
+     * time to the first routed request.
+     *
+     * @return the times of the launches in milliseconds, sorted
+     */
+    private static List<Long> measure(String mode, List<String> launchArguments, int launches,
+                                      int backendPort, File logDirectory) throws Exception {
+        List<Long> millis = new ArrayList<>();
+        for (int i = 0; i < launches; i++) {
+            File log = new File(logDirectory, "startup-benchmark-" + mode + "-" + i + ".log");
+            millis.add(launch(launchArguments, backendPort, log));
+        }
+        millis.sort(null);
+        System.out.printf("%-20s min %6d ms  median %6d ms  max %6d ms  (%d launches)%n",
+                mode, millis.get(0), millis.get(millis.size() / 2), millis.get(millis.size() - 1), launches);
+        return millis;
+    }
+
+    /**
+     * Starts the gateway, polls the echo route until it answers and stops the gateway.
+     *
+     * @return the milliseconds from starting the process to the first routed response
+     */
+    private static long launch(List<String> launchArguments, int backendPort, File log) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getAbsolutePath());
+        command.addAll(gatewayProperties(port, backendPort));
+        command.addAll(launchArguments);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/echo/startup"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long start = System.nanoTime();
+        Process gateway = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        try {
+            while (System.nanoTime() - start < LAUNCH_TIMEOUT.toNanos()) {
+                if (!gateway.isAlive()) {
+                    throw new IllegalStateException("The gateway exited with " + gateway.exitValue() + ", see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("The gateway did not route a request within " + LAUNCH_TIMEOUT + ", see " + log);
+        } finally {
+            gateway.destroy();
+            if (!gateway.waitFor(30, TimeUnit.SECONDS)) {
+                gateway.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * Returns the system properties both modes are started with: the fast-startup profile,
+     * the settings of the training run of the image and a route to the backend.
+     */
+    private static List<String> gatewayProperties(int port, int backendPort) {
+        return List.of(
+                "-Dspring.profiles.include=fast-startup",
+                "-Dspring.cloud.config.enabled=false",
+                "-Dspring.cloud.config.import-check.enabled=false",
+                "-Deureka.client.enabled=false",
+                "-Dspring.datasource.url=jdbc:postgresql://localhost:5432/training",
+                "-Dspring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                "-Dspring.jpa.hibernate.ddl-auto=none",
+                "-Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false",
+                "-Dlogging.level.root=WARN",
+                "-Dserver.port=" + port,
+                "-Dspring.cloud.gateway.routes[0].id=echo",
+                "-Dspring.cloud.gateway.routes[0].uri=http://localhost:" + backendPort,
+                "-Dspring.cloud.gateway.routes[0].predicates[0]=Path=/echo/**");
+    }
+
+    /**
+     * Returns a port that was free a moment ago.
+     */
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.brihaspathee.sapphire.compression;
+
+import com.brihaspathee.sapphire.config.CompressionConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/22/26
+ * Time: 11:00 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.compression
+ * To change this template use File | Settings | File and Code Template
+ */
+class CompressorPoolTest {
+
+    private final CompressorPool compressorPool = new CompressorPool(new CompressionConfig());
+
+    @Test
+    void bodyCompressedInPiecesIsValidGzip() throws IOException {
+        String body = "{\"providerId\": \"1001\", \"name\": \"Provider\"}".repeat(2000);
+
+        assertEquals(body, gunzip(compress(body)));
+    }
+
+    @Test
+    void releasedCompressorIsReusedForTheNextResponse() throws IOException {
+        compress("{\"providerId\": \"1001\"}".repeat(100));
+
+        assertEquals(1, compressorPool.idle());
+
+        String body = "{\"providerId\": \"1002\"}".repeat(100);
+        assertEquals(body, gunzip(compress(body)));
+        assertEquals(1, compressorPool.idle());
+    }
+
+    private byte[] compress(String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CompressorPool.Compressor compressor = compressorPool.take();
+        for (int offset = 0; offset < bytes.length; offset += 1000) {
+            ByteBuffer piece = ByteBuffer.wrap(bytes, offset, Math.min(1000, bytes.length - offset));
+            compressor.compress(piece, (compressed, length) -> output.write(compressed, 0, length));
+        }
+        compressor.finish((compressed, length) -> output.write(compressed, 0, length));
+        compressorPool.release(compressor);
+        return output.toByteArray();
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.brihaspathee.sapphire.concurrency;
+
+import com.brihaspathee.sapphire.config.ConcurrencyLimitConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/21/26
+ * Time: 6:10 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.concurrency
+ * To change this template use File | Settings | File and Code Template
+ */
+class AdaptiveLimitTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+
+    private static final long DEGRADED = Duration.ofMillis(200).toNanos();
+
+    private ConcurrencyLimitConfig config;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        config = new ConcurrencyLimitConfig();
+        config.setInitialLimit(20);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void lowPriorityRequestsAreShedFirst() {
+        AdaptiveLimit limit = new AdaptiveLimit("premium-billing", config, meterRegistry);
+        for (int i = 0; i < 16; i++) {
+            assertTrue(limit.tryAcquire(RequestPriority.LOW) > 0);
+        }
+
+        assertEquals(0, limit.tryAcquire(RequestPriority.LOW));
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limit.tryAcquire(RequestPriority.HIGH) > 0);
+        }
+        assertEquals(0, limit.tryAcquire(RequestPriority.HIGH));
+
+        assertEquals(1, meterRegistry.get("gateway.concurrency.rejected").tag("priority", "LOW").counter().count());
+        assertEquals(1, meterRegistry.get("gateway.concurrency.rejected").tag("priority", "HIGH").counter().count());
+    }
+
+    @Test
+    void gradientShrinksWhenTheDownstreamServiceDegradesAndRecovers() {
+        config.setAlgorithm(LimitAlgorithm.GRADIENT);
+        AdaptiveLimit limit = new AdaptiveLimit("premium-billing", config, meterRegistry);
+        runAtLimit(limit, FAST, 200);
+        int healthy = limit.getLimit();
+
+        runAtLimit(limit, DEGRADED, 50);
+        int degraded = limit.getLimit();
+
+        assertTrue(degraded < healthy / 2, "limit went from " + healthy + " to " + degraded);
+
+        runAtLimit(limit, DEGRADED, 2000);
+
+        assertTrue(limit.getLimit() > degraded, "limit did not recover from " + degraded);
+    }
+
+    @Test
+    void aimdGrowsWhileUsedAndBacksOffOnDrops() {
+        config.setAlgorithm(LimitAlgorithm.AIMD);
+        AdaptiveLimit limit = new AdaptiveLimit("premium-billing", config, meterRegistry);
+
+        runAtLimit(limit, FAST, 10);
+
+        assertEquals(30, limit.getLimit());
+
+        limit.tryAcquire(RequestPriority.HIGH);
+        limit.complete(FAST, 30, true);
+
+        assertEquals(27, limit.getLimit());
+        assertEquals(27.0, meterRegistry.get("gateway.concurrency.limit").gauge().value());
+    }
+
+    /**
+     * Completes the given number of requests at the given round trip time, each made
+     * while the whole limit was in use.
+     */
+    private static void runAtLimit(AdaptiveLimit limit, long rttNanos, int requests) {
+        for (int i = 0; i < requests; i++) {
+            int inFlight = limit.getLimit();
+            limit.tryAcquire(RequestPriority.HIGH);
+            limit.complete(rttNanos, inFlight, false);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.brihaspathee.sapphire.filter;
+
+import com.brihaspathee.sapphire.compression.CompressorPool;
+import com.brihaspathee.sapphire.config.CompressionConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/23/26
+ * Time: 7:00 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.filter
+ * To change this template use File | Settings | File and Code Template
+ */
+class CompressionFilterTest {
+
+    private static final String BODY = "{\"memberId\": \"1001\", \"name\": \"Member\"}".repeat(100);
+
+    private final CompressorPool compressorPool = new CompressorPool(new CompressionConfig());
+
+    private final GatewayFilter filter = new CompressionFilter(compressorPool, new CompressionConfig())
+            .apply(config(DataSize.ofKilobytes(1)));
+
+    @Test
+    void qualifyingResponseIsCompressed() throws IOException {
+        MockServerWebExchange exchange = exchange("gzip, deflate");
+
+        filter.filter(exchange, respond(response -> response.getHeaders().setETag("\"v1\""))).block();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(-1, headers.getContentLength());
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, headers.getFirst(HttpHeaders.VARY));
+        assertEquals("W/\"v1\"", headers.getETag());
+        assertEquals(BODY, gunzip(exchange));
+        assertEquals(1, compressorPool.idle());
+    }
+
+    @Test
+    void responsesThatDoNotQualifyArePassedThrough() {
+        assertPassedThrough("gzip", response -> response.setStatusCode(HttpStatus.NOT_FOUND));
+        assertPassedThrough("gzip", response -> response.setStatusCode(HttpStatus.PARTIAL_CONTENT));
+        assertPassedThrough("gzip", response -> response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "br"));
+        assertPassedThrough("gzip", response -> response.getHeaders().setCacheControl("public, no-transform"));
+        assertPassedThrough("gzip", response -> response.getHeaders().setContentLength(100));
+        assertPassedThrough("gzip", response -> response.getHeaders().setContentType(MediaType.IMAGE_PNG));
+    }
+
+    @Test
+    void clientRefusingGzipGetsTheIdentity() {
+        assertPassedThrough("gzip;q=0", response -> {});
+        assertPassedThrough("br, gzip;q=0.0", response -> {});
+        assertPassedThrough("*;q=0", response -> {});
+        assertPassedThrough("identity", response -> {});
+    }
+
+    @Test
+    void cancelledResponseReturnsItsCompressor() {
+        MockServerWebExchange exchange = exchange("gzip");
+        GatewayFilterChain chain = e -> {
+            ServerHttpResponse response = e.getResponse();
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response.writeWith(Flux.concat(Flux.just(buffer(BODY)), Flux.never()));
+        };
+
+        Disposable written = filter.filter(exchange, chain).subscribe();
+        assertEquals(0, compressorPool.idle());
+        written.dispose();
+
+        assertEquals(1, compressorPool.idle());
+    }
+
+    private void assertPassedThrough(String acceptEncoding, Consumer<ServerHttpResponse> customizer) {
+        MockServerWebExchange exchange = exchange(acceptEncoding);
+
+        filter.filter(exchange, respond(customizer)).block();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertNotEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(headers.getVary().isEmpty());
+        assertEquals(BODY, exchange.getResponse().getBodyAsString().block());
+    }
+
+    private static GatewayFilterChain respond(Consumer<ServerHttpResponse> customizer) {
+        return exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            customizer.accept(response);
+            return response.writeWith(Flux.just(buffer(BODY.substring(0, 1000)), buffer(BODY.substring(1000))));
+        };
+    }
+
+    private static MockServerWebExchange exchange(String acceptEncoding) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/sapphire/mms/secured/member/1001")
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding));
+    }
+
+    private static CompressionFilter.Config config(DataSize minSize) {
+        CompressionFilter.Config config = new CompressionFilter.Config();
+        config.setMinSize(minSize);
+        return config;
+    }
+
+    private static DataBuffer buffer(String content) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String gunzip(MockServerWebExchange exchange) throws IOException {
+        byte[] compressed = DataBufferUtils.join(exchange.getResponse().getBody())
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .block();
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
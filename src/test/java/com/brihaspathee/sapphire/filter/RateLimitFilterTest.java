@@ -0,0 +1,78 @@
+package com.brihaspathee.sapphire.filter;
+
+import com.brihaspathee.sapphire.ratelimit.RateLimitResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/23/26
+ * Time: 11:00 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.filter
+ * To change this template use File | Settings | File and Code Template
+ */
+class RateLimitFilterTest {
+
+    private final List<String> keys = new ArrayList<>();
+
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitFilter rateLimitFilter = new RateLimitFilter((key, limit) -> {
+            keys.add(key);
+            return Mono.just(RateLimitResult.allowed(1));
+        });
+        ReflectionTestUtils.setField(rateLimitFilter, "userIdHeader", "X-USER-ID");
+        ReflectionTestUtils.setField(rateLimitFilter, "serviceIdHeader", "X-SERVICE-ID");
+        RateLimitFilter.Config config = new RateLimitFilter.Config();
+        config.setKeyBy(RateLimitFilter.KeyBy.USER);
+        filter = rateLimitFilter.apply(config);
+    }
+
+    @Test
+    void authenticatedRequestsAreKeyedByUser() {
+        MockServerWebExchange exchange = exchange("123");
+        exchange.getAttributes().put(AuthenticationFilter.AUTHENTICATED_ATTR, Boolean.TRUE);
+
+        filter.filter(exchange, e -> Mono.empty()).block();
+
+        assertEquals(List.of("member-search|123"), keys);
+    }
+
+    @Test
+    void userHeaderOfUnauthenticatedRequestsIsIgnored() {
+        filter.filter(exchange("123"), e -> Mono.empty()).block();
+        filter.filter(exchange("456"), e -> Mono.empty()).block();
+
+        assertEquals(List.of("member-search|ip:10.1.2.3", "member-search|ip:10.1.2.3"), keys);
+    }
+
+    private static MockServerWebExchange exchange(String userId) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+                .get("/api/v1/sapphire/mms/public/members")
+                .remoteAddress(new InetSocketAddress("10.1.2.3", 52000))
+                .header("X-USER-ID", userId));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("member-search")
+                .uri("http://localhost:8080")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
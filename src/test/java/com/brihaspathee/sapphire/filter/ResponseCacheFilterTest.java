@@ -0,0 +1,209 @@
+package com.brihaspathee.sapphire.filter;
+
+import com.brihaspathee.sapphire.config.ResponseCacheConfig;
+import com.brihaspathee.sapphire.responsecache.CachedResponse;
+import com.brihaspathee.sapphire.responsecache.ResponseCacheStore;
+import com.brihaspathee.sapphire.support.TestGateway;
+import com.brihaspathee.sapphire.support.TestGateway.TestRoute;
+import io.netty.buffer.ByteBuf;
+import lombok.Value;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/23/26
+ * Time: 2:30 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.filter
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Proxies GET requests through a gateway started without the database, with a cached
+ * route to a local backend defined in the properties. A test filter stands in for the
+ * AuthenticationFilter for the requests carrying an X-Test-User header.
+ */
+class ResponseCacheFilterTest {
+
+    private static final AtomicInteger backendCalls = new AtomicInteger();
+
+    private static DisposableServer backend;
+
+    private static TestGateway gateway;
+
+    @BeforeAll
+    static void setUp() {
+        backend = TestGateway.backend(routes -> routes.get("/cached/**", (request, response) -> {
+            backendCalls.incrementAndGet();
+            String user = request.requestHeaders().get("X-USER-ID", "anonymous");
+            return response.header(HttpHeaders.CONTENT_TYPE, "application/json")
+                    .header(HttpHeaders.ETAG, "\"v1\"")
+                    .sendString(Mono.just("{\"user\": \"" + user + "\"}"));
+        }));
+        gateway = TestGateway.start(
+                List.of(TestRoute.builder()
+                        .id("cached")
+                        .uri("http://localhost:" + backend.port())
+                        .path("/cached/**")
+                        .filter("ResponseCacheFilter=30s")
+                        .build()),
+                List.of(ResponseCacheConfig.class, ResponseCacheStore.class, ResponseCacheFilter.class,
+                        ResponseCaptureFilter.class, TestAuthenticationFilter.class),
+                "application.user-info.user-id=X-USER-ID",
+                "application.user-info.service-id=X-SERVICE-ID");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        gateway.close();
+        backend.disposeNow();
+    }
+
+    @BeforeEach
+    void clearCache() {
+        gateway.getBean(ResponseCacheStore.class).invalidateAll();
+        backendCalls.set(0);
+    }
+
+    @Test
+    void secondRequestIsServedFromTheCache() {
+        Received miss = get("/cached/members", HttpHeaders.EMPTY);
+        Received hit = get("/cached/members", HttpHeaders.EMPTY);
+
+        assertEquals(200, miss.getStatus());
+        assertEquals("MISS", miss.getCache());
+        assertEquals(200, hit.getStatus());
+        assertEquals("HIT", hit.getCache());
+        assertEquals(miss.getBody(), hit.getBody());
+        assertEquals(1, backendCalls.get());
+    }
+
+    @Test
+    void matchingConditionalRequestIsNotModified() {
+        get("/cached/members", HttpHeaders.EMPTY);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch("\"v1\"");
+
+        Received notModified = get("/cached/members", headers);
+
+        assertEquals(304, notModified.getStatus());
+        assertEquals("HIT", notModified.getCache());
+        assertEquals("", notModified.getBody());
+        assertEquals(1, backendCalls.get());
+    }
+
+    @Test
+    void noStoreRequestBypassesTheCache() {
+        get("/cached/members", HttpHeaders.EMPTY);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("no-store");
+
+        Received bypassed = get("/cached/members", headers);
+
+        assertEquals(200, bypassed.getStatus());
+        assertNull(bypassed.getCache());
+        assertEquals(2, backendCalls.get());
+    }
+
+    @Test
+    void authenticatedResponsesAreCachedPerUser() {
+        HttpHeaders alice = new HttpHeaders();
+        alice.set("X-Test-User", "alice");
+        HttpHeaders bob = new HttpHeaders();
+        bob.set("X-Test-User", "bob");
+
+        Received aliceMiss = get("/cached/members", alice);
+        Received bobMiss = get("/cached/members", bob);
+        Received aliceHit = get("/cached/members", alice);
+
+        assertEquals("MISS", aliceMiss.getCache());
+        assertEquals("MISS", bobMiss.getCache());
+        assertEquals("{\"user\": \"bob\"}", bobMiss.getBody());
+        assertEquals("HIT", aliceHit.getCache());
+        assertEquals("{\"user\": \"alice\"}", aliceHit.getBody());
+        assertEquals(2, backendCalls.get());
+    }
+
+    @Test
+    void bodyIsReleasedWhenTheEntryIsEvicted() throws InterruptedException {
+        get("/cached/members?page=2", HttpHeaders.EMPTY);
+        get("/cached/members?page=2", HttpHeaders.EMPTY);
+        ResponseCacheStore store = gateway.getBean(ResponseCacheStore.class);
+        CachedResponse cached = store.get("cached|/cached/members?page=2");
+        assertNotNull(cached);
+        ByteBuf body = cached.getBody();
+        // the duplicate written by the hit is released once it is flushed
+        for (int i = 0; i < 100 && body.refCnt() > 1; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, body.refCnt());
+
+        store.invalidateAll();
+
+        assertEquals(0, body.refCnt());
+    }
+
+    private static Received get(String path, HttpHeaders headers) {
+        return HttpClient.create()
+                .headers(requestHeaders -> headers.forEach(requestHeaders::add))
+                .get()
+                .uri(gateway.url(path))
+                .responseSingle((response, body) -> body.asString()
+                        .defaultIfEmpty("")
+                        .map(content -> new Received(response.status().code(),
+                                response.responseHeaders().get("X-Cache"), content)))
+                .block(Duration.ofSeconds(10));
+    }
+
+    @Value
+    static class Received {
+
+        int status;
+
+        String cache;
+
+        String body;
+    }
+
+    /**
+     * Authenticates the requests carrying an X-Test-User header as that user, before the
+     * route filters run.
+     */
+    static class TestAuthenticationFilter implements GlobalFilter, Ordered {
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            String user = exchange.getRequest().getHeaders().getFirst("X-Test-User");
+            if (user == null) {
+                return chain.filter(exchange);
+            }
+            exchange.getAttributes().put(AuthenticationFilter.AUTHENTICATED_ATTR, Boolean.TRUE);
+            return chain.filter(exchange.mutate()
+                    .request(request -> request.header("X-USER-ID", user))
+                    .build());
+        }
+
+        @Override
+        public int getOrder() {
+            return 0;
+        }
+    }
+}
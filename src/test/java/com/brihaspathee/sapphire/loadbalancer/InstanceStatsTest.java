@@ -0,0 +1,80 @@
+package com.brihaspathee.sapphire.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/23/26
+ * Time: 6:00 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.loadbalancer
+ * To change this template use File | Settings | File and Code Template
+ */
+class InstanceStatsTest {
+
+    private static final long DECAY_NANOS = Duration.ofSeconds(10).toNanos();
+
+    @Test
+    void idleInstanceFadesSoItIsTriedAgain() {
+        long now = System.nanoTime();
+        InstanceStats slow = observed(Duration.ofMillis(200), now);
+        InstanceStats fast = observed(Duration.ofMillis(2), now);
+
+        assertTrue(slow.cost(now) > fast.cost(now));
+        assertTrue(slow.cost(now + 10 * DECAY_NANOS) < fast.cost(now));
+        assertEquals(0, new InstanceStats(DECAY_NANOS).cost(now));
+    }
+
+    @Test
+    void stalledInstanceIsAvoided() {
+        long now = System.nanoTime();
+        InstanceStats stalled = observed(Duration.ofMillis(2), now);
+        stalled.start();
+        stalled.start();
+        InstanceStats healthy = observed(Duration.ofMillis(50), now);
+        healthy.start();
+
+        // the average does not fade while requests are in flight
+        long later = now + 3 * DECAY_NANOS;
+        assertEquals(Duration.ofMillis(2).toNanos() * 3, stalled.cost(later), 1);
+        assertEquals(Duration.ofMillis(50).toNanos() * 2, healthy.cost(now), 1);
+
+        // once nothing completed for a few decay times, the requests in flight are penalised
+        long stalledFor = now + 6 * DECAY_NANOS;
+        healthy.complete(Duration.ofMillis(50).toNanos(), stalledFor);
+        healthy.start();
+        assertEquals(InstanceStats.PENALTY_NANOS * 3, stalled.cost(stalledFor), 1);
+        assertTrue(stalled.cost(stalledFor) > healthy.cost(stalledFor));
+    }
+
+    @Test
+    void freshInstanceWithRequestsInFlightCostsThePenalty() {
+        long now = System.nanoTime();
+        InstanceStats fresh = new InstanceStats(DECAY_NANOS);
+        InstanceStats known = observed(Duration.ofSeconds(5), now);
+        known.start();
+        fresh.start();
+
+        assertEquals(InstanceStats.PENALTY_NANOS * 2, fresh.cost(now), 1);
+        assertTrue(fresh.cost(now) > known.cost(now));
+
+        fresh.start();
+        assertTrue(fresh.cost(now) > InstanceStats.PENALTY_NANOS * 2);
+
+        fresh.complete(Duration.ofMillis(2).toNanos(), now);
+        assertEquals(Duration.ofMillis(2).toNanos() * 2, fresh.cost(now), 1);
+    }
+
+    private static InstanceStats observed(Duration latency, long now) {
+        InstanceStats stats = new InstanceStats(DECAY_NANOS);
+        stats.start();
+        stats.complete(latency.toNanos(), now);
+        return stats;
+    }
+}
@@ -0,0 +1,138 @@
+package com.brihaspathee.sapphire.loadbalancer;
+
+import com.brihaspathee.sapphire.config.LoadBalancerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/20/26
+ * Time: 3:10 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.loadbalancer
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Runs the load balancer against a static instance list, without Eureka.
+ */
+class SapphireLoadBalancerTest {
+
+    private final ServiceInstance first = instance("member-management-1", Map.of());
+
+    private final ServiceInstance second = instance("member-management-2", Map.of());
+
+    private final ServiceInstance slow = instance("member-management-3", Map.of());
+
+    private final ServiceInstance canary = instance("member-management-canary", Map.of("weight", "5"));
+
+    private InstanceStatsRegistry instanceStatsRegistry;
+
+    private SapphireLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        LoadBalancerConfig loadBalancerConfig = new LoadBalancerConfig();
+        instanceStatsRegistry = new InstanceStatsRegistry(loadBalancerConfig);
+        loadBalancer = new SapphireLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider("MEMBER-MANAGEMENT", first, second, slow),
+                "MEMBER-MANAGEMENT", instanceStatsRegistry, loadBalancerConfig);
+    }
+
+    @Test
+    void leastLatencyAvoidsTheSlowInstance() {
+        long now = System.nanoTime();
+        observe(first, Duration.ofMillis(2), now);
+        observe(second, Duration.ofMillis(3), now);
+        observe(slow, Duration.ofMillis(200), now);
+
+        int slowPicks = 0;
+        for (int i = 0; i < 1000; i++) {
+            ServiceInstance picked = loadBalancer.choose(LoadBalancingStrategy.LEAST_LATENCY,
+                    List.of(first, second, slow)).getServer();
+            if (picked == slow) {
+                slowPicks++;
+            }
+        }
+
+        assertEquals(0, slowPicks);
+    }
+
+    @Test
+    void leastLatencyAvoidsTheInstanceWithRequestsPiledUp() {
+        long now = System.nanoTime();
+        observe(first, Duration.ofMillis(2), now);
+        observe(second, Duration.ofMillis(2), now);
+        for (int i = 0; i < 10; i++) {
+            instanceStatsRegistry.stats(second).start();
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first, loadBalancer.choose(LoadBalancingStrategy.LEAST_LATENCY,
+                    List.of(first, second)).getServer());
+        }
+    }
+
+    @Test
+    void weightedSendsTheCanaryItsShare() {
+        int canaryPicks = 0;
+        int picks = 20000;
+        for (int i = 0; i < picks; i++) {
+            if (loadBalancer.choose(LoadBalancingStrategy.WEIGHTED, List.of(first, second, canary)).getServer() == canary) {
+                canaryPicks++;
+            }
+        }
+
+        // 5 / (100 + 100 + 5) is about 2.4%
+        double share = (double) canaryPicks / picks;
+        assertTrue(share > 0.015 && share < 0.035, "canary share " + share);
+    }
+
+    @Test
+    void strategyIsTakenFromTheRouteMetadata() {
+        long now = System.nanoTime();
+        observe(first, Duration.ofMillis(2), now);
+        observe(second, Duration.ofMillis(2), now);
+        observe(slow, Duration.ofMillis(200), now);
+        Route route = Route.async()
+                .id("member-management")
+                .uri("lb://MEMBER-MANAGEMENT")
+                .predicate(exchange -> true)
+                .metadata(SapphireLoadBalancer.METADATA_KEY, LoadBalancingStrategy.LEAST_LATENCY.name())
+                .build();
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        DefaultRequest<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext(
+                new RequestData(MockServerHttpRequest.get("/api/v1/sapphire/mms/secured/member/1").build(), attributes)));
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(loadBalancer.choose(request).block().getServer() != slow);
+        }
+    }
+
+    private void observe(ServiceInstance instance, Duration latency, long now) {
+        InstanceStats stats = instanceStatsRegistry.stats(instance);
+        stats.start();
+        stats.complete(latency.toNanos(), now);
+    }
+
+    private static ServiceInstance instance(String instanceId, Map<String, String> metadata) {
+        return new DefaultServiceInstance(instanceId, "MEMBER-MANAGEMENT", instanceId, 8080, false, metadata);
+    }
+}
@@ -0,0 +1,163 @@
+package com.brihaspathee.sapphire.loadtest;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/22/26
+ * Time: 2:45 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.loadtest
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Drives a closed loop load against the gateway: a fixed number of requests is kept in
+ * flight, each loop sending its next request as soon as the previous one is answered.
+ * The latency is recorded in a timer whose percentiles are approximations: Micrometer
+ * estimates them from a histogram that keeps three significant digits and rotates over
+ * time, set up here so a single window spans the phase. The allocation is read from the
+ * thread MX bean. The gateway, the stubs and the driver share the JVM, so the allocation
+ * rate is that of the whole process under the load, not of the gateway alone.
+ */
+final class LoadDriver implements AutoCloseable {
+
+    private final ConnectionProvider connectionProvider;
+
+    private final HttpClient httpClient;
+
+    private final int concurrency;
+
+    LoadDriver(String gatewayUrl, int concurrency) {
+        this.concurrency = concurrency;
+        this.connectionProvider = ConnectionProvider.builder("load-driver")
+                .maxConnections(concurrency)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.httpClient = HttpClient.create(connectionProvider).baseUrl(gatewayUrl);
+    }
+
+    /**
+     * Runs a phase of the load test.
+     *
+     * @param name the name of the phase in the results
+     * @param duration how long the phase runs
+     * @param request supplies the path and the token, null for none, of each request
+     * @return the results of the phase
+     */
+    PhaseResult run(String name, Duration duration, Supplier<Request> request) {
+        Timer latency = Timer.builder("load.test.latency")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .percentilePrecision(3)
+                // one bucket spanning the phase, so the percentiles cover all of it
+                .distributionStatisticExpiry(duration.multipliedBy(2))
+                .distributionStatisticBufferLength(1)
+                .register(new SimpleMeterRegistry());
+        AtomicLong errors = new AtomicLong();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        Flux.range(0, concurrency)
+                .flatMap(loop -> Mono.defer(() -> send(request.get(), latency, errors))
+                        .repeat(() -> System.nanoTime() < deadline), concurrency)
+                .blockLast();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double allocatedMegabytes = (allocatedBytes() - allocatedBefore) / (1024.0 * 1024.0);
+        HistogramSnapshot snapshot = latency.takeSnapshot();
+        long requests = snapshot.count();
+        return new PhaseResult(name,
+                requests,
+                errors.get(),
+                requests / seconds,
+                percentile(snapshot, 0.5),
+                percentile(snapshot, 0.99),
+                percentile(snapshot, 0.999),
+                allocatedMegabytes / seconds,
+                requests == 0 ? 0 : allocatedMegabytes * 1024 * 1024 / requests);
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.disposeLater().block();
+    }
+
+    private Mono<Integer> send(Request request, Timer latency, AtomicLong errors) {
+        long start = System.nanoTime();
+        HttpClient client = request.getToken() == null ? httpClient
+                : httpClient.headers(headers -> headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + request.getToken()));
+        return client.get()
+                .uri(request.getPath())
+                .response((response, body) -> body.then(Mono.just(response.status().code())))
+                .next()
+                .onErrorReturn(-1)
+                .doOnNext(status -> {
+                    latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    if (status != 200) {
+                        errors.incrementAndGet();
+                    }
+                });
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+    }
+
+    /**
+     * A request of the load, to a path of the gateway with an optional bearer token.
+     */
+    @Value
+    static class Request {
+
+        String path;
+
+        String token;
+    }
+
+    /**
+     * The results of a phase, with the latencies in milliseconds.
+     */
+    @Value
+    static class PhaseResult {
+
+        String phase;
+
+        long requests;
+
+        long errors;
+
+        double throughput;
+
+        double p50;
+
+        double p99;
+
+        double p999;
+
+        double allocationMegabytesPerSecond;
+
+        double allocationBytesPerRequest;
+    }
+}
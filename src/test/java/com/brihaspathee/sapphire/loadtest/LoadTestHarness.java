@@ -0,0 +1,157 @@
+package com.brihaspathee.sapphire.loadtest;
+
+import com.brihaspathee.sapphire.ApiGatewayApplication;
+import com.brihaspathee.sapphire.domain.entity.Route;
+import com.brihaspathee.sapphire.route.SapphireRouteDefinitionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/22/26
+ * Time: 3:00 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.loadtest
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Load tests the whole gateway on a single machine, with nothing else running. The
+ * gateway is started as it is deployed, with the unit-test profile, but on an in-memory
+ * H2 routes table seeded with the configured number of routes, half of them secured with
+ * the AuthenticationFilter and half public, all to a stub backend. The secured routes
+ * validate against a stub auth service with the configured latency and error rate. After
+ * a warmup the secured routes, the public routes and a mix of both are loaded in turn,
+ * and the throughput, the p50/p99/p999 latencies and the allocation rate of each are
+ * printed and written as JSON. Run with
+ * <pre>
+ * mvn -Pload-test test-compile exec:exec
+ * mvn -Pload-test test-compile exec:exec -Dloadtest.routes=1000 -Dloadtest.auth.error-rate=0.01
+ * </pre>
+ * The arguments of main are passed on to the gateway, for e.g.
+ * --application.auth-service.batch.enabled=true, so the same load can be compared
+ * across configurations.
+ */
+public final class LoadTestHarness {
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadTestSettings settings = new LoadTestSettings();
+        System.out.println("Load test: " + settings);
+        StubAuthService authService = new StubAuthService(settings.authLatency, settings.authErrorRate);
+        StubBackend backend = new StubBackend(settings.backendLatency, settings.backendPayloadSize);
+        ConfigurableApplicationContext gateway = SpringApplication.run(ApiGatewayApplication.class,
+                gatewayArguments(authService.port(), args));
+        try (LoadDriver driver = new LoadDriver(
+                "http://localhost:" + gateway.getEnvironment().getProperty("local.server.port"),
+                settings.concurrency)) {
+            seedRoutes(gateway, settings.routes, backend.port());
+            int services = settings.routes / 2;
+            driver.run("warmup", settings.warmup, () -> request(services, settings.users, ThreadLocalRandom.current().nextBoolean()));
+            List<LoadDriver.PhaseResult> results = new ArrayList<>();
+            results.add(driver.run("secured", settings.duration, () -> request(services, settings.users, true)));
+            results.add(driver.run("public", settings.duration, () -> request(services, settings.users, false)));
+            results.add(driver.run("mixed", settings.duration, () -> request(services, settings.users, ThreadLocalRandom.current().nextBoolean())));
+            print(results, authService.validations());
+            write(settings, results);
+        } finally {
+            gateway.close();
+            backend.stop();
+            authService.stop();
+        }
+    }
+
+    /**
+     * Returns the arguments the gateway is started with: the in-memory routes table, the
+     * stub auth service, and nothing that reaches out of the process or logs per request,
+     * followed by the arguments of the harness, which override them.
+     */
+    private static String[] gatewayArguments(int authServicePort, String[] args) {
+        String[] defaults = {
+                "--spring.datasource.url=jdbc:h2:mem:sapphire_gatewaydb;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.cloud.config.enabled=false",
+                "--spring.cloud.config.import-check.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--eureka.client.enabled=false",
+                "--logging.level.root=WARN",
+                "--server.port=0",
+                "--application.auth-service.host=localhost",
+                "--application.auth-service.port=" + authServicePort,
+                "--application.routes.snapshot-file.enabled=false",
+                "--application.routes.notify.enabled=false",
+                "--application.access-log.sample-rate=0.0",
+                "--application.concurrency-limit.enabled=false",
+                "--application.streaming.leak-detection=disabled"
+        };
+        return Stream.concat(Stream.of(defaults), Stream.of(args)).toArray(String[]::new);
+    }
+
+    /**
+     * Seeds the routes table in a single batch, a secured and a public route per service.
+     */
+    private static void seedRoutes(ConfigurableApplicationContext gateway, int routes, int backendPort) {
+        List<Route> saves = new ArrayList<>();
+        for (int i = 0; i < routes; i++) {
+            boolean secured = i % 2 == 0;
+            String service = "svc-" + i / 2;
+            String access = secured ? "secured" : "public";
+            saves.add(Route.builder()
+                    .routeId(service + "-" + access)
+                    .uri("http://localhost:" + backendPort)
+                    .predicates("[\"Path=/api/v1/sapphire/" + service + "/" + access + "/**\"]")
+                    .filters(secured ? "[\"AuthenticationFilter\"]" : "[]")
+                    .enabled(true)
+                    .routeOrder(i)
+                    .build());
+        }
+        gateway.getBean(SapphireRouteDefinitionRepository.class).apply(saves, List.of()).block();
+    }
+
+    private static LoadDriver.Request request(int services, int users, boolean secured) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String path = "/api/v1/sapphire/svc-" + random.nextInt(Math.max(1, services)) +
+                (secured ? "/secured" : "/public") + "/members/" + random.nextInt(100_000);
+        return new LoadDriver.Request(path, secured ? "user-" + random.nextInt(users) : null);
+    }
+
+    private static void print(List<LoadDriver.PhaseResult> results, long validations) {
+        System.out.printf("%n%-8s %10s %8s %10s %9s %9s %9s %10s %10s%n",
+                "phase", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "alloc MB/s", "alloc B/req");
+        for (LoadDriver.PhaseResult result : results) {
+            System.out.printf("%-8s %10d %8d %10.0f %9.2f %9.2f %9.2f %10.1f %10.0f%n",
+                    result.getPhase(), result.getRequests(), result.getErrors(), result.getThroughput(),
+                    result.getP50(), result.getP99(), result.getP999(),
+                    result.getAllocationMegabytesPerSecond(), result.getAllocationBytesPerRequest());
+        }
+        System.out.printf("auth service validations: %d%n", validations);
+    }
+
+    private static void write(LoadTestSettings settings, List<LoadDriver.PhaseResult> results) throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("settings", settings.toString());
+        document.put("results", results);
+        File resultFile = new File(settings.resultFile);
+        if (resultFile.getParentFile() != null) {
+            resultFile.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(resultFile, document);
+        System.out.println("Results written to " + resultFile.getAbsolutePath());
+    }
+}
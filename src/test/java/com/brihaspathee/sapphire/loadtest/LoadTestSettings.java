@@ -0,0 +1,82 @@
+package com.brihaspathee.sapphire.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/22/26
+ * Time: 2:00 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.loadtest
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The settings of a load test run, read from the loadtest.* system properties, for e.g.
+ * -Dloadtest.routes=500 -Dloadtest.auth.latency=5ms -Dloadtest.auth.error-rate=0.01
+ */
+final class LoadTestSettings {
+
+    /**
+     * The number of routes seeded in the routes table, half of them secured.
+     */
+    final int routes = Integer.getInteger("loadtest.routes", 200);
+
+    /**
+     * The number of distinct users whose tokens the secured requests carry.
+     */
+    final int users = Integer.getInteger("loadtest.users", 1000);
+
+    /**
+     * The number of requests the driver keeps in flight.
+     */
+    final int concurrency = Integer.getInteger("loadtest.concurrency", 64);
+
+    /**
+     * How long the gateway is warmed up before the measured phases.
+     */
+    final Duration warmup = duration("loadtest.warmup", "10s");
+
+    /**
+     * How long each measured phase runs.
+     */
+    final Duration duration = duration("loadtest.duration", "30s");
+
+    /**
+     * How long the stub auth service takes to answer a validation.
+     */
+    final Duration authLatency = duration("loadtest.auth.latency", "2ms");
+
+    /**
+     * The share of the validations the stub auth service fails with 503.
+     */
+    final double authErrorRate = Double.parseDouble(System.getProperty("loadtest.auth.error-rate", "0"));
+
+    /**
+     * How long the stub backends take to answer.
+     */
+    final Duration backendLatency = duration("loadtest.backend.latency", "5ms");
+
+    /**
+     * The size of the bodies the stub backends answer with, in bytes.
+     */
+    final int backendPayloadSize = Integer.getInteger("loadtest.backend.payload-size", 1024);
+
+    /**
+     * The file the results are written to as JSON.
+     */
+    final String resultFile = System.getProperty("loadtest.result-file", "target/load-test-result.json");
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+
+    @Override
+    public String toString() {
+        return "routes=" + routes + ", users=" + users + ", concurrency=" + concurrency +
+                ", warmup=" + warmup + ", duration=" + duration +
+                ", auth latency=" + authLatency + ", auth error rate=" + authErrorRate +
+                ", backend latency=" + backendLatency + ", backend payload=" + backendPayloadSize + "B";
+    }
+}
@@ -0,0 +1,122 @@
+package com.brihaspathee.sapphire.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/22/26
+ * Time: 2:15 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.loadtest
+ * To change this template use File | Settings | File and Code Template
+ *
+ * A local stand-in for the authentication service, serving the single and the batch
+ * validate endpoints after the configured latency. Tokens of the form user-{id} are
+ * allowed as that user, any other token is rejected with 401, and the configured share
+ * of the validations fails with 503.
+ */
+final class StubAuthService {
+
+    private static final String TOKEN_PREFIX = "user-";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Duration latency;
+
+    private final double errorRate;
+
+    private final AtomicLong validations = new AtomicLong();
+
+    private final DisposableServer server;
+
+    StubAuthService(Duration latency, double errorRate) {
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .post("/api/v1/sapphire/auth/resource/validate/batch", (request, response) ->
+                                request.receive().aggregate().asString()
+                                        .delayUntil(body -> delay())
+                                        .flatMap(body -> json(response, batch(body))))
+                        .post("/api/v1/sapphire/auth/resource/validate", (request, response) -> {
+                            String authorization = request.requestHeaders().get(HttpHeaders.AUTHORIZATION);
+                            String token = authorization != null && authorization.startsWith("Bearer ")
+                                    ? authorization.substring(7) : "";
+                            return request.receive().then(delay()).then(Mono.defer(() -> {
+                                int status = status(token);
+                                if (status != 200) {
+                                    return response.status(status).send().then();
+                                }
+                                return json(response, "{\"response\": " + user(token) + "}");
+                            }));
+                        }))
+                .bindNow();
+    }
+
+    int port() {
+        return server.port();
+    }
+
+    long validations() {
+        return validations.get();
+    }
+
+    void stop() {
+        server.disposeNow();
+    }
+
+    private Mono<Void> delay() {
+        return latency.isZero() ? Mono.empty() : Mono.delay(latency).then();
+    }
+
+    private int status(String token) {
+        validations.incrementAndGet();
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            return 503;
+        }
+        return token.startsWith(TOKEN_PREFIX) ? 200 : 401;
+    }
+
+    private String batch(String body) {
+        try {
+            ArrayNode results = objectMapper.createArrayNode();
+            for (JsonNode validation : objectMapper.readTree(body).get("validations")) {
+                String token = validation.path("token").asText("");
+                int status = status(token);
+                ObjectNode result = results.addObject().put("status", status);
+                if (status == 200) {
+                    result.set("user", objectMapper.readTree(user(token)));
+                }
+            }
+            return objectMapper.writeValueAsString(objectMapper.createObjectNode().set("results", results));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Mono<Void> json(HttpServerResponse response, String body) {
+        return response.header(HttpHeaders.CONTENT_TYPE, "application/json").sendString(Mono.just(body)).then();
+    }
+
+    private static String user(String token) {
+        String id = token.substring(TOKEN_PREFIX.length());
+        return "{\"userId\": \"" + id + "\", \"username\": \"" + token + "\", \"serviceId\": null, \"accountType\": \"MEMBER\"}";
+    }
+}
@@ -0,0 +1,55 @@
+package com.brihaspathee.sapphire.loadtest;
+
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/22/26
+ * Time: 2:30 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.loadtest
+ * To change this template use File | Settings | File and Code Template
+ *
+ * A local stand-in for the downstream services, answering every path with a JSON body of
+ * the configured size after the configured latency.
+ */
+final class StubBackend {
+
+    private final DisposableServer server;
+
+    StubBackend(Duration latency, int payloadSize) {
+        byte[] payload = payload(payloadSize);
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.route(request -> true, (request, response) -> request.receive()
+                        .then(latency.isZero() ? Mono.empty() : Mono.delay(latency).then())
+                        .then(response.header(HttpHeaders.CONTENT_TYPE, "application/json")
+                                .sendByteArray(Mono.just(payload))
+                                .then())))
+                .bindNow();
+    }
+
+    int port() {
+        return server.port();
+    }
+
+    void stop() {
+        server.disposeNow();
+    }
+
+    private static byte[] payload(int size) {
+        StringBuilder payload = new StringBuilder("{\"members\": [");
+        for (int i = 0; payload.length() < size - 2; i++) {
+            payload.append(i == 0 ? "" : ",").append(1000 + i);
+        }
+        return payload.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,100 @@
+package com.brihaspathee.sapphire.metrics;
+
+import com.brihaspathee.sapphire.accesslog.GatewayTimings;
+import com.brihaspathee.sapphire.config.RouteMetricsConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/23/26
+ * Time: 4:00 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.metrics
+ * To change this template use File | Settings | File and Code Template
+ */
+class RouteMetricsTest {
+
+    private final List<Route> routes = new ArrayList<>();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RouteMetrics routeMetrics;
+
+    private RouteMetricsFilter routeMetricsFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RouteMetricsConfig routeMetricsConfig = new RouteMetricsConfig();
+        routeMetrics = new RouteMetrics(meterRegistry, routeMetricsConfig, () -> Flux.fromIterable(routes));
+        routeMetricsFilter = new RouteMetricsFilter(routeMetrics, routeMetricsConfig);
+        routes.add(route("member-search"));
+        routes.add(route("provider-search"));
+    }
+
+    @Test
+    void requestIsRecordedUnderItsRoute() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/v1/sapphire/mms/secured/member/123"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, routes.get(0));
+
+        routeMetricsFilter.filter(exchange, e -> {
+            GatewayTimings.authStarted(e);
+            GatewayTimings.authFinished(e);
+            GatewayTimings.upstreamStarted(e);
+            GatewayTimings.upstreamFinished(e);
+            e.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+            return Mono.empty();
+        }).block();
+
+        assertEquals(1, meterRegistry.get("gateway.route.requests")
+                .tag("route", "member-search").tag("status", "4xx").timer().count());
+        assertEquals(0, meterRegistry.get("gateway.route.requests")
+                .tag("route", "member-search").tag("status", "2xx").timer().count());
+        assertEquals(1, meterRegistry.get("gateway.route.auth").tag("route", "member-search").timer().count());
+        assertEquals(1, meterRegistry.get("gateway.route.upstream").tag("route", "member-search").timer().count());
+        assertNull(meterRegistry.find("gateway.route.requests").tag("route", "provider-search").timer());
+    }
+
+    @Test
+    void metersOfADeletedRouteAreRemoved() {
+        routeMetrics.onApplicationEvent(new RefreshRoutesResultEvent(this));
+
+        assertNotNull(meterRegistry.find("gateway.route.requests").tag("route", "provider-search").timer());
+
+        routes.remove(1);
+        routeMetrics.onApplicationEvent(new RefreshRoutesResultEvent(this));
+
+        assertTrue(meterRegistry.find("gateway.route.requests").tag("route", "provider-search").timers().isEmpty());
+        assertNull(meterRegistry.find("gateway.route.auth").tag("route", "provider-search").timer());
+        assertNull(meterRegistry.find("gateway.route.upstream").tag("route", "provider-search").timer());
+        assertEquals(6, meterRegistry.find("gateway.route.requests").tag("route", "member-search").timers().size());
+    }
+
+    private static Route route(String id) {
+        return Route.async()
+                .id(id)
+                .uri("http://localhost:8080")
+                .predicate(exchange -> true)
+                .build();
+    }
+}
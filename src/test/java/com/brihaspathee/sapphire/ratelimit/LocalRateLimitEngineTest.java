@@ -0,0 +1,84 @@
+package com.brihaspathee.sapphire.ratelimit;
+
+import com.brihaspathee.sapphire.config.RateLimitConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 5:45 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.ratelimit
+ * To change this template use File | Settings | File and Code Template
+ */
+class LocalRateLimitEngineTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+    private final LocalRateLimitEngine engine = new LocalRateLimitEngine(new RateLimitConfig(), now::get);
+
+    private final RateLimit limit = new RateLimit(10, 5);
+
+    @Test
+    void burstIsAllowedThenRejectedUntilRefilled() {
+        for (int i = 4; i >= 0; i--) {
+            RateLimitResult result = engine.acquire("provider-management|1001", limit);
+            assertTrue(result.isAllowed());
+            assertEquals(i, result.getRemaining());
+        }
+        RateLimitResult rejected = engine.acquire("provider-management|1001", limit);
+        assertFalse(rejected.isAllowed());
+        assertEquals(Duration.ofMillis(100), rejected.getRetryAfter());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(engine.acquire("provider-management|1001", limit).isAllowed());
+        assertFalse(engine.acquire("provider-management|1001", limit).isAllowed());
+    }
+
+    @Test
+    void bucketsAreKeyedIndependently() {
+        for (int i = 0; i < 5; i++) {
+            engine.acquire("provider-management|1001", limit);
+        }
+        assertFalse(engine.acquire("provider-management|1001", limit).isAllowed());
+        assertTrue(engine.acquire("provider-management|1002", limit).isAllowed());
+        assertTrue(engine.acquire("premium-billing|1001", limit).isAllowed());
+    }
+
+    @Test
+    void concurrentRequestsNeverExceedTheBurst() throws InterruptedException {
+        RateLimit burstOnly = new RateLimit(1, 100);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (engine.acquire("provider-management", burstOnly).isAllowed()) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(100, allowed.get());
+    }
+}
@@ -0,0 +1,112 @@
+package com.brihaspathee.sapphire.route;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 4:40 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ */
+class RouteDefinitionParserTest {
+
+    private RouteDefinitionParser parser;
+
+    @BeforeEach
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void setUp() {
+        RoutePredicateFactory path = mock(RoutePredicateFactory.class);
+        when(path.name()).thenReturn("Path");
+        RoutePredicateFactory method = mock(RoutePredicateFactory.class);
+        when(method.name()).thenReturn("Method");
+        GatewayFilterFactory authentication = mock(GatewayFilterFactory.class);
+        when(authentication.name()).thenReturn("AuthenticationFilter");
+        GatewayFilterFactory stripPrefix = mock(GatewayFilterFactory.class);
+        when(stripPrefix.name()).thenReturn("StripPrefix");
+        ObjectProvider<RoutePredicateFactory> predicateFactories = mock(ObjectProvider.class);
+        when(predicateFactories.stream()).thenAnswer(invocation -> Stream.of(path, method));
+        ObjectProvider<GatewayFilterFactory> filterFactories = mock(ObjectProvider.class);
+        when(filterFactories.stream()).thenAnswer(invocation -> Stream.of(authentication, stripPrefix));
+        parser = new RouteDefinitionParser(new ObjectMapper(), predicateFactories, filterFactories);
+    }
+
+    @Test
+    void legacyColumnsAreStillAccepted() {
+        List<PredicateDefinition> predicates = parser.parsePredicates("member-management",
+                "/api/v1/sapphire/mms/secured/member/**, /api/v1/sapphire/mms/secured/account/**");
+        assertEquals(1, predicates.size());
+        assertEquals(List.of("/api/v1/sapphire/mms/secured/member/**", "/api/v1/sapphire/mms/secured/account/**"),
+                RouteDefinitionParser.pathPatterns(routeDefinition(predicates)));
+        List<FilterDefinition> filters = parser.parseFilters("member-management", "AuthenticationFilter");
+        assertEquals("AuthenticationFilter", filters.get(0).getName());
+        assertTrue(parser.parseFilters("premium-billing", null).isEmpty());
+    }
+
+    @Test
+    void jsonColumnsHoldSeveralPredicatesAndFilters() {
+        List<PredicateDefinition> predicates = parser.parsePredicates("member-management",
+                "[{\"name\": \"Path\", \"args\": {\"patterns\": [\"/api/v1/sapphire/mms/secured/member/**\", \"/api/v1/sapphire/mms/secured/account/**\"]}},"
+                        + " \"Method=GET,POST\"]");
+        assertEquals(List.of("Path", "Method"), predicates.stream().map(PredicateDefinition::getName).toList());
+        assertEquals(List.of("/api/v1/sapphire/mms/secured/member/**", "/api/v1/sapphire/mms/secured/account/**"),
+                RouteDefinitionParser.pathPatterns(routeDefinition(predicates)));
+
+        List<FilterDefinition> filters = parser.parseFilters("member-management",
+                "[{\"name\": \"AuthenticationFilter\", \"args\": {\"resourceAuthorization\": true}}, \"StripPrefix=1\"]");
+        assertEquals(List.of("AuthenticationFilter", "StripPrefix"), filters.stream().map(FilterDefinition::getName).toList());
+        assertEquals(Map.of("resourceAuthorization", "true"), filters.get(0).getArgs());
+        assertEquals("1", filters.get(1).getArgs().values().iterator().next());
+    }
+
+    @Test
+    void matchTrailingSlashIsNotAPathPattern() {
+        List<PredicateDefinition> named = parser.parsePredicates("member-management",
+                "[{\"name\": \"Path\", \"args\": {\"patterns\": [\"/api/v1/sapphire/mms/secured/member/**\"], \"matchTrailingSlash\": true}}]");
+        List<PredicateDefinition> shortcut = parser.parsePredicates("member-management",
+                "[\"Path=/api/v1/sapphire/mms/secured/member/**,false\"]");
+
+        assertEquals(List.of("/api/v1/sapphire/mms/secured/member/**"),
+                RouteDefinitionParser.pathPatterns(routeDefinition(named)));
+        assertEquals(List.of("/api/v1/sapphire/mms/secured/member/**"),
+                RouteDefinitionParser.pathPatterns(routeDefinition(shortcut)));
+    }
+
+    @Test
+    void invalidColumnsAreRejected() {
+        assertThrows(InvalidRouteDefinitionException.class,
+                () -> parser.parsePredicates("broken", "[\"Path=/a/**\""));
+        assertThrows(InvalidRouteDefinitionException.class,
+                () -> parser.parsePredicates("broken", "[\"Paht=/a/**\"]"));
+        assertThrows(InvalidRouteDefinitionException.class,
+                () -> parser.parseFilters("broken", "[{\"args\": {\"parts\": 1}}]"));
+        assertThrows(InvalidRouteDefinitionException.class,
+                () -> parser.parseFilters("broken", "{\"name\": \"StripPrefix\"}"));
+    }
+
+    private static RouteDefinition routeDefinition(List<PredicateDefinition> predicates) {
+        RouteDefinition routeDefinition = new RouteDefinition();
+        routeDefinition.setPredicates(predicates);
+        return routeDefinition;
+    }
+}
@@ -0,0 +1,77 @@
+package com.brihaspathee.sapphire.route;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.http.server.PathContainer;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 3:25 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ */
+class RouteIndexTest {
+
+    private final List<Route> routes = List.of(
+            route("provider-management-get-org", 5),
+            route("provider-management", 10),
+            route("member-management", 10),
+            route("host-only", 20));
+
+    private final RouteIndex routeIndex = RouteIndex.build(routes, Map.of(
+            "provider-management-get-org",
+            routeDefinition("provider-management-get-org", "/api/v1/sapphire/provider/private/organization/{organizationId}/**"),
+            "provider-management",
+            routeDefinition("provider-management", "/api/v1/sapphire/provider/private/**, /api/v1/sapphire/provider/public"),
+            "member-management",
+            routeDefinition("member-management", "/api/v1/sapphire/mms/secured/account/{accountId}")));
+
+    @Test
+    void candidatesKeepRouteOrder() {
+        assertEquals(List.of("provider-management-get-org", "provider-management", "host-only"),
+                candidateIds("/api/v1/sapphire/provider/private/organization/8f2c1a/locations"));
+    }
+
+    @Test
+    void routesThatCannotMatchAreSkipped() {
+        assertEquals(List.of("provider-management", "host-only"),
+                candidateIds("/api/v1/sapphire/provider/private/locations"));
+        assertEquals(List.of("provider-management", "host-only"),
+                candidateIds("/api/v1/sapphire/provider/public/"));
+        assertEquals(List.of("member-management", "host-only"),
+                candidateIds("/api/v1/sapphire/mms/secured/account/1001"));
+        assertEquals(List.of("host-only"),
+                candidateIds("/api/v1/sapphire/mms/secured/account/1001/member"));
+    }
+
+    private List<String> candidateIds(String path) {
+        return routeIndex.candidates(PathContainer.parsePath(path)).stream().map(Route::getId).toList();
+    }
+
+    private static Route route(String routeId, int order) {
+        return Route.async()
+                .id(routeId)
+                .uri(URI.create("lb://" + routeId.toUpperCase()))
+                .order(order)
+                .predicate(exchange -> true)
+                .build();
+    }
+
+    private static RouteDefinition routeDefinition(String routeId, String patterns) {
+        RouteDefinition routeDefinition = new RouteDefinition();
+        routeDefinition.setId(routeId);
+        routeDefinition.setPredicates(List.of(new PredicateDefinition("Path=" + patterns)));
+        return routeDefinition;
+    }
+}
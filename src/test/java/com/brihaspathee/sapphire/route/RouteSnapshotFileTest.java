@@ -0,0 +1,95 @@
+package com.brihaspathee.sapphire.route;
+
+import com.brihaspathee.sapphire.config.RouteConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/20/26
+ * Time: 11:40 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ */
+class RouteSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    private Path path;
+
+    private RouteSnapshotFile snapshotFile;
+
+    @BeforeEach
+    void setUp() {
+        path = directory.resolve("route-snapshot.json");
+        RouteConfig routeConfig = new RouteConfig();
+        routeConfig.getSnapshotFile().setPath(path.toString());
+        routeConfig.getSnapshotFile().setMaxAge(Duration.ofHours(1));
+        snapshotFile = new RouteSnapshotFile(new ObjectMapper(), routeConfig);
+    }
+
+    @Test
+    void writtenRoutesAreReadBack() {
+        Instant loadedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        RouteDefinition routeDefinition = routeDefinition("member-management");
+        snapshotFile.write(List.of(routeDefinition), loadedAt);
+
+        RouteSnapshotFile.Contents contents = snapshotFile.read().orElseThrow();
+
+        assertEquals(List.of(routeDefinition), contents.getRouteDefinitions());
+        assertEquals(loadedAt, contents.getLoadedAt());
+    }
+
+    @Test
+    void tamperedFileIsIgnored() throws Exception {
+        snapshotFile.write(List.of(routeDefinition("member-management")), Instant.now());
+        String written = Files.readString(path, StandardCharsets.UTF_8);
+        Files.writeString(path, written.replace("MEMBER-MANAGEMENT", "MEMBER-MANAGEMENT-CANARY"));
+
+        assertTrue(snapshotFile.read().isEmpty());
+    }
+
+    @Test
+    void staleFileIsIgnored() throws Exception {
+        snapshotFile.write(List.of(routeDefinition("member-management")), Instant.now());
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        assertTrue(snapshotFile.read().isEmpty());
+
+        snapshotFile.touch();
+
+        assertTrue(snapshotFile.read().isPresent());
+    }
+
+    private static RouteDefinition routeDefinition(String routeId) {
+        RouteDefinition routeDefinition = new RouteDefinition();
+        routeDefinition.setId(routeId);
+        routeDefinition.setUri(URI.create("lb://" + routeId.toUpperCase()));
+        routeDefinition.setOrder(1);
+        routeDefinition.setPredicates(List.of(new PredicateDefinition("Path=/api/v1/sapphire/mms/secured/**")));
+        routeDefinition.setMetadata(Map.of("order", 1,
+                RouteRefreshScope.METADATA_KEY, routeId));
+        return routeDefinition;
+    }
+}
@@ -0,0 +1,59 @@
+package com.brihaspathee.sapphire.route;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/17/26
+ * Time: 4:45 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ */
+class RouteTemplateMatcherTest {
+
+    @Test
+    void returnsPathAsIsWhenTemplateHasNoVariables() {
+        RouteTemplateMatcher matcher = RouteTemplateMatcher.compile("/api/v1/sapphire/provider/private/**");
+        String path = "/api/v1/sapphire/provider/private/organization/list";
+
+        assertSame(path, matcher.toTemplatePath(path));
+    }
+
+    @Test
+    void replacesVariableAndKeepsRestOfPath() {
+        RouteTemplateMatcher matcher = RouteTemplateMatcher.compile(
+                "/api/v1/sapphire/provider/private/organization/{organizationId}/**");
+
+        assertEquals("/api/v1/sapphire/provider/private/organization/{organizationId}/locations",
+                matcher.toTemplatePath("/api/v1/sapphire/provider/private/organization/123/locations"));
+    }
+
+    @Test
+    void replacesEveryVariable() {
+        RouteTemplateMatcher matcher = RouteTemplateMatcher.compile("/account/{accountId}/member/{memberId}/**");
+
+        assertEquals("/account/{accountId}/member/{memberId}/address",
+                matcher.toTemplatePath("/account/1001/member/2002/address"));
+    }
+
+    @Test
+    void replacesRepeatedValuesByPosition() {
+        RouteTemplateMatcher matcher = RouteTemplateMatcher.compile("/v1/account/{accountId}/member/{memberId}");
+
+        assertEquals("/v1/account/{accountId}/member/{memberId}",
+                matcher.toTemplatePath("/v1/account/1/member/1"));
+    }
+
+    @Test
+    void dropsRegularExpressionsAndCapturesRest() {
+        assertEquals("/member/{id}",
+                RouteTemplateMatcher.compile("/member/{id:\\d{3}}").toTemplatePath("/member/123"));
+        assertEquals("/files/{path}",
+                RouteTemplateMatcher.compile("/files/{*path}").toTemplatePath("/files/a/b/c"));
+    }
+}
@@ -0,0 +1,172 @@
+package com.brihaspathee.sapphire.route;
+
+import com.brihaspathee.sapphire.config.RouteConfig;
+import com.brihaspathee.sapphire.domain.entity.Route;
+import com.brihaspathee.sapphire.domain.repository.RouteRepository;
+import com.brihaspathee.sapphire.domain.repository.RouteTableFingerprint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/19/26
+ * Time: 11:30 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.route
+ * To change this template use File | Settings | File and Code Template
+ */
+class SapphireRouteDefinitionRepositoryTest {
+
+    private RouteRepository routeRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private Scheduler jdbcScheduler;
+
+    private SapphireRouteDefinitionRepository repository;
+
+    @BeforeEach
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void setUp() {
+        RoutePredicateFactory path = mock(RoutePredicateFactory.class);
+        when(path.name()).thenReturn("Path");
+        GatewayFilterFactory authentication = mock(GatewayFilterFactory.class);
+        when(authentication.name()).thenReturn("AuthenticationFilter");
+        ObjectProvider<RoutePredicateFactory> predicateFactories = mock(ObjectProvider.class);
+        when(predicateFactories.stream()).thenAnswer(invocation -> Stream.of(path));
+        ObjectProvider<GatewayFilterFactory> filterFactories = mock(ObjectProvider.class);
+        when(filterFactories.stream()).thenAnswer(invocation -> Stream.of(authentication));
+
+        routeRepository = mock(RouteRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        RouteConfig routeConfig = new RouteConfig();
+        routeConfig.getSnapshotFile().setEnabled(false);
+        jdbcScheduler = Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "jdbc");
+        repository = new SapphireRouteDefinitionRepository(routeRepository, new RouteTemplateRegistry(),
+                new RouteDefinitionParser(new ObjectMapper(), predicateFactories, filterFactories),
+                jdbcScheduler, new RouteSnapshotFile(new ObjectMapper(), routeConfig),
+                TransactionOperations.withoutTransaction(), eventPublisher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcScheduler.dispose();
+    }
+
+    @Test
+    void routesAreLoadedOffTheNonBlockingThreads() {
+        when(routeRepository.findFingerprint()).thenReturn(new RouteTableFingerprint(1L, Instant.now()));
+        when(routeRepository.findByEnabledTrue()).thenAnswer(invocation -> {
+            // stands in for the time a query waits on PostgreSQL
+            Thread.sleep(10);
+            return List.of(Route.builder()
+                    .routeId("member-management")
+                    .uri("lb://MEMBER-MANAGEMENT")
+                    .predicates("/api/v1/sapphire/mms/secured/**")
+                    .filters("AuthenticationFilter")
+                    .enabled(true)
+                    .build());
+        });
+
+        RouteSnapshot snapshot = Mono.defer(repository::reload)
+                .subscribeOn(Schedulers.parallel())
+                .block();
+
+        assertEquals(1, snapshot.getRouteDefinitions().size());
+    }
+
+    @Test
+    void batchIsWrittenOnceAndRefreshesOnlyTheChangedRoutes() {
+        Route memberManagement = route("member-management", "lb://MEMBER-MANAGEMENT");
+        Route premiumBilling = route("premium-billing", "lb://PREMIUM-BILLING");
+        when(routeRepository.findFingerprint()).thenReturn(new RouteTableFingerprint(2L, Instant.now()));
+        when(routeRepository.findByEnabledTrue()).thenReturn(List.of(memberManagement, premiumBilling));
+        repository.reload().block();
+        Route canary = route("member-management", "lb://MEMBER-MANAGEMENT-CANARY");
+        canary.setStreaming(true);
+        when(routeRepository.findByRouteIdIn(any())).thenReturn(List.of(memberManagement));
+        when(routeRepository.findFingerprint()).thenReturn(new RouteTableFingerprint(2L, Instant.now().plusSeconds(1)));
+        when(routeRepository.findByEnabledTrue()).thenReturn(List.of(memberManagement, premiumBilling));
+
+        RouteSnapshot snapshot = repository.apply(List.of(canary), List.of()).block();
+
+        assertEquals(2, snapshot.getVersion());
+        assertEquals(Set.of("member-management"), snapshot.getChangedRouteIds());
+        assertEquals("lb://MEMBER-MANAGEMENT-CANARY", memberManagement.getUri());
+        assertTrue(memberManagement.isStreaming());
+        assertFalse(premiumBilling.isStreaming());
+        verify(routeRepository).saveAll(List.of(memberManagement));
+        ArgumentCaptor<RefreshRoutesEvent> event = ArgumentCaptor.forClass(RefreshRoutesEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(RouteRefreshScope.metadataFor("member-management"), event.getValue().getMetadata());
+    }
+
+    @Test
+    void invalidBatchWritesNothing() {
+        Route invalid = route("premium-billing", "lb://PREMIUM-BILLING");
+        invalid.setFilters("[\"UnknownFilter\"]");
+
+        assertThrows(InvalidRouteDefinitionException.class, () -> repository.apply(
+                List.of(route("member-management", "lb://MEMBER-MANAGEMENT"), invalid), List.of()).block());
+
+        verify(routeRepository, never()).saveAll(any());
+        verify(routeRepository, never()).deleteAllInBatch(any());
+        verify(eventPublisher, never()).publishEvent(any(ApplicationEvent.class));
+    }
+
+    @Test
+    void blockingOnANonBlockingThreadFailsTheTest() {
+        // guards the test above, which proves nothing if BlockHound is not installed
+        Throwable thrown = assertThrows(RuntimeException.class, () -> Mono.fromCallable(() -> {
+                    Thread.sleep(10);
+                    return true;
+                })
+                .subscribeOn(Schedulers.parallel())
+                .block());
+
+        assertInstanceOf(BlockingOperationError.class, Exceptions.unwrap(thrown));
+    }
+
+    private static Route route(String routeId, String uri) {
+        return Route.builder()
+                .routeId(routeId)
+                .uri(uri)
+                .predicates("[\"Path=/api/v1/sapphire/" + routeId + "/**\"]")
+                .filters("[\"AuthenticationFilter\"]")
+                .enabled(true)
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.brihaspathee.sapphire.scheduler;
+
+import com.brihaspathee.sapphire.config.RouteConfig;
+import com.brihaspathee.sapphire.route.RouteRefreshScope;
+import com.brihaspathee.sapphire.route.RouteSnapshot;
+import com.brihaspathee.sapphire.route.SapphireRouteDefinitionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/18/26
+ * Time: 12:10 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.scheduler
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Drives the refresher with an in-memory stand-in for the PostgreSQL notifications.
+ */
+class SapphireRouteRefresherTest {
+
+    private final Sinks.Many<String> notifications = Sinks.many().multicast().directBestEffort();
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private SapphireRouteDefinitionRepository routeDefinitionRepository;
+
+    private SapphireRouteRefresher refresher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        routeDefinitionRepository = mock(SapphireRouteDefinitionRepository.class);
+        ObjectProvider<RouteChangeNotifications> notificationSources = mock(ObjectProvider.class);
+        RouteChangeNotifications standIn = () -> notifications.asFlux();
+        when(notificationSources.orderedStream()).thenReturn(Stream.of(standIn));
+        refresher = new SapphireRouteRefresher(eventPublisher, routeDefinitionRepository,
+                new RouteConfig(), notificationSources);
+        refresher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        refresher.destroy();
+    }
+
+    @Test
+    void notificationPublishesScopedRefreshForChangedRoutes() {
+        RouteSnapshot loaded = RouteSnapshot.EMPTY.next(
+                List.of(routeDefinition("provider-management"), routeDefinition("premium-billing")), Instant.now());
+        when(routeDefinitionRepository.hasChanged()).thenReturn(Mono.just(true));
+        when(routeDefinitionRepository.reload()).thenReturn(Mono.just(loaded));
+
+        notifications.tryEmitNext("provider-management");
+
+        ArgumentCaptor<RefreshRoutesEvent> events = ArgumentCaptor.forClass(RefreshRoutesEvent.class);
+        verify(eventPublisher, timeout(2000).times(2)).publishEvent(events.capture());
+        assertTrue(events.getAllValues().stream().allMatch(RefreshRoutesEvent::isScoped));
+        assertEquals(List.of("premium-billing", "provider-management"), events.getAllValues().stream()
+                .map(event -> event.getMetadata().get(RouteRefreshScope.METADATA_KEY))
+                .toList());
+    }
+
+    @Test
+    void unchangedTableDoesNotPublishRefresh() {
+        when(routeDefinitionRepository.hasChanged()).thenReturn(Mono.just(false));
+        when(routeDefinitionRepository.reload()).thenReturn(Mono.empty());
+
+        notifications.tryEmitNext("provider-management");
+        refresher.refresh();
+
+        verify(routeDefinitionRepository, timeout(2000).times(2)).hasChanged();
+        verify(eventPublisher, after(200).never()).publishEvent(any(ApplicationEvent.class));
+    }
+
+    private static RouteDefinition routeDefinition(String routeId) {
+        RouteDefinition routeDefinition = new RouteDefinition();
+        routeDefinition.setId(routeId);
+        routeDefinition.setUri(URI.create("lb:http://" + routeId.toUpperCase()));
+        routeDefinition.setMetadata(RouteRefreshScope.metadataFor(routeId));
+        return routeDefinition;
+    }
+}
@@ -0,0 +1,213 @@
+package com.brihaspathee.sapphire.streaming;
+
+import com.brihaspathee.sapphire.config.StreamingConfig;
+import com.brihaspathee.sapphire.support.TestGateway;
+import com.brihaspathee.sapphire.support.TestGateway.TestRoute;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufAllocatorMetricProvider;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/21/26
+ * Time: 3:30 PM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.streaming
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Proxies multi-gigabyte bodies through a gateway started without the database, with a
+ * streaming route to a local backend defined in the properties. The bodies are larger
+ * than what the gateway could hold, so the transfers only complete if nothing along the
+ * way aggregates them; the live heap and the pooled memory are checked not to grow with
+ * the size of the transfer. That test takes minutes and is tagged slow, so it only runs
+ * with the slow-tests profile.
+ */
+class StreamingBodyFilterTest {
+
+    private static final long TWO_GIGABYTES = 2L * 1024 * 1024 * 1024;
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final long MEMORY_SLACK = 128L * 1024 * 1024;
+
+    private static final ByteBuf CHUNK = Unpooled.unreleasableBuffer(
+            Unpooled.directBuffer(CHUNK_SIZE).writeBytes(randomBytes(CHUNK_SIZE)));
+
+    private static DisposableServer backend;
+
+    private static TestGateway gateway;
+
+    @BeforeAll
+    static void setUp() {
+        backend = TestGateway.backend(routes -> routes
+                .post("/export/upload", (request, response) -> response.sendString(request.receive()
+                        .map(ByteBuf::readableBytes)
+                        .reduce(0L, Long::sum)
+                        .map(String::valueOf)))
+                .get("/export/download", (request, response) -> response
+                        .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(TWO_GIGABYTES))
+                        .send(chunks(TWO_GIGABYTES)))
+                .get("/export/too-large", (request, response) -> response
+                        .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(2 * TWO_GIGABYTES))
+                        .send(chunks(2 * TWO_GIGABYTES))));
+        gateway = TestGateway.start(
+                List.of(TestRoute.builder()
+                        .id("export")
+                        .uri("http://localhost:" + backend.port())
+                        .path("/export/**")
+                        .metadata(StreamingBodyFilter.METADATA_KEY, "true")
+                        .build()),
+                List.of(StreamingConfig.class, StreamingBodyFilter.class),
+                "application.streaming.max-request-size=3GB",
+                "application.streaming.max-response-size=3GB");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        gateway.close();
+        backend.disposeNow();
+    }
+
+    @Test
+    @Tag("slow")
+    void multiGigabyteBodiesStreamAtConstantMemory() {
+        long heapBefore = liveHeap();
+        long pooledBefore = pooledDirectMemory();
+
+        Long uploaded = HttpClient.create()
+                .post()
+                .uri(gateway.url("/export/upload"))
+                .send(chunks(TWO_GIGABYTES))
+                .responseSingle((response, body) -> body.asString().map(Long::valueOf))
+                .block(Duration.ofMinutes(5));
+        Long downloaded = HttpClient.create()
+                .get()
+                .uri(gateway.url("/export/download"))
+                .response((response, body) -> body.map(ByteBuf::readableBytes).reduce(0L, Long::sum))
+                .blockLast(Duration.ofMinutes(5));
+
+        assertEquals(TWO_GIGABYTES, uploaded);
+        assertEquals(TWO_GIGABYTES, downloaded);
+        long heapGrowth = liveHeap() - heapBefore;
+        long pooledGrowth = pooledDirectMemory() - pooledBefore;
+        assertTrue(heapGrowth < MEMORY_SLACK, "live heap grew by " + heapGrowth);
+        assertTrue(pooledGrowth < MEMORY_SLACK, "pooled direct memory grew by " + pooledGrowth);
+    }
+
+    @Test
+    void requestAnnouncingMoreThanTheLimitIsRejected() {
+        Integer status = HttpClient.create()
+                .headers(headers -> headers.set(HttpHeaders.CONTENT_LENGTH, String.valueOf(2 * TWO_GIGABYTES)))
+                .post()
+                .uri(gateway.url("/export/upload"))
+                .send(Flux.never())
+                .response()
+                .map(response -> response.status().code())
+                .block(Duration.ofSeconds(30));
+
+        assertEquals(413, status);
+    }
+
+    @Test
+    void responseAnnouncingMoreThanTheLimitIsReplaced() {
+        Integer status = HttpClient.create()
+                .get()
+                .uri(gateway.url("/export/too-large"))
+                .responseSingle((response, body) -> Mono.just(response.status().code()))
+                .block(Duration.ofSeconds(30));
+
+        assertEquals(502, status);
+    }
+
+    @Test
+    void chunkedRequestOverTheLimitIsCutOffAndItsBuffersReleased() {
+        StreamingConfig streamingConfig = new StreamingConfig();
+        streamingConfig.setMaxRequestSize(DataSize.ofKilobytes(3));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StreamingBodyFilter filter = new StreamingBodyFilter(streamingConfig, meterRegistry);
+        NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+        List<NettyDataBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            buffers.add(bufferFactory.allocateBuffer(1024).write(randomBytes(1024)));
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.post("/export/upload").body(Flux.fromIterable(buffers)));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("export")
+                .uri("http://localhost:8080")
+                .predicate(e -> true)
+                .metadata(StreamingBodyFilter.METADATA_KEY, "true")
+                .build());
+        AtomicLong forwarded = new AtomicLong();
+
+        ResponseStatusException thrown = assertThrows(ResponseStatusException.class, () -> filter.filter(exchange,
+                        e -> e.getRequest().getBody()
+                                .doOnNext(buffer -> forwarded.addAndGet(buffer.readableByteCount()))
+                                .doOnNext(DataBufferUtils::release)
+                                .then())
+                .block());
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, thrown.getStatusCode());
+        assertEquals(3 * 1024, forwarded.get());
+        // the three buffers forwarded and the one going past the limit are all released
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, buffers.get(i).getNativeBuffer().refCnt(), "buffer " + i);
+        }
+        assertEquals(1, meterRegistry.get("gateway.streaming.too.large").tag("direction", "request").counter().count());
+        buffers.subList(4, buffers.size()).forEach(DataBufferUtils::release);
+    }
+
+    private static Flux<ByteBuf> chunks(long size) {
+        return Flux.range(0, (int) (size / CHUNK_SIZE)).map(i -> CHUNK.duplicate());
+    }
+
+    private static long liveHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long pooledDirectMemory() {
+        return ByteBufAllocator.DEFAULT instanceof ByteBufAllocatorMetricProvider provider
+                ? provider.metric().usedDirectMemory() : 0;
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,180 @@
+package com.brihaspathee.sapphire.support;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRoutes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 10/24/26
+ * Time: 10:00 AM
+ * Project: sapphire
+ * Package Name: com.brihaspathee.sapphire.support
+ * To change this template use File | Settings | File and Code Template
+ *
+ * A gateway for the tests and benchmarks that send requests through one, started without
+ * the database, the config server or Eureka. Its routes are defined in the properties and
+ * lead to local backends; on top of the auto-configuration it only has the beans the
+ * caller imports, for e.g. the filters under test.
+ */
+public final class TestGateway implements AutoCloseable {
+
+    /**
+     * The application context of the gateway.
+     */
+    private final ConfigurableApplicationContext context;
+
+    /**
+     * The base url of the gateway.
+     */
+    private final String url;
+
+    private TestGateway(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    /**
+     * Starts a backend on a free local port.
+     *
+     * @param routes defines the handlers of the backend
+     * @return the running backend
+     */
+    public static DisposableServer backend(Consumer<? super HttpServerRoutes> routes) {
+        return HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes)
+                .bindNow();
+    }
+
+    /**
+     * Starts a gateway on a free local port.
+     *
+     * @param routes the routes of the gateway
+     * @param imports the beans and configurations added to the auto-configuration
+     * @param properties further properties, in the key=value form, overriding the defaults
+     * @return the running gateway
+     */
+    public static TestGateway start(List<TestRoute> routes, List<Class<?>> imports, String... properties) {
+        List<String> allProperties = new ArrayList<>(List.of(
+                // keeps the application.yaml of the tests, which needs the database, out
+                "spring.config.name=test-gateway",
+                "spring.main.banner-mode=off",
+                "spring.cloud.config.enabled=false",
+                "spring.cloud.config.import-check.enabled=false",
+                "eureka.client.enabled=false",
+                "logging.level.root=WARN",
+                "server.port=0"));
+        for (int i = 0; i < routes.size(); i++) {
+            allProperties.addAll(routes.get(i).properties("spring.cloud.gateway.routes[" + i + "]"));
+        }
+        allProperties.addAll(List.of(properties));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Gateway.class)
+                .sources(imports.toArray(Class<?>[]::new))
+                .properties(allProperties.toArray(String[]::new))
+                .run();
+        return new TestGateway(context);
+    }
+
+    /**
+     * Returns the url of a path on the gateway.
+     *
+     * @param path the path, starting with a slash
+     * @return the url of the path
+     */
+    public String url(String path) {
+        return url + path;
+    }
+
+    /**
+     * Returns a bean of the gateway.
+     *
+     * @param type the type of the bean
+     * @return the bean
+     */
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Stops the gateway.
+     */
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    /**
+     * A route of the gateway, to a local backend, matched by a Path predicate.
+     */
+    @Value
+    @Builder
+    public static class TestRoute {
+
+        /**
+         * The id of the route.
+         */
+        String id;
+
+        /**
+         * The uri requests are routed to.
+         */
+        String uri;
+
+        /**
+         * The path pattern of the route.
+         */
+        String path;
+
+        /**
+         * The filters of the route, in the shortcut form.
+         */
+        @Singular
+        List<String> filters;
+
+        /**
+         * The metadata of the route.
+         */
+        @Singular("metadata")
+        Map<String, String> metadata;
+
+        /**
+         * Returns the route as properties under the given prefix.
+         */
+        private List<String> properties(String prefix) {
+            List<String> properties = new ArrayList<>();
+            properties.add(prefix + ".id=" + id);
+            properties.add(prefix + ".uri=" + uri);
+            properties.add(prefix + ".predicates[0]=Path=" + path);
+            for (int i = 0; i < filters.size(); i++) {
+                properties.add(prefix + ".filters[" + i + "]=" + filters.get(i));
+            }
+            metadata.forEach((key, value) -> properties.add(prefix + ".metadata[" + key + "]=" + value));
+            return properties;
+        }
+    }
+
+    /**
+     * The auto-configuration of the gateway, without the database.
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+    static class Gateway {
+    }
+}